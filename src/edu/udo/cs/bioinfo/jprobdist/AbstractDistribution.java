@@ -6,6 +6,7 @@
  */
 
 package edu.udo.cs.bioinfo.jprobdist;
+import java.util.Arrays;
 import edu.udo.cs.bioinfo.jprobdist.MathFunctions.RealFunction;
 import static edu.udo.cs.bioinfo.jprobdist.MathFunctions.*;
 
@@ -57,10 +58,63 @@ public abstract class AbstractDistribution implements UVDistribution {
     return Math.exp(lncdf(x));
   }
   
+  // the primitive interval functions delegate to the Interval versions;
+  // subclasses that care about allocation should override them.
+  
+  public double P(final double a, final double b, final Interval.Type t) {
+    return P(new Interval(a,b,t));
+  }
+  
+  public double lnP(final double a, final double b, final Interval.Type t) {
+    return lnP(new Interval(a,b,t));
+  }
+  
   public double ucdf(final double x) {
     return Math.exp(lnucdf(x));
   }
   
+  // =================================================================
+  // accuracy policy; subclasses whose kernels can trade precision for
+  // speed override the versions that take a policy
+  
+  private volatile AccuracyPolicy accuracy = AccuracyPolicy.FULL;
+  
+  public AccuracyPolicy accuracy() {
+    return accuracy;
+  }
+  
+  public void setAccuracy(final AccuracyPolicy acc) {
+    if (acc==null) throw new IllegalArgumentException("accuracy policy must not be null");
+    accuracy = acc;
+  }
+  
+  public double cdf(final double x, final AccuracyPolicy acc) {
+    return cdf(x);
+  }
+  
+  public double ucdf(final double x, final AccuracyPolicy acc) {
+    return ucdf(x);
+  }
+  
+  // bisection on the policy's cdf, stopping at the policy's tolerance
+  public double qf(final double p, final AccuracyPolicy acc) {
+    return qfNumeric(p, 0.0, acc);
+  }
+  
+  // =================================================================
+  // provide default batch versions of lnf and lnP by looping;
+  // subclasses may override them with tighter kernels.
+
+  public void lnf(final double[] x, final double[] out) {
+    if (out.length<x.length) throw new DimensionMismatchException();
+    for(int i=0; i<x.length; i++) out[i] = lnf(x[i]);
+  }
+
+  public void lnP(final double[] x, final double[] out) {
+    if (out.length<x.length) throw new DimensionMismatchException();
+    for(int i=0; i<x.length; i++) out[i] = lnP(x[i]);
+  }
+
   // =======================================================================
   // provide generic implementations of E, Var, std, kurtosis*, median, iqr,
   // and boxPlotStatistics
@@ -95,16 +149,20 @@ public abstract class AbstractDistribution implements UVDistribution {
   }
   
   public double iqr() {
-    return(qf(0.75)-qf(0.25));
+    final double[] q = {0.25, 0.75};
+    qf(q, q);
+    return q[1]-q[0];
   }
   
   
+  // the three quartiles are computed together by the batch qf
   public final double[] boxPlotStatistics() {
-    double med = median();
-    double lq  = qf(0.25);
-    double uq  = qf(0.75);
-    double lw  = lq - 1.5*iqr();
-    double uw  = uq + 1.5*iqr();
+    final double[] q = {0.25, 0.5, 0.75};
+    qf(q, q);
+    final double lq = q[0], med = q[1], uq = q[2];
+    final double iqr = uq-lq;
+    final double lw  = lq - 1.5*iqr;
+    final double uw  = uq + 1.5*iqr;
     return new double[] {lw, lq, med, uw, uq};
   }
   
@@ -114,7 +172,7 @@ public abstract class AbstractDistribution implements UVDistribution {
   // qf(p) := inf {x : cdf(x) >= p}
   
   public double qf(final double p) {
-    return qfNumeric(p, 0.0);
+    return qfNumeric(p, 0.0, accuracy);
   }
   
   /** quantile function, computed by a numerical root finding method.
@@ -127,6 +185,13 @@ public abstract class AbstractDistribution implements UVDistribution {
    *@return quantile of p
    */
   final public double qfNumeric(final double p, final double tol) {
+    return qfNumeric(p, tol, AccuracyPolicy.FULL);
+  }
+  
+  /** as qfNumeric(p, tol), but the cdf is evaluated under the given policy,
+   * and the bisection also stops when the bracket is shorter than acc.tol
+   * relative to its midpoint */
+  final double qfNumeric(final double p, final double tol, final AccuracyPolicy acc) {
     if (p<0 || p>1)
       throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
     if (p==0.0) return Double.NEGATIVE_INFINITY;
@@ -135,14 +200,87 @@ public abstract class AbstractDistribution implements UVDistribution {
 
     // check whether min is the solution
     final double m = min();
-    if (m!=Double.NEGATIVE_INFINITY && cdf(m)>=p) return m;
+    if (m!=Double.NEGATIVE_INFINITY && cdf(m, acc)>=p) return m;
     
     // find an initial interval [L,R] such that p is in [cdf(L),cdf(R)]
     RealFunction fun = new RealFunction() { 
-      public final double valueAt(final double x) { return(cdf(x)-p); }
+      public final double valueAt(final double x) { return(cdf(x, acc)-p); }
     };
     Interval i0 = findRootInterval(fun, m, max());
-    return findRootBisection(fun, i0.a, i0.b, tol);
+    return findRootBisection(fun, i0.a, i0.b, tol, relacc(acc));
+  }
+  
+  
+  /** quantile function at many probabilities: out[i] = qf(p[i]).
+   * The distinct probabilities are sorted and handed to qfAscending,
+   * which solves them in increasing order, so that each quantile
+   * brackets the next one from below; the results are then scattered
+   * back to the input order. out may be the same array as p.
+   *@param p  the probabilities, in any order
+   *@param out  the array that receives the results (length &gt;= p.length)
+   */
+  public void qf(final double[] p, final double[] out) {
+    final int n = p.length;
+    if (out.length<n) throw new DimensionMismatchException();
+    final double[] s = new double[n];
+    for(int i=0; i<n; i++) {
+      if (!(p[i]>=0 && p[i]<=1))
+        throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p[i]));
+      s[i] = p[i]+0.0;   // map -0.0 to 0.0
+    }
+    Arrays.sort(s);
+    int m = 0;  // number of distinct probabilities
+    for(int i=0; i<n; i++) if (m==0 || s[i]!=s[m-1]) s[m++] = s[i];
+    final double[] q = new double[m];
+    qfAscending(s, m, q);
+    for(int i=0; i<n; i++) out[i] = q[Arrays.binarySearch(s, 0, m, p[i]+0.0)];
+  }
+  
+  /** computes q[j] = qf(p[j]) for distinct probabilities p[0] &lt; ... &lt; p[m-1].
+   * The default solves them by bisection on the cdf: the previous quantile
+   * is the left end of the bracket, and the right end is found by galloping
+   * from there in steps of the previous gap (doubling each time), so nearby
+   * quantiles need only a few cdf evaluations more than the bisection itself.
+   * Subclasses with a fast qf(p) of their own override this by qfEach.
+   */
+  void qfAscending(final double[] p, final int m, final double[] q) {
+    final AccuracyPolicy acc = accuracy;
+    double a = Double.NaN, w = 1.0;
+    for(int j=0; j<m; j++) {
+      final double pj = p[j];
+      if (pj==0.0 || pj==1.0 || Double.isNaN(a) || Double.isInfinite(a)) {
+        q[j] = qf(pj);
+      } else {
+        q[j] = qfNumericAbove(pj, a, w, acc);
+        if (q[j]>a) w = q[j]-a;
+      }
+      if (pj<1.0) a = q[j];
+    }
+  }
+  
+  /** q[j] = qf(p[j]) for all j&lt;m, one call each */
+  final void qfEach(final double[] p, final int m, final double[] q) {
+    for(int j=0; j<m; j++) q[j] = qf(p[j]);
+  }
+  
+  /** the p-quantile (0&lt;p&lt;1) by bisection, given a point a that is not
+   * to the right of it, and the initial step w for finding the right end */
+  private double qfNumericAbove(final double p, double a, double w, final AccuracyPolicy acc) {
+    if (cdf(a, acc)>=p) return a;
+    final double hi = max();
+    double b = a+w;
+    while (b<hi && cdf(b, acc)<p) { a = b; w *= 2; b = a+w; }
+    if (b>hi) b = hi;
+    final RealFunction fun = new RealFunction() { 
+      public final double valueAt(final double x) { return(cdf(x, acc)-p); }
+    };
+    return findRootBisection(fun, a, b, 0.0, relacc(acc));
+  }
+  
+  /** the relative bisection accuracy under the given policy;
+   * 0.0 (the best possible) for FULL */
+  private static double relacc(final AccuracyPolicy acc) {
+    return (acc==AccuracyPolicy.FULL)? 0.0 : acc.tol;
   }
   
   
@@ -162,6 +300,17 @@ public abstract class AbstractDistribution implements UVDistribution {
     return r;
   }
   
+  // IID uses random(n), which may have a faster sampler than inversion;
+  // the other modes generate the uniform numbers first and call the batch qf.
+  public double[] random(final int n, final SamplingMode mode) {
+    if (n<0) throw new IllegalArgumentException("n must be nonnegative");
+    if (mode==SamplingMode.IID) return random(n);
+    final double[] u = new double[n];
+    Samplers.uniforms(mode, u);
+    qf(u, u);
+    return u;
+  }
+  
   
   // ======================================================
   // Delegate all vararg functions to univariate functions
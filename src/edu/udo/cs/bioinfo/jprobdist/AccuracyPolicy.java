@@ -0,0 +1,62 @@
+/*
+ * AccuracyPolicy.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+/**
+ * Levels of accuracy at which cdfs, ucdfs and quantiles are computed.
+ * A policy can be set for a distribution instance (see
+ * UVDistribution.setAccuracy), which then applies to cdf(x), ucdf(x) and qf(p),
+ * or it can be given per call, as in cdf(x, policy).
+ *
+ * The tolerance tol of a policy is the relative accuracy that is aimed at.
+ * It terminates the series and continued fractions of the incomplete gamma
+ * and beta functions, and the root finding in the quantile functions.
+ * A policy that allows approximations additionally replaces the incomplete
+ * gamma function for large shapes by the Wilson-Hilferty normal
+ * approximation, but only where its error bound (about 0.006/shape,
+ * absolute) is below tol times the smaller of the two tail probabilities.
+ * Logarithmic versions (lncdf, lnucdf) and densities always use full accuracy.
+ *
+ * Speed (ns per call) and largest relative deviation from FULL, measured
+ * on one machine by AccuracyPolicyBenchmark (in the test sources) at 2000
+ * points spread over the central 99.9% of the mass (cdf below the median,
+ * ucdf above it; qf at the same probabilities):
+ * <pre>
+ *                              FULL           HIGH            FAST
+ *  Gamma(1E6,1).cdf         15600        12300 / 1E-10     380 / 1E-6
+ *  Gamma(50,1).cdf            440          360 / 1E-10     390 / 1E-6
+ *  Gamma(1E5,1).qf          14600        10600 / 4E-13     650 / 2E-9
+ *  Poisson(1E4).cdf          2800         2100 / 1E-10    2200 / 1E-6
+ *  Poisson(1E6).cdf         19900        15000 / 1E-10     210 / 1E-6
+ *  Binomial(1E5,0.3).cdf     3200         1500 / 9E-11     940 / 9E-7
+ *  Beta(20,30).qf            2400         2100 / 4E-12    1300 / 5E-8
+ *  NegBinomial(5,0.01).cdf    290          230 / 1E-11     210 / 2E-7
+ * </pre>
+ * The large gains come from the Wilson-Hilferty approximation; elsewhere,
+ * the series and continued fractions only stop a few steps earlier.
+ *
+ * @author Sven Rahmann
+ */
+public enum AccuracyPolicy {
+  /** full double precision; the default */
+  FULL(MathFunctions.DBL_TOL, false),
+  /** a relative accuracy of about 1E-10 */
+  HIGH(1E-10, false),
+  /** a relative accuracy of about 1E-6, using approximations where they suffice */
+  FAST(1E-6, true);
+
+  /** the relative tolerance */
+  public final double tol;
+  /** whether asymptotic approximations may replace exact evaluation */
+  public final boolean approximate;
+
+  AccuracyPolicy(final double tol, final boolean approximate) {
+    this.tol = tol;
+    this.approximate = approximate;
+  }
+}
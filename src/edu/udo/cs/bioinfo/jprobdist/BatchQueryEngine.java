@@ -0,0 +1,257 @@
+/*
+ * BatchQueryEngine.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class answers large batches of small independent queries,
+ * such as "ucdf of k under Poisson(lambda)" or "qf of p under Binomial(n,p)",
+ * each given as a (distribution, operation, argument) triple.
+ *
+ * The queries are grouped by distribution: two queries fall into the same
+ * group if their distributions are equal (for the parametric families,
+ * this means equal parameters; otherwise, the same instance) and have the
+ * same accuracy policy. Within a group, the queries of each operation are
+ * answered together by one distribution object, using the batch kernels:
+ * lnf and lnP of many points, qf of many probabilities (with shared
+ * brackets), the sweeping tail functions of discrete distributions,
+ * and, for the remaining operations, one evaluation per distinct argument.
+ * The (group, operation) units run concurrently on a ForkJoinPool,
+ * and the results are returned in input order.
+ *
+ * Each call returns its Metrics (queries, groups, wall-clock time);
+ * the engine also accumulates them over all calls, see metrics().
+ * An engine may be used by several threads at once.
+ *
+ * @author Sven Rahmann
+ */
+public final class BatchQueryEngine {
+
+  /** the operations that can be queried */
+  public static enum Operation {
+    F, LNF, P, LNP, CDF, LNCDF, UCDF, LNUCDF, QF
+  }
+
+  /** one query: an operation of a distribution at an argument */
+  public static final class Query {
+    public final UVDistribution dist;
+    public final Operation op;
+    public final double x;
+
+    /** creates the query op(x) under dist; for QF, x must be a probability */
+    public Query(final UVDistribution dist, final Operation op, final double x) {
+      if (dist==null || op==null) throw new IllegalArgumentException("distribution and operation required");
+      if (op==Operation.QF && !(x>=0 && x<=1))
+        throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(x));
+      this.dist = dist;
+      this.op = op;
+      this.x = x;
+    }
+  }
+
+  /** counters of one or more batches */
+  public static final class Metrics {
+    /** the number of queries */
+    public final long queries;
+    /** the number of distinct distributions (groups) */
+    public final long groups;
+    /** the wall-clock time in nanoseconds */
+    public final long nanos;
+
+    Metrics(final long queries, final long groups, final long nanos) {
+      this.queries = queries;
+      this.groups = groups;
+      this.nanos = nanos;
+    }
+
+    /** queries answered per second */
+    public double queriesPerSecond() {
+      return (nanos==0)? Double.NaN : queries*1E9/nanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d queries in %d groups, %.3f ms, %.0f queries/s",
+          queries, groups, nanos*1E-6, queriesPerSecond());
+    }
+  }
+
+  /** below this number of queries, a batch is answered in the calling thread */
+  private static final int PARALLEL_MIN = 1<<12;
+
+  private final ForkJoinPool pool;
+  private final AtomicLong totalQueries = new AtomicLong();
+  private final AtomicLong totalGroups = new AtomicLong();
+  private final AtomicLong totalNanos = new AtomicLong();
+
+  /** creates an engine that runs on the common ForkJoinPool */
+  public BatchQueryEngine() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /** creates an engine that runs on the given pool */
+  public BatchQueryEngine(final ForkJoinPool pool) {
+    if (pool==null) throw new IllegalArgumentException("pool required");
+    this.pool = pool;
+  }
+
+  /** the accumulated metrics of all batches answered so far */
+  public Metrics metrics() {
+    return new Metrics(totalQueries.get(), totalGroups.get(), totalNanos.get());
+  }
+
+
+  /** answers a batch of queries: out[i] is the answer to q[i].
+   *@param q  the queries
+   *@param out  the array that receives the answers in input order (length &gt;= q.length)
+   *@return the metrics of this batch
+   */
+  public Metrics evaluate(final Query[] q, final double[] out) {
+    if (out.length<q.length) throw new DimensionMismatchException();
+    final long t0 = System.nanoTime();
+    final HashMap<Key,Group> groups = new HashMap<Key,Group>();
+    for(int i=0; i<q.length; i++) {
+      final Key key = new Key(q[i].dist);
+      Group g = groups.get(key);
+      if (g==null) groups.put(key, g = new Group(q[i].dist));
+      g.add(q[i].op, i);
+    }
+    final ArrayList<Unit> units = new ArrayList<Unit>();
+    for(Group g: groups.values())
+      for(Operation op: Operation.values())
+        if (g.count[op.ordinal()]>0) units.add(new Unit(g, op, q, out));
+    if (q.length<PARALLEL_MIN || units.size()==1) {
+      for(Unit u: units) u.compute();
+    } else {
+      for(Unit u: units) pool.execute(u);
+      for(Unit u: units) u.join();
+    }
+    final Metrics m = new Metrics(q.length, groups.size(), System.nanoTime()-t0);
+    totalQueries.addAndGet(m.queries);
+    totalGroups.addAndGet(m.groups);
+    totalNanos.addAndGet(m.nanos);
+    return m;
+  }
+
+
+  /** groups distributions by equality and accuracy policy */
+  private static final class Key {
+    final UVDistribution dist;
+    final AccuracyPolicy acc;
+
+    Key(final UVDistribution dist) {
+      this.dist = dist;
+      this.acc = dist.accuracy();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Key)) return false;
+      final Key k = (Key)o;
+      return acc==k.acc && dist.equals(k.dist);
+    }
+
+    @Override
+    public int hashCode() {
+      return dist.hashCode()*31 + acc.hashCode();
+    }
+  }
+
+  /** the query indices of one group, by operation */
+  private static final class Group {
+    /** the distribution that answers all queries of the group */
+    final UVDistribution dist;
+    final int[][] index = new int[Operation.values().length][];
+    final int[] count = new int[index.length];
+
+    Group(final UVDistribution dist) {
+      this.dist = dist;
+    }
+
+    void add(final Operation op, final int i) {
+      final int o = op.ordinal();
+      if (index[o]==null) index[o] = new int[4];
+      else if (count[o]==index[o].length) index[o] = Arrays.copyOf(index[o], 2*count[o]);
+      index[o][count[o]++] = i;
+    }
+  }
+
+  /** answers the queries of one operation in one group */
+  private static final class Unit extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final Group g;
+    private final Operation op;
+    private final Query[] q;
+    private final double[] out;
+
+    Unit(final Group g, final Operation op, final Query[] q, final double[] out) {
+      this.g = g;
+      this.op = op;
+      this.q = q;
+      this.out = out;
+    }
+
+    protected void compute() {
+      final int n = g.count[op.ordinal()];
+      final int[] idx = g.index[op.ordinal()];
+      final UVDistribution d = g.dist;
+      final double[] x = new double[n], r = new double[n];
+      for(int i=0; i<n; i++) x[i] = q[idx[i]].x;
+      switch(op) {
+        case LNF: d.lnf(x, r); break;
+        case LNP: d.lnP(x, r); break;
+        case QF:  d.qf(x, r);  break;
+        case UCDF:
+          if (d instanceof DiscreteDistribution) ((DiscreteDistribution)d).ucdf(x, r);
+          else distinct(d, op, x, r);
+          break;
+        case LNUCDF:
+          if (d instanceof DiscreteDistribution) ((DiscreteDistribution)d).lnucdf(x, r);
+          else distinct(d, op, x, r);
+          break;
+        default:  distinct(d, op, x, r);
+      }
+      for(int i=0; i<n; i++) out[idx[i]] = r[i];
+    }
+  }
+
+  /** r[i] = op(x[i]), evaluated once for each distinct argument */
+  private static void distinct(final UVDistribution d, final Operation op,
+      final double[] x, final double[] r) {
+    final int n = x.length;
+    final double[] s = new double[n];
+    for(int i=0; i<n; i++) s[i] = x[i]+0.0;   // map -0.0 to 0.0
+    Arrays.sort(s);
+    int m = 0;  // number of distinct arguments
+    for(int i=0; i<n; i++) if (m==0 || Double.compare(s[i], s[m-1])!=0) s[m++] = s[i];
+    final double[] v = new double[m];
+    for(int j=0; j<m; j++) v[j] = single(d, op, s[j]);
+    for(int i=0; i<n; i++) r[i] = v[Arrays.binarySearch(s, 0, m, x[i]+0.0)];
+  }
+
+  private static double single(final UVDistribution d, final Operation op, final double x) {
+    switch(op) {
+      case F:      return d.f(x);
+      case LNF:    return d.lnf(x);
+      case P:      return d.P(x);
+      case LNP:    return d.lnP(x);
+      case CDF:    return d.cdf(x);
+      case LNCDF:  return d.lncdf(x);
+      case UCDF:   return d.ucdf(x);
+      case LNUCDF: return d.lnucdf(x);
+      default:     return d.qf(x);
+    }
+  }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * BetaDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import static java.lang.Math.*;
+
+/**
+ * This class implements the Beta distribution with parameters a&gt;0 and b&gt;0,
+ * with density f(x) = x^(a-1) (1-x)^(b-1) / B(a,b) on [0,1].
+ * The cdf is the regularized incomplete beta function I_x(a,b).
+ *
+ * The quantile function starts from a normal approximation
+ * (or, for a or b below 1, from the power-law behavior at the boundaries)
+ * and takes Halley steps driven by the closed-form density.
+ * Random numbers are generated by Cheng's algorithms BB and BC (1978).
+ *
+ * @author Sven Rahmann
+ */
+public class BetaDistribution extends ContinuousDistribution {
+
+  /** the first shape parameter */
+  public final double a;
+  /** the second shape parameter */
+  public final double b;
+  /** lnbeta(a,b) */
+  private final double lnB;
+  /** constants of Cheng's sampler */
+  private final double cbeta, cgamma, ck1, ck2;
+
+  /** create a new Beta distribution with the given shape parameters */
+  public BetaDistribution(final double a, final double b) {
+    if (!(a>0) || Double.isInfinite(a) || !(b>0) || Double.isInfinite(b))
+      throw new IllegalArgumentException("Beta requires finite a>0 and b>0");
+    this.a = a;
+    this.b = b;
+    this.lnB = MathFunctions.lnbeta(a, b);
+    final double s = Math.min(a,b), l = Math.max(a,b);
+    if (s<=1.0) {  // BC
+      cbeta = 1.0/s;
+      final double delta = 1.0 + l - s;
+      ck1 = delta*(0.0138889 + 0.0416667*s)/(l*cbeta - 0.777778);
+      ck2 = 0.25 + (0.5 + 0.25/delta)*s;
+      cgamma = 0.0;
+    } else {       // BB
+      cbeta = sqrt((s+l-2.0)/(2.0*s*l - (s+l)));
+      cgamma = s + 1.0/cbeta;
+      ck1 = ck2 = 0.0;
+    }
+  }
+
+  // =============================================================
+  // density, cdf, ucdf
+
+  public double lnf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<0 || x>1) return Double.NEGATIVE_INFINITY;
+    if (x==0) return (a<1)? Double.POSITIVE_INFINITY : ((a==1)? -lnB : Double.NEGATIVE_INFINITY);
+    if (x==1) return (b<1)? Double.POSITIVE_INFINITY : ((b==1)? -lnB : Double.NEGATIVE_INFINITY);
+    return (a-1)*log(x) + (b-1)*log1p(-x) - lnB;
+  }
+
+  public double cdf(final double x) {
+    return cdf(x, accuracy());
+  }
+
+  @Override
+  public double cdf(final double x, final AccuracyPolicy acc) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 0.0;
+    if (x>=1) return 1.0;
+    return MathFunctions.betaI(a, b, x, 1.0-x, acc);
+  }
+
+  public double lncdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return Double.NEGATIVE_INFINITY;
+    if (x>=1) return 0.0;
+    return MathFunctions.lnbetaI(a, b, x, 1.0-x);
+  }
+
+  public double ucdf(final double x) {
+    return ucdf(x, accuracy());
+  }
+
+  @Override
+  public double ucdf(final double x, final AccuracyPolicy acc) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 1.0;
+    if (x>=1) return 0.0;
+    return MathFunctions.betaIc(a, b, x, 1.0-x, acc);
+  }
+
+  public double lnucdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 0.0;
+    if (x>=1) return Double.NEGATIVE_INFINITY;
+    return MathFunctions.lnbetaIc(a, b, x, 1.0-x);
+  }
+
+  // =============================================================
+  // quantiles by Halley's method
+
+  /** maximal number of Halley or bisection steps */
+  private static final int QF_ITMAX = 200;
+  /** below this tail probability, the residual is taken in log space */
+  private static final double QF_LOG_TAIL = 1E-8;
+
+  public double qf(final double p) {
+    return qf(p, accuracy());
+  }
+
+  // As for the Gamma distribution, Halley steps are safeguarded by a bracket
+  // [lo,hi] that shrinks with the sign of each residual; a step that leaves it
+  // (or is not finite) is replaced by bisection, geometric in x or in 1-x
+  // when the bracket spans orders of magnitude near 0 or 1.
+  // Far in a tail, Newton steps on the log of the tail probability are taken.
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    if (p==0.0) return 0.0;
+    if (p==1.0) return 1.0;
+    final double a1 = a-1, b1 = b-1;
+    final boolean upper = (p>0.5);
+    final double target = upper? 1.0-p : p;
+    final boolean logres = (target<QF_LOG_TAIL);
+    final double lntarget = log(target);
+    double x;
+    if (a>=1 && b>=1) {
+      // normal approximation (Abramowitz and Stegun 26.5.22)
+      final double z = MathFunctions.normalQuantile(p);
+      final double al = (z*z-3.0)/6.0;
+      final double h = 2.0/(1.0/(2*a-1) + 1.0/(2*b-1));
+      final double w = z*sqrt(al+h)/h - (1.0/(2*b-1) - 1.0/(2*a-1))*(al + 5.0/6.0 - 2.0/(3.0*h));
+      x = a/(a + b*exp(2*w));
+    } else {
+      // power laws at the boundaries: cdf(x) ~ x^a/(a B), ucdf(x) ~ (1-x)^b/(b B)
+      final double t = exp(a*log(a/(a+b)))/a;
+      final double u = exp(b*log(b/(a+b)))/b;
+      final double w = t+u;
+      x = (p<t/w)? pow(a*w*p, 1.0/a) : 1.0 - pow(b*w*(1.0-p), 1.0/b);
+    }
+    if (logres) {
+      // far in a tail, the power law of that tail may be the better start
+      final double xp = upper? -expm1((lntarget + log(b) + lnB)/b)
+                             : exp((lntarget + log(a) + lnB)/a);
+      if (xp>0.0 && xp<1.0 && !(abs(lnResidual(xp, upper, lntarget)) >= abs(lnResidual(x, upper, lntarget))))
+        x = xp;
+    }
+    final double tol = Math.max(4*MathFunctions.DBL_EPS, acc.tol);
+    double lo = 0.0, hi = 1.0;
+    for(int j=0; j<QF_ITMAX; j++) {
+      if (x<=0.0) return 0.0;   // the quantile is below the smallest double
+      if (x>=1.0) return 1.0;
+      // residual cdf(x)-p (or its log), computed in the tail that p lies in,
+      // and the Newton step err/f(x) (or err*tail(x)/f(x)), with f(x) in log space
+      final double lnf = a1*log(x) + b1*log1p(-x) - lnB;
+      final double err, u;
+      if (logres) {
+        err = lnResidual(x, upper, lntarget);
+        u = err*exp(lntarget + (upper? -err : err) - lnf);
+      } else {
+        err = upper? target - MathFunctions.betaIc(a, b, x, 1.0-x, acc)
+                   : MathFunctions.betaI(a, b, x, 1.0-x, acc) - target;
+        u = err*exp(-lnf);
+      }
+      if (err==0.0) break;
+      if (err>0) hi = x; else lo = x;
+      // Halley: divide the Newton step by 1 - (u/2) f'(x)/f(x)
+      double xn = logres? x - u : x - u/(1.0 - 0.5*Math.min(1.0, u*(a1/x - b1/(1.0-x))));
+      if (abs(xn-x)<=tol*Math.min(x, 1.0-x)) { x = xn; break; }
+      if (!(xn>lo && xn<hi)) {
+        final double ylo = 1.0-lo, yhi = 1.0-hi;
+        if (lo==0.0) xn = Math.max(Math.min(hi*1E-3, hi*hi), Double.MIN_VALUE);
+        else if (hi==1.0) xn = 1.0 - Math.max(Math.min(ylo*1E-3, ylo*ylo), 0.5*MathFunctions.DBL_EPS);
+        else if (hi>4*lo) xn = sqrt(lo*hi);
+        else if (ylo>4*yhi) xn = 1.0 - sqrt(ylo*yhi);
+        else xn = 0.5*(lo+hi);
+        if (!(xn>lo && xn<hi)) break;   // the bracket has collapsed
+      }
+      x = xn;
+    }
+    return x;
+  }
+
+  /** ln(tail(x)) - ln(target) for the lower tail, or its negative for the upper tail,
+   *  so that the residual increases with x */
+  private double lnResidual(final double x, final boolean upper, final double lntarget) {
+    return upper? lntarget - MathFunctions.lnbetaIc(a, b, x, 1.0-x)
+                : MathFunctions.lnbetaI(a, b, x, 1.0-x) - lntarget;
+  }
+
+  // the safeguarded Halley iteration needs no bracket from the previous quantile
+  @Override
+  void qfAscending(final double[] p, final int m, final double[] q) {
+    qfEach(p, m, q);
+  }
+
+  /** ln(4) */
+  private static final double LN4 = 1.3862944;
+  /** ln(DBL_MAX) */
+  private static final double EXPMAX = 709.782712893384;
+
+  /** a random number by Cheng's algorithm BB (if min(a,b)&gt;1) or BC */
+  public double random() {
+    final double s = Math.min(a,b), l = Math.max(a,b), alpha = a+b;
+    double v, w;
+    if (s<=1.0) {  // algorithm BC; here s plays the role of Cheng's b
+      while (true) {
+        final double u1 = Math.random(), u2 = Math.random();
+        final double z;
+        if (u1<0.5) {
+          final double y = u1*u2;
+          z = u1*y;
+          if (0.25*u2 + z - y >= ck1) continue;
+        } else {
+          z = u1*u1*u2;
+          if (z<=0.25) {
+            v = cbeta*log(u1/(1.0-u1));
+            w = (v<=EXPMAX)? Math.min(l*exp(v), Double.MAX_VALUE) : Double.MAX_VALUE;
+            break;
+          }
+          if (z>=ck2) continue;
+        }
+        v = cbeta*log(u1/(1.0-u1));
+        w = (v<=EXPMAX)? Math.min(l*exp(v), Double.MAX_VALUE) : Double.MAX_VALUE;
+        if (alpha*(log(alpha/(s+w)) + v) - LN4 >= log(z)) break;
+      }
+      return (a==s)? s/(s+w) : w/(s+w);
+    }
+    // algorithm BB
+    while (true) {
+      final double u1 = Math.random(), u2 = Math.random();
+      v = cbeta*log(u1/(1.0-u1));
+      w = (v<=EXPMAX)? Math.min(s*exp(v), Double.MAX_VALUE) : Double.MAX_VALUE;
+      final double z = u1*u1*u2;
+      final double r = cgamma*v - LN4;
+      final double ss = s + r - w;
+      if (ss + 2.609438 >= 5.0*z) break;
+      final double t = log(z);
+      if (ss>t) break;
+      if (r + alpha*log(alpha/(l+w)) >= t) break;
+    }
+    return (a!=s)? l/(l+w) : w/(l+w);
+  }
+
+  // =============================================================
+  // moments
+
+  public double E() {
+    return a/(a+b);
+  }
+
+  public double Var() {
+    final double s = a+b;
+    return a*b/(s*s*(s+1));
+  }
+
+  public double skewness() {
+    return 2*(b-a)*sqrt(a+b+1)/((a+b+2)*sqrt(a*b));
+  }
+
+  public double kurtosisExcess() {
+    final double s = a+b;
+    return 6*((a-b)*(a-b)*(s+1) - a*b*(s+2)) / (a*b*(s+2)*(s+3));
+  }
+
+  /** E[X^m] = B(a+m,b)/B(a,b), for m&gt;-a */
+  public double moment(final double m) {
+    if (m<=-a) return Double.POSITIVE_INFINITY;
+    if (m==0) return 1.0;
+    return exp(MathFunctions.lnbeta(a+m, b) - lnB);
+  }
+
+  public double cmoment(final double c) {
+    return cmomentFromMoments(c);
+  }
+
+  // =============================================================
+  // support
+
+  public final double min() {
+    return 0.0;
+  }
+
+  public final double max() {
+    return 1.0;
+  }
+
+  public final Interval support() {
+    return new Interval(0.0, 1.0, Interval.Type.Closed);
+  }
+
+  // =============================================================
+  // equality of the shape parameters a and b
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o==null || o.getClass()!=getClass()) return false;
+    final BetaDistribution d = (BetaDistribution)o;
+    return Double.compare(a, d.a)==0 && Double.compare(b, d.b)==0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Double.hashCode(a)*31 + Double.hashCode(b);
+  }
+}
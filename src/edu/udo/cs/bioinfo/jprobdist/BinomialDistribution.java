@@ -28,6 +28,10 @@ public class BinomialDistribution extends FiniteDistribution
   public final double lnq;
   /** the expectation of this distribution */
   public final double E;
+  /** the odds p/q of a success */
+  private final double odds;
+  /** the success and failure probabilities p and q */
+  private final double succ, fail;
   
   /**
    * Generates a new Binomial Distribution with parameters n and p.
@@ -41,6 +45,9 @@ public class BinomialDistribution extends FiniteDistribution
     this.lnp = log(p);
     this.lnq = log1p(-p);
     this.E = n*p;
+    this.odds = exp(lnp-lnq);
+    this.succ = p;
+    this.fail = 1.0-p;
   }
   
   /**
@@ -61,6 +68,9 @@ public class BinomialDistribution extends FiniteDistribution
     this.lnp = log1p(-q);
     this.lnq = log(q);
     this.E = exp(log(n)+lnp);
+    this.odds = exp(lnp-lnq);
+    this.succ = 1.0-q;
+    this.fail = q;
   }
   
 
@@ -68,7 +78,118 @@ public class BinomialDistribution extends FiniteDistribution
     if (!isAtom(x)) return Double.NEGATIVE_INFINITY;
     if (x==0) return ( (lnp==Double.NEGATIVE_INFINITY)? 0.0 : n*lnq);
     if (x==n) return ( (lnq==Double.NEGATIVE_INFINITY)? 0.0 : n*lnp);
-    return(lnbincoeff(n,x)+x*lnp+(n-x)*lnq);
+    // Loader's saddle-point form: no large log-factorials cancel
+    final double y = n-x;
+    final double lc = stirlerr(n) - stirlerr(x) - stirlerr(y) - bd0(x, n*succ) - bd0(y, n*fail);
+    return lc - 0.5*(LN_2PI + log(x) + log1p(-x/n));
+  }
+
+  /** ln(2 pi) */
+  private static final double LN_2PI = 1.837877066409345483560659472811;
+  
+  
+  @Override
+  public double lnP(final Interval ab) {
+    return lnP(ab.a, ab.b, ab.type);
+  }
+  
+  @Override
+  public double P(final Interval ab) {
+    return exp(lnP(ab.a, ab.b, ab.type));
+  }
+  
+  @Override
+  public double P(final double a, final double b, final Interval.Type t) {
+    return exp(lnP(a, b, t));
+  }
+  
+  // sum the atoms in the interval outward from the one closest to the mode;
+  // this is accurate in both tails and stops once the rest is negligible.
+  @Override
+  public double lnP(final double a, final double b, final Interval.Type t) {
+    final double first = Interval.firstEpsPoint(a, t, 1.0);
+    final double last  = Interval.lastEpsPoint(b, t, 1.0);
+    final double f = (first<=0)? 0 : first;
+    final double l = (last>=n)? n : last;
+    if (!(l>=f)) return Double.NEGATIVE_INFINITY;   // also catches NaN
+    if (lnp==Double.NEGATIVE_INFINITY) return (f==0)? 0.0 : Double.NEGATIVE_INFINITY;
+    if (lnq==Double.NEGATIVE_INFINITY) return (l==n)? 0.0 : Double.NEGATIVE_INFINITY;
+    return lnPUnimodalRun(f, l, mode());
+  }
+  
+  // cdf and ucdf through the regularized incomplete beta function:
+  // P(X<=k) = I_q(n-k, k+1) and P(X>=k) = I_p(k, n-k+1).
+  // The log versions evaluate the continued fraction in log space,
+  // so deep tails do not underflow to log(0).
+  @Override
+  public double cdf(final double x) {
+    return cdf(x, accuracy());
+  }
+  
+  @Override
+  public double cdf(final double x, final AccuracyPolicy acc) {
+    if (Double.isNaN(x)) return x;
+    if (x<0) return 0.0;
+    final double k = floor(x);
+    if (k>=n || lnp==Double.NEGATIVE_INFINITY) return 1.0;
+    if (lnq==Double.NEGATIVE_INFINITY) return 0.0;
+    return betaIc(k+1, n-k, succ, fail, acc);
+  }
+  
+  @Override
+  public double lncdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<0) return Double.NEGATIVE_INFINITY;
+    final double k = floor(x);
+    if (k>=n || lnp==Double.NEGATIVE_INFINITY) return 0.0;
+    if (lnq==Double.NEGATIVE_INFINITY) return Double.NEGATIVE_INFINITY;
+    return lnbetaIc(k+1, n-k, succ, fail);
+  }
+  
+  @Override
+  public double ucdf(final double x) {
+    return ucdf(x, accuracy());
+  }
+  
+  @Override
+  public double ucdf(final double x, final AccuracyPolicy acc) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 1.0;
+    final double k = ceil(x);
+    if (k>n || lnp==Double.NEGATIVE_INFINITY) return 0.0;
+    if (lnq==Double.NEGATIVE_INFINITY) return 1.0;
+    return betaI(k, n-k+1, succ, fail, acc);
+  }
+  
+  @Override
+  public double lnucdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 0.0;
+    final double k = ceil(x);
+    if (k>n || lnp==Double.NEGATIVE_INFINITY) return Double.NEGATIVE_INFINITY;
+    if (lnq==Double.NEGATIVE_INFINITY) return 0.0;
+    return lnbetaI(k, n-k+1, succ, fail);
+  }
+  
+  @Override
+  public double qf(final double p) {
+    return qf(p, accuracy());
+  }
+
+  // Cornish-Fisher starting point, then a discrete search (no allocation)
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    if (p==0.0) return Double.NEGATIVE_INFINITY;
+    if (p==1.0) return max();
+    final double pp = exp(lnp), qq = exp(lnq);
+    final double z = MathFunctions.normalQuantile(p);
+    return qfLatticeSearch(p, E + z*sqrt(E*qq) + (qq-pp)*(z*z-1)/6.0, acc);
+  }
+  
+  final double pRatio(final double k) {
+    return (n-k)/(k+1)*odds;
   }
   
   
@@ -158,5 +279,20 @@ public class BinomialDistribution extends FiniteDistribution
     for (double x: X) sum+=x;
     return sum / (n*X.length);
   }
+
+  // ===================================================================
+  // equality of n, p and q; q is compared as well, since with the
+  // (n, 1, q) constructor it carries digits that 1-q loses
   
+  @Override
+  public boolean equals(final Object o) {
+    if (o==null || o.getClass()!=getClass()) return false;
+    final BinomialDistribution b = (BinomialDistribution)o;
+    return n==b.n && Double.compare(succ, b.succ)==0 && Double.compare(fail, b.fail)==0;
+  }
+  
+  @Override
+  public int hashCode() {
+    return Long.hashCode(n)*31 + Double.hashCode(succ);
+  }
 }
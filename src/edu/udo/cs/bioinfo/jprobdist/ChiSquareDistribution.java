@@ -0,0 +1,34 @@
+/*
+ * ChiSquareDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+/**
+ * This class implements the chi-square distribution with df&gt;0 degrees of freedom,
+ * i.e., the distribution of the sum of df squared independent standard normal
+ * random variables. It is the Gamma distribution with shape df/2 and scale 2.
+ *
+ * @author Sven Rahmann
+ */
+public class ChiSquareDistribution extends GammaDistribution {
+
+  /** the degrees of freedom */
+  public final double df;
+
+  /** create a new chi-square distribution with df degrees of freedom */
+  public ChiSquareDistribution(final double df) {
+    super(checkedShape(df), 2.0);
+    this.df = df;
+  }
+
+  private static double checkedShape(final double df) {
+    if (!(df>0) || Double.isInfinite(df))
+      throw new IllegalArgumentException("chi-square requires finite df>0");
+    return 0.5*df;
+  }
+
+}
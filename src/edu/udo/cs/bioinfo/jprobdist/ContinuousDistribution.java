@@ -15,11 +15,9 @@ package edu.udo.cs.bioinfo.jprobdist;
  */
 public abstract class ContinuousDistribution extends AbstractDistribution {
  
-  // f not implemented
-  // P(Interval) not implemented
+  // lnf not implemented
   // cdf, ucdf not implemented
-  // moment not implemented
-  // cmoment not implemented
+  // moment, cmoment by quadrature unless overridden
   // support not implemented
   // conv not implemented
   
@@ -39,6 +37,87 @@ public abstract class ContinuousDistribution extends AbstractDistribution {
   public final boolean isFinite() {
     return false;
   }
- 
+  
+  public final double lnP(final double x) {
+    return Double.NEGATIVE_INFINITY;
+  }
+  
+  // the probability of an interval is a difference of cdf values
+  // (whether the boundaries belong to it does not matter);
+  // take the difference in the tail where it is smaller, to avoid cancellation.
+  public double P(final double a, final double b, final Interval.Type t) {
+    if (!(b>a)) return 0.0;   // also catches NaN
+    final double ca = cdf(a);
+    if (ca<=0.5) return cdf(b)-ca;
+    return ucdf(a)-ucdf(b);
+  }
+  
+  public double lnP(final double a, final double b, final Interval.Type t) {
+    return Math.log(P(a, b, t));
+  }
+  
+  public double P(final Interval ab) {
+    return P(ab.a, ab.b, ab.type);
+  }
+  
+  public double lnP(final Interval ab) {
+    return Math.log(P(ab.a, ab.b, ab.type));
+  }
+  
+  /** the c-th central moment for integer c&gt;=0, from the raw moments
+   * by binomial expansion. Subclasses call this from cmoment(c) when
+   * they know their raw moments in closed form.
+   */
+  final double cmomentFromMoments(final double c) {
+    if (c!=Math.rint(c) || c<0)
+      throw new IllegalArgumentException("cmoment(c): c must be a nonnegative integer, is "+c);
+    if (c==0) return 1.0;
+    if (c==1) return 0.0;
+    if (c==2) return Var();
+    final double mu = E();
+    final int n = (int)c;
+    // sum_i (n choose i) E[X^i] (-mu)^(n-i)
+    double s = 0.0, bc = 1.0;
+    for(int i=0; i<=n; i++) {
+      s += bc * ((i==0)? 1.0 : moment(i)) * Math.pow(-mu, n-i);
+      bc = bc*(n-i)/(i+1);
+    }
+    return s;
+  }
+  
+  
+  // =================================================================
+  // expectations by numerical integration
+  
+  /** E[h(X)], the integral of h(x) f(x) over the support, computed by
+   * adaptive quadrature (see Quadrature.expectation).
+   *@param h  the function whose expectation is computed
+   *@return E[h(X)]
+   */
+  public double E(final MathFunctions.RealFunction h) {
+    return Quadrature.expectation(this, h, Quadrature.DEFAULT_TOL);
+  }
+  
+  /** the m-th moment E[X^m] by quadrature; subclasses that know it in
+   * closed form override this. */
+  public double moment(final double m) {
+    if (m==0) return 1.0;
+    return E(new MathFunctions.RealFunction() {
+      public double valueAt(final double x) { return Math.pow(x, m); }
+    });
+  }
+  
+  /** the c-th central moment E[(X-E[X])^c] for integer c&gt;=0 by quadrature;
+   * subclasses that know it in closed form override this. */
+  public double cmoment(final double c) {
+    if (c!=Math.rint(c) || c<0)
+      throw new IllegalArgumentException("cmoment(c): c must be a nonnegative integer, is "+c);
+    if (c==0) return 1.0;
+    if (c==1) return 0.0;
+    final double mu = E();
+    return E(new MathFunctions.RealFunction() {
+      public double valueAt(final double x) { return Math.pow(x-mu, c); }
+    });
+  }
   
 }
@@ -0,0 +1,386 @@
+/*
+ * Divergences.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import edu.udo.cs.bioinfo.jprobdist.MathFunctions.RealFunction;
+import static java.lang.Math.*;
+
+/**
+ * This class computes divergences and distances between two univariate
+ * distributions P and Q (all logarithms are natural):
+ * the Kullback-Leibler divergence KL(P||Q) = E_P[ln(p/q)],
+ * the cross-entropy -E_P[ln q] = H(P) + KL(P||Q),
+ * the Jensen-Shannon divergence (KL(P||M)+KL(Q||M))/2 with M=(P+Q)/2,
+ * the total variation distance sup_A |P(A)-Q(A)| = sum |p-q| / 2,
+ * and the Hellinger distance sqrt(1-BC), where BC = sum sqrt(p q)
+ * is the Bhattacharyya coefficient.
+ *
+ * Closed forms are used for two Poisson distributions and for two Binomial
+ * distributions with the same n (total variation by the cdfs at the point
+ * where the likelihood ratio crosses 1).
+ * Other pairs of DiscreteDistributions are enumerated over the merged atoms
+ * of both in a window that leaves at most TAIL probability in each tail
+ * of each distribution, so every measure is accurate up to a few multiples
+ * of TAIL (the logarithmic terms of KL permitting).
+ * Distributions that are not DiscreteDistributions must have a density;
+ * their divergences are computed as expectations by Quadrature.
+ *
+ * The bulk method compute(Measure, UVDistribution, UVDistribution[], double[])
+ * compares one reference with many candidates in parallel on the common
+ * ForkJoinPool; the atoms of a discrete reference are enumerated only once.
+ *
+ * @author Sven Rahmann
+ */
+public final class Divergences {
+
+  private Divergences() { }
+
+  /** the measures computed by this class */
+  public enum Measure {
+    /** Kullback-Leibler divergence KL(P||Q) */
+    KL,
+    /** cross-entropy -E_P[ln q] */
+    CROSS_ENTROPY,
+    /** Jensen-Shannon divergence, in [0, ln 2] */
+    JENSEN_SHANNON,
+    /** total variation distance, in [0,1] */
+    TOTAL_VARIATION,
+    /** Hellinger distance, in [0,1] */
+    HELLINGER
+  }
+
+  /** the probability left out in each tail of each distribution by the enumeration */
+  public static final double TAIL = 1E-15;
+
+  /** candidates per task in the bulk method */
+  private static final int CHUNK = 16;
+
+  private static final double LN2 = log(2.0);
+
+
+  // =================================================================
+  // single pairs
+
+  /** the Kullback-Leibler divergence KL(p||q), +infinity if p is not
+   * absolutely continuous with respect to q */
+  public static double kl(final UVDistribution p, final UVDistribution q) {
+    return compute(Measure.KL, p, q);
+  }
+
+  /** the cross-entropy -E_p[ln q] */
+  public static double crossEntropy(final UVDistribution p, final UVDistribution q) {
+    return compute(Measure.CROSS_ENTROPY, p, q);
+  }
+
+  /** the Jensen-Shannon divergence of p and q */
+  public static double jensenShannon(final UVDistribution p, final UVDistribution q) {
+    return compute(Measure.JENSEN_SHANNON, p, q);
+  }
+
+  /** the total variation distance of p and q */
+  public static double totalVariation(final UVDistribution p, final UVDistribution q) {
+    return compute(Measure.TOTAL_VARIATION, p, q);
+  }
+
+  /** the Hellinger distance of p and q */
+  public static double hellinger(final UVDistribution p, final UVDistribution q) {
+    return compute(Measure.HELLINGER, p, q);
+  }
+
+  /** the given measure between p and q */
+  public static double compute(final Measure m, final UVDistribution p, final UVDistribution q) {
+    return compute(m, p, null, q);
+  }
+
+  /** the measure between p and q, with the (lazily built) window table of a discrete p */
+  private static double compute(final Measure m, final UVDistribution p, Table tp, final UVDistribution q) {
+    final double c = closedForm(m, p, q);
+    if (!Double.isNaN(c)) return c;
+    final boolean dp = (p instanceof DiscreteDistribution), dq = (q instanceof DiscreteDistribution);
+    if (dp && dq) {
+      // the enumeration windows drop the far tails, so a support of p that
+      // extends beyond that of q must be detected before enumerating
+      if ((m==Measure.KL || m==Measure.CROSS_ENTROPY) && (p.min()<q.min() || p.max()>q.max()))
+        return Double.POSITIVE_INFINITY;
+      if (tp==null) tp = new Table((DiscreteDistribution)p);
+      return enumerate(tp, (DiscreteDistribution)p, (DiscreteDistribution)q).value(m);
+    }
+    if (dp || dq) {
+      // one has atoms, the other has a density: the measures are mutually singular
+      switch(m) {
+        case KL:              return Double.POSITIVE_INFINITY;
+        case CROSS_ENTROPY:   return Double.POSITIVE_INFINITY;
+        case JENSEN_SHANNON:  return LN2;
+        default:              return 1.0;
+      }
+    }
+    return integrate(m, p, q);
+  }
+
+
+  // =================================================================
+  // one reference, many candidates
+
+  /** out[i] = the measure between p and q[i], computed in parallel.
+   *@param m  the measure
+   *@param p  the reference distribution
+   *@param q  the candidate distributions
+   *@param out  the array that receives the results (length &gt;= q.length)
+   */
+  public static void compute(final Measure m, final UVDistribution p, final UVDistribution[] q, final double[] out) {
+    if (out.length<q.length) throw new DimensionMismatchException();
+    final Table tp = (p instanceof DiscreteDistribution)? new Table((DiscreteDistribution)p) : null;
+    final Bulk task = new Bulk(m, p, tp, q, out, 0, q.length);
+    if (q.length<=CHUNK) task.compute();
+    else ForkJoinPool.commonPool().invoke(task);
+  }
+
+  /** compares the reference with candidates lo..hi-1, split recursively */
+  private static final class Bulk extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final Measure m;
+    private final UVDistribution p;
+    private final Table tp;
+    private final UVDistribution[] q;
+    private final double[] out;
+    private final int lo, hi;
+
+    Bulk(final Measure m, final UVDistribution p, final Table tp, final UVDistribution[] q,
+        final double[] out, final int lo, final int hi) {
+      this.m = m; this.p = p; this.tp = tp; this.q = q; this.out = out; this.lo = lo; this.hi = hi;
+    }
+
+    protected void compute() {
+      if (hi-lo > CHUNK) {
+        final int mid = (lo+hi)>>>1;
+        invokeAll(new Bulk(m, p, tp, q, out, lo, mid), new Bulk(m, p, tp, q, out, mid, hi));
+        return;
+      }
+      for(int i=lo; i<hi; i++) out[i] = Divergences.compute(m, p, tp, q[i]);
+    }
+  }
+
+
+  // =================================================================
+  // closed forms
+
+  /** the closed form of the measure, or NaN if there is none */
+  private static double closedForm(final Measure m, final UVDistribution p, final UVDistribution q) {
+    if (p instanceof PoissonDistribution && q instanceof PoissonDistribution)
+      return poisson(m, (PoissonDistribution)p, (PoissonDistribution)q);
+    if (p instanceof BinomialDistribution && q instanceof BinomialDistribution
+        && ((BinomialDistribution)p).n==((BinomialDistribution)q).n)
+      return binomial(m, (BinomialDistribution)p, (BinomialDistribution)q);
+    return Double.NaN;
+  }
+
+  private static double poisson(final Measure m, final PoissonDistribution p, final PoissonDistribution q) {
+    final double a = p.lambda, b = q.lambda;
+    switch(m) {
+      case KL:
+        if (a==0) return b;
+        if (b==0) return Double.POSITIVE_INFINITY;
+        return a*(p.lnlambda-q.lnlambda) + b - a;
+      case CROSS_ENTROPY:
+        return p.entropy() + poisson(Measure.KL, p, q);
+      case HELLINGER: {
+        final double d = sqrt(a)-sqrt(b);
+        return sqrt(-expm1(-0.5*d*d));
+      }
+      case TOTAL_VARIATION:
+        if (a==b) return 0.0;
+        if (a==0 || b==0) return -expm1(-Math.max(a, b));
+        // the pmf ratio (a/b)^k e^(b-a) crosses 1 at k*
+        return crossingTV(p, q, floor((b-a)/(q.lnlambda-p.lnlambda)));
+      default:
+        return Double.NaN;
+    }
+  }
+
+  private static double binomial(final Measure m, final BinomialDistribution p, final BinomialDistribution q) {
+    final double n = p.n;
+    final double p1 = exp(p.lnp), q1 = exp(p.lnq), p2 = exp(q.lnp), q2 = exp(q.lnq);
+    switch(m) {
+      case KL: {
+        double s = 0.0;
+        if (p1>0) s += p1*(p.lnp-q.lnp);
+        if (q1>0) s += q1*(p.lnq-q.lnq);
+        return n*s;
+      }
+      case CROSS_ENTROPY:
+        return p.entropy() + binomial(Measure.KL, p, q);
+      case HELLINGER: {
+        // 1 - BC = 1 - (sqrt(p1 p2) + sqrt(q1 q2))^n, without cancellation
+        final double dp = exp(0.5*p.lnp)-exp(0.5*q.lnp), dq = exp(0.5*p.lnq)-exp(0.5*q.lnq);
+        final double h = 0.5*(dp*dp + dq*dq);
+        return sqrt(-expm1(n*log1p(-h)));
+      }
+      case TOTAL_VARIATION: {
+        if (p.lnp==q.lnp) return 0.0;
+        final double dp = p.lnp-q.lnp, dq = p.lnq-q.lnq;
+        if (Double.isInfinite(dp) || Double.isInfinite(dq) || Double.isNaN(dp) || Double.isNaN(dq))
+          return Double.NaN;
+        // the pmf ratio exp(k dp + (n-k) dq) crosses 1 at k*
+        final double k = floor(-n*dq/(dp-dq));
+        return crossingTV(p, q, Math.max(-1.0, Math.min(n, k)));
+      }
+      default:
+        return Double.NaN;
+    }
+  }
+
+  /** total variation for a monotone pmf ratio that crosses 1 after atom k:
+   * |P(X&lt;=k) - Q(X&lt;=k)|, taken in the smaller tail to avoid cancellation */
+  private static double crossingTV(final UVDistribution p, final UVDistribution q, final double k) {
+    final double c = p.cdf(k);
+    if (c<=0.5) return abs(c-q.cdf(k));
+    return abs(p.ucdf(k+1)-q.ucdf(k+1));
+  }
+
+
+  // =================================================================
+  // enumeration of the merged atoms
+
+  /** the atoms of a discrete distribution in its window, with their log-probabilities */
+  private static final class Table {
+    final double lo, hi;
+    final double[] x, lp;
+
+    Table(final DiscreteDistribution d) {
+      this.lo = d.qf(TAIL);
+      this.hi = d.qf(1.0-TAIL);
+      int n = 0;
+      double[] xs = new double[64], ls = new double[64];
+      for(Iterator<Double> it = d.iterator(new Interval(lo, hi)); it.hasNext(); ) {
+        final double a = it.next();
+        if (n==xs.length) {
+          xs = java.util.Arrays.copyOf(xs, 2*n);
+          ls = java.util.Arrays.copyOf(ls, 2*n);
+        }
+        xs[n] = a;
+        ls[n] = d.lnP(a);
+        n++;
+      }
+      this.x = java.util.Arrays.copyOf(xs, n);
+      this.lp = java.util.Arrays.copyOf(ls, n);
+    }
+  }
+
+  /** the sums over the merged atoms, from which every measure follows */
+  private static final class Sums {
+    double kl, cross, js, tv, bc;
+
+    void add(final double lp, final double lq) {
+      final double p = exp(lp), q = exp(lq);
+      if (p>0) {
+        kl += p*(lp-lq);
+        cross -= p*lq;
+      }
+      if (p>0 || q>0) {
+        final double lm = MathFunctions.logsum(lp, lq);
+        if (p>0) js += 0.5*p*(LN2+lp-lm);
+        if (q>0) js += 0.5*q*(LN2+lq-lm);
+      }
+      tv += 0.5*abs(p-q);
+      bc += exp(0.5*(lp+lq));
+    }
+
+    double value(final Measure m) {
+      switch(m) {
+        case KL:              return kl;
+        case CROSS_ENTROPY:   return cross;
+        case JENSEN_SHANNON:  return Math.max(0.0, js);
+        case TOTAL_VARIATION: return Math.min(1.0, tv);
+        default:              return sqrt(Math.max(0.0, 1.0-bc));
+      }
+    }
+  }
+
+  /** sums over the atoms of p and q in the union of both windows, in increasing order */
+  private static Sums enumerate(final Table tp, final DiscreteDistribution p, final DiscreteDistribution q) {
+    final double lo = Math.min(tp.lo, q.qf(TAIL)), hi = Math.max(tp.hi, q.qf(1.0-TAIL));
+    final Sums s = new Sums();
+    // atoms of p below its window, but inside q's
+    if (lo<tp.lo) mergeOutside(s, p, q, new Interval(lo, tp.lo, Interval.Type.ClosedOpen));
+    // p's window: merge its atoms with those of q
+    final Iterator<Double> it = q.iterator(new Interval(tp.lo, tp.hi));
+    int i = 0;
+    while (it.hasNext()) {
+      final double y = it.next();
+      while (i<tp.x.length && tp.x[i]<y) { s.add(tp.lp[i], q.lnP(tp.x[i])); i++; }
+      if (i<tp.x.length && tp.x[i]==y) { s.add(tp.lp[i], q.lnP(y)); i++; }
+      else s.add(p.lnP(y), q.lnP(y));
+    }
+    for(; i<tp.x.length; i++) s.add(tp.lp[i], q.lnP(tp.x[i]));
+    if (hi>tp.hi) mergeOutside(s, p, q, new Interval(tp.hi, hi, Interval.Type.OpenClosed));
+    return s;
+  }
+
+  /** adds the atoms of both p and q in the interval ab */
+  private static void mergeOutside(final Sums s, final DiscreteDistribution p, final DiscreteDistribution q,
+      final Interval ab) {
+    final Iterator<Double> ip = p.iterator(ab), iq = q.iterator(ab);
+    double x = ip.hasNext()? ip.next() : Double.NaN, y = iq.hasNext()? iq.next() : Double.NaN;
+    while (!Double.isNaN(x) || !Double.isNaN(y)) {
+      final double z = Double.isNaN(y) || (!Double.isNaN(x) && x<y) ? x : y;
+      s.add(p.lnP(z), q.lnP(z));
+      if (x==z) x = ip.hasNext()? ip.next() : Double.NaN;
+      if (y==z) y = iq.hasNext()? iq.next() : Double.NaN;
+    }
+  }
+
+
+  // =================================================================
+  // densities: expectations by quadrature
+
+  private static double integrate(final Measure m, final UVDistribution p, final UVDistribution q) {
+    final double tol = Quadrature.DEFAULT_TOL;
+    switch(m) {
+      case KL:
+        if (p.min()<q.min() || p.max()>q.max()) return Double.POSITIVE_INFINITY;
+        return Quadrature.expectation(p, new RealFunction() {
+          public double valueAt(final double x) { return p.lnf(x)-q.lnf(x); }
+        }, tol);
+      case CROSS_ENTROPY:
+        if (p.min()<q.min() || p.max()>q.max()) return Double.POSITIVE_INFINITY;
+        return Quadrature.expectation(p, new RealFunction() {
+          public double valueAt(final double x) { return -q.lnf(x); }
+        }, tol);
+      case JENSEN_SHANNON: {
+        final double a = Quadrature.expectation(p, new RealFunction() {
+          public double valueAt(final double x) {
+            final double lp = p.lnf(x);
+            return LN2 + lp - MathFunctions.logsum(lp, q.lnf(x));
+          }
+        }, tol);
+        final double b = Quadrature.expectation(q, new RealFunction() {
+          public double valueAt(final double x) {
+            final double lq = q.lnf(x);
+            return LN2 + lq - MathFunctions.logsum(p.lnf(x), lq);
+          }
+        }, tol);
+        return Math.max(0.0, 0.5*(a+b));
+      }
+      case TOTAL_VARIATION:
+        // sum (p-q)^+ = E_p[(1-q/p)^+]
+        return Math.min(1.0, Quadrature.expectation(p, new RealFunction() {
+          public double valueAt(final double x) { return Math.max(0.0, -expm1(q.lnf(x)-p.lnf(x))); }
+        }, tol));
+      default: {
+        final double bc = Quadrature.expectation(p, new RealFunction() {
+          public double valueAt(final double x) { return exp(0.5*(q.lnf(x)-p.lnf(x))); }
+        }, tol);
+        return sqrt(Math.max(0.0, 1.0-bc));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * EmpiricalContinuousDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Arrays;
+import static java.lang.Math.*;
+
+/**
+ * This class implements a continuous distribution defined by a sample,
+ * e.g., a null distribution obtained from permutations.
+ * The sorted sample values x[0] &lt;= ... &lt;= x[n-1] are the knots of a
+ * piecewise linear cdf with cdf(x[i]) = i/(n-1); equivalently, the
+ * quantile function interpolates linearly between the order statistics,
+ * qf(p) = x[k] + (h-k)(x[k+1]-x[k]) with h=(n-1)p and k=floor(h)
+ * (the default "type 7" sample quantiles of R).
+ * Thus qf takes O(1) time, and cdf takes O(log n) time by binary search.
+ * Within each segment, the distribution is uniform, so the density is
+ * piecewise constant, and the moments are computed exactly in one pass.
+ *
+ * Tied sample values are kept as separate knots (segments of width zero),
+ * so that the quantiles remain those of R. At a value tied k times, the
+ * cdf therefore jumps by (k-1)/(n-1), and the moments count this as a point
+ * mass. Being a ContinuousDistribution, it still reports P(x)=0 and no
+ * atoms, and the density does not show the jump. Interval probabilities
+ * are differences of cdf values, so they contain a jump at the right
+ * boundary, but not one at the left boundary, whatever the interval type.
+ * Samples with heavy ties are better described by a
+ * TabulatedFiniteDistribution.
+ *
+ * For very large samples, withGrid keeps only the quantiles on an
+ * equidistant probability grid, which bounds the memory of the
+ * distribution independently of the sample size.
+ *
+ * @author Sven Rahmann
+ */
+public class EmpiricalContinuousDistribution extends ContinuousDistribution {
+
+  /** the knots (sorted sample values or grid quantiles) */
+  private final double[] x;
+  /** number of segments, x.length-1 */
+  private final int m;
+  /** the expectation and the variance */
+  private final double E, var;
+
+  /** creates the empirical distribution of the given sample.
+   * The sample is copied and sorted in parallel (Arrays.parallelSort).
+   *@param sample  at least two finite values, not all equal
+   */
+  public EmpiricalContinuousDistribution(final double[] sample) {
+    this(sortedCopy(sample), Integer.MAX_VALUE);
+  }
+
+  /** internal constructor that takes ownership of the sorted sample;
+   * if gridSize&lt;n-1, it keeps only the quantiles on the grid (see withGrid) */
+  private EmpiricalContinuousDistribution(final double[] sorted, final int gridSize) {
+    final double[] knots = (gridSize>=sorted.length-1)? sorted : gridQuantiles(sorted, gridSize);
+    final int n = knots.length;
+    if (n<2) throw new IllegalArgumentException("at least two sample values required");
+    if (!(knots[0]<knots[n-1]) || Double.isInfinite(knots[0]) || Double.isInfinite(knots[n-1]))
+      throw new IllegalArgumentException("sample values must be finite and not all equal");
+    this.x = knots;
+    this.m = n-1;
+    // single pass, shifted by the median knot to avoid cancellation
+    final double c = x[m/2];
+    double s1 = 0.0, s2 = 0.0;
+    for(int i=0; i<m; i++) {
+      final double u = x[i]-c, v = x[i+1]-c;
+      s1 += 0.5*(u+v);
+      s2 += (u*u+u*v+v*v)/3.0;
+    }
+    s1 /= m;
+    s2 /= m;
+    this.E = c + s1;
+    this.var = Math.max(0.0, s2 - s1*s1);
+  }
+
+  /** creates the empirical distribution of the given sample, keeping only
+   * the sample quantiles at the probabilities k/gridSize for k=0..gridSize.
+   * The sample is copied and sorted once; the distribution then needs
+   * only gridSize+1 doubles. Its cdf interpolates linearly between the
+   * grid quantiles, so it differs from the full empirical distribution by
+   * at most the probability of one grid cell, 1/gridSize.
+   *@param sample  at least two finite values, not all equal
+   *@param gridSize  the number of grid cells (at least 1)
+   *@return the distribution
+   */
+  public static EmpiricalContinuousDistribution withGrid(final double[] sample, final int gridSize) {
+    if (gridSize<1) throw new IllegalArgumentException("gridSize must be positive");
+    return new EmpiricalContinuousDistribution(sortedCopy(sample), gridSize);
+  }
+
+  /** the quantiles of the sorted sample s at the probabilities k/gridSize */
+  private static double[] gridQuantiles(final double[] s, final int gridSize) {
+    final double[] g = new double[gridSize+1];
+    final int ms = s.length-1;
+    for(int k=0; k<=gridSize; k++) g[k] = interpolate(s, ms, (double)k/gridSize);
+    g[gridSize] = s[ms];
+    return g;
+  }
+
+  private static double[] sortedCopy(final double[] sample) {
+    final double[] s = sample.clone();
+    for(double v: s)
+      if (Double.isNaN(v)) throw new IllegalArgumentException("sample values must not be NaN");
+    Arrays.parallelSort(s);
+    return s;
+  }
+
+  /** linear interpolation between the knots at probability p */
+  private static double interpolate(final double[] x, final int m, final double p) {
+    final double h = m*p;
+    final int k = (int)h;
+    if (k>=m) return x[m];
+    return x[k] + (h-k)*(x[k+1]-x[k]);
+  }
+
+  /** the number of knots */
+  public final int size() {
+    return x.length;
+  }
+
+
+  // =============================================================
+  // density, cdf, ucdf
+
+  /** the index of the last knot &lt;= t, or -1 */
+  private int lastKnotAtMost(final double t) {
+    int lo = -1, hi = x.length;   // x[lo] <= t < x[hi]
+    while (hi-lo>1) {
+      final int mid = (lo+hi) >>> 1;
+      if (x[mid]<=t) lo = mid; else hi = mid;
+    }
+    return lo;
+  }
+
+  public double lnf(final double t) {
+    if (Double.isNaN(t)) return t;
+    final int i = lastKnotAtMost(t);
+    if (i<0 || i>=m) return Double.NEGATIVE_INFINITY;
+    return -log(m*(x[i+1]-x[i]));
+  }
+
+  public double f(final double t) {
+    return exp(lnf(t));
+  }
+
+  public double cdf(final double t) {
+    if (Double.isNaN(t)) return t;
+    final int i = lastKnotAtMost(t);
+    if (i<0) return 0.0;
+    if (i>=m) return 1.0;
+    return (i + (t-x[i])/(x[i+1]-x[i]))/m;
+  }
+
+  public double lncdf(final double t) {
+    return log(cdf(t));
+  }
+
+  // computed from the upper end, without cancellation
+  public double ucdf(final double t) {
+    if (Double.isNaN(t)) return t;
+    final int i = lastKnotAtMost(t);
+    if (i<0) return 1.0;
+    if (i>=m) return 0.0;
+    return ((m-1-i) + (x[i+1]-t)/(x[i+1]-x[i]))/m;
+  }
+
+  public double lnucdf(final double t) {
+    return log(ucdf(t));
+  }
+
+  public double qf(final double p) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    return interpolate(x, m, p);
+  }
+
+  // the interpolation is exact; there is no precision to trade
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    return qf(p);
+  }
+
+  // each quantile takes O(1) time anyway
+  @Override
+  void qfAscending(final double[] p, final int m, final double[] q) {
+    qfEach(p, m, q);
+  }
+
+  /** a random number by inversion, in O(1) time */
+  public double random() {
+    return interpolate(x, m, Math.random());
+  }
+
+
+  // =============================================================
+  // moments
+
+  public double E() {
+    return E;
+  }
+
+  public double Var() {
+    return var;
+  }
+
+  /** E[X^k] for integer k&gt;=0 */
+  public double moment(final double k) {
+    if (k!=Math.rint(k) || k<0)
+      throw new IllegalArgumentException("moment(k): k must be a nonnegative integer, is "+k);
+    return segmentMoment(k, 0.0);
+  }
+
+  /** E[(X-E)^c] for integer c&gt;=0 */
+  public double cmoment(final double c) {
+    if (c!=Math.rint(c) || c<0)
+      throw new IllegalArgumentException("cmoment(c): c must be a nonnegative integer, is "+c);
+    if (c==1) return 0.0;
+    if (c==2) return var;
+    return segmentMoment(c, E);
+  }
+
+  /** E[(X-mu)^c], summed over the segments; on a segment [a,b] with u=a-mu,
+   * v=b-mu, the mean of (X-mu)^c is (v^(c+1)-u^(c+1))/((c+1)(v-u)),
+   * which is evaluated as sum_j u^j v^(c-j) / (c+1), without cancellation.
+   * c must be a nonnegative integer. */
+  private double segmentMoment(final double c, final double mu) {
+    if (c==0) return 1.0;
+    final int k = (int)c;
+    double s = 0.0;
+    for(int i=0; i<m; i++) {
+      final double u = x[i]-mu, v = x[i+1]-mu;
+      double t = 0.0, up = 1.0;
+      for(int j=0; j<=k; j++) {
+        t += up*Math.pow(v, k-j);
+        up *= u;
+      }
+      s += t;
+    }
+    return s/(m*(k+1.0));
+  }
+
+
+  // =============================================================
+  // support
+
+  public final double min() {
+    return x[0];
+  }
+
+  public final double max() {
+    return x[m];
+  }
+
+  public final Interval support() {
+    return new Interval(x[0], x[m], Interval.Type.Closed);
+  }
+
+}
@@ -21,24 +21,47 @@ public abstract class FiniteDistribution extends DiscreteDistribution {
 
   
   // simply add up the finitely many atom probabilities in the interval.
-  // Should be overridden with more efficient methods in subclasses.
-  public double lnP(final Interval ab) {
+  // Should be overridden with more efficient methods in subclasses,
+  // preferably through the primitive version lnP(a,b,t),
+  // which lnP(Interval) delegates to.
+  public double lnP(final double a, final double b, final Interval.Type t) {
     double p = Double.NEGATIVE_INFINITY;
-    Iterator<Double> it = iterator(ab);
-    while (it.hasNext()) p = MathFunctions.logsum(p, lnP(it.next()));
+    long atoms = 0;
+    Iterator<Double> it = iterator(new Interval(a,b,t));
+    while (it.hasNext()) {
+      p = MathFunctions.logsum(p, lnP(it.next()));
+      if (Instrumentation.ENABLED) atoms++;
+    }
+    if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.FINITE_ENUMERATION, atoms);
     return p;
   }
   
+  public double lnP(final Interval ab) {
+    return lnP(ab.a, ab.b, ab.type);
+  }
+  
   // simply add up the finitely many atom probabilities in the interval.
-  // Should be overridden with more efficient methods in subclasses.
+  // Should be overridden with more efficient methods in subclasses,
+  // preferably through the primitive version P(a,b,t),
+  // which P(Interval) delegates to.
   @Override
-  public double P(final Interval ab) {
+  public double P(final double a, final double b, final Interval.Type t) {
     double p = 0.0;
-    Iterator<Double> it = iterator(ab);
-    while (it.hasNext()) p += P(it.next());
+    long atoms = 0;
+    Iterator<Double> it = iterator(new Interval(a,b,t));
+    while (it.hasNext()) {
+      p += P(it.next());
+      if (Instrumentation.ENABLED) atoms++;
+    }
+    if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.FINITE_ENUMERATION, atoms);
     return p;
   }  
   
+  @Override
+  public double P(final Interval ab) {
+    return P(ab.a, ab.b, ab.type);
+  }
+  
   // enumerating implementation of arbitrary Expectation function.
   // Cannot be overridden in subclasses.
   // But particular expectation functions,
@@ -46,13 +69,16 @@ public abstract class FiniteDistribution extends DiscreteDistribution {
   // should be overridden where possible for efficiency!
   public final double E(final MathFunctions.RealFunction h) {
     double r = 0.0;
+    long atoms = 0;
     for(double x : this) {
+      if (Instrumentation.ENABLED) atoms++;
       final double p = P(x);
       if (p==0.0) continue;
       final double hx = h.valueAt(x);
       if (hx==0.0) continue;
       r += p * hx;
     }
+    if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.FINITE_ENUMERATION, atoms);
     return r;
   }
 
@@ -60,9 +86,15 @@ public abstract class FiniteDistribution extends DiscreteDistribution {
   // an inefficient implementation of testing whether x is an atom.
   // Should be overriden in subclasses!
   public boolean isAtom(double x) {
+    long atoms = 0;
     for(double xx : this) {
-      if(xx==x) return true;
+      if (Instrumentation.ENABLED) atoms++;
+      if(xx==x) {
+        if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.FINITE_ENUMERATION, atoms);
+        return true;
+      }
     }
+    if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.FINITE_ENUMERATION, atoms);
     return false;
   }
 
@@ -0,0 +1,210 @@
+/*
+ * FisherExactTest.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import static java.lang.Math.*;
+
+/**
+ * This class implements Fisher's exact test for 2x2 contingency tables
+ * <pre>
+ *   a  b
+ *   c  d
+ * </pre>
+ * Given the margins, a follows the Hypergeometric distribution with
+ * population size N=a+b+c+d, K=a+c successes and n=a+b draws.
+ *
+ * The bulk method pValues() is meant for millions of tests (e.g.,
+ * gene-set enrichment), many of which share their margins.
+ * The tests are grouped by margins; for each distinct margin triple,
+ * the pmf is computed once by the ratio recurrence outward from the mode
+ * over the window of atoms where it does not underflow, together with
+ * its prefix sums and, for the two-sided test, the sorted pmf values
+ * with their prefix sums. Each test is then answered by a table lookup
+ * (one-sided) or a binary search (two-sided).
+ * Observations outside the window are answered by the distribution itself.
+ *
+ * Like R's fisher.test, the two-sided p-value is the total probability
+ * of all tables whose probability is at most (1+1E-7) times that of the
+ * observed table.
+ *
+ * @author Sven Rahmann
+ */
+public final class FisherExactTest {
+
+  /** the alternative hypothesis */
+  public static enum Alternative {
+    /** P(X &lt;= a) + P(tables at most as probable on the other side) */
+    TWO_SIDED,
+    /** P(X &lt;= a): depletion of the top left cell */
+    LESS,
+    /** P(X &gt;= a): enrichment of the top left cell */
+    GREATER
+  }
+
+  /** relative tolerance when comparing table probabilities (as in R) */
+  public static final double REL_ERR = 1.0 + 1E-7;
+
+  private FisherExactTest() { }
+
+
+  /** p-value of Fisher's exact test for one 2x2 table [[a,b],[c,d]] */
+  public static double pValue(final long a, final long b, final long c, final long d,
+      final Alternative alt) {
+    check(a, b, c, d);
+    return new Table(a+b+c+d, a+c, a+b).pValue(a, alt);
+  }
+
+  /** p-values of Fisher's exact test for many 2x2 tables [[a[i],b[i]],[c[i],d[i]]].
+   * Tests with the same margins share one precomputed table.
+   *@param a  top left cells
+   *@param b  top right cells
+   *@param c  bottom left cells
+   *@param d  bottom right cells
+   *@param alt  the alternative hypothesis
+   *@param out  the array that receives the p-values in input order (length &gt;= a.length)
+   */
+  public static void pValues(final long[] a, final long[] b, final long[] c, final long[] d,
+      final Alternative alt, final double[] out) {
+    final int m = a.length;
+    if (b.length!=m || c.length!=m || d.length!=m || out.length<m)
+      throw new DimensionMismatchException();
+    final HashMap<Margins,Table> tables = new HashMap<Margins,Table>();
+    for(int i=0; i<m; i++) {
+      check(a[i], b[i], c[i], d[i]);
+      final Margins key = new Margins(a[i]+b[i]+c[i]+d[i], a[i]+c[i], a[i]+b[i]);
+      Table t = tables.get(key);
+      if (t==null) tables.put(key, t = new Table(key.N, key.K, key.n));
+      out[i] = t.pValue(a[i], alt);
+    }
+  }
+
+  private static void check(final long a, final long b, final long c, final long d) {
+    if (a<0 || b<0 || c<0 || d<0)
+      throw new IllegalArgumentException("table entries must be nonnegative");
+  }
+
+
+  /** the margins of a 2x2 table, as hash key */
+  private static final class Margins {
+    final long N, K, n;
+
+    Margins(final long N, final long K, final long n) {
+      this.N = N;
+      this.K = K;
+      this.n = n;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Margins)) return false;
+      final Margins m = (Margins)o;
+      return N==m.N && K==m.K && n==m.n;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(N) * 961 + Long.hashCode(K) * 31 + Long.hashCode(n);
+    }
+  }
+
+
+  /** the precomputed pmf window for one margin triple */
+  private static final class Table {
+    /** stop extending the window when the pmf drops below this, relative to the mode */
+    private static final double WINDOW_TOL = 1E-300;
+
+    final HypergeometricDistribution dist;
+    /** the window of atoms [wl, wh] */
+    final long wl, wh;
+    /** pmf, lower and upper cumulative sums over the window */
+    final double[] pmf, cum, ucum;
+    /** ascending pmf values and their prefix sums */
+    final double[] sorted, sortedCum;
+
+    Table(final long N, final long K, final long n) {
+      dist = new HypergeometricDistribution(N, K, n);
+      final long lo = (long)dist.min(), hi = (long)dist.max();
+      final long mode = (long)dist.mode();
+      // extend the window from the mode with the ratio recurrence
+      long l = mode, h = mode;
+      double w = 1.0;
+      while (h<hi && (w *= dist.pRatio(h)) >= WINDOW_TOL) h++;
+      w = 1.0;
+      while (l>lo && (w /= dist.pRatio(l-1)) >= WINDOW_TOL) l--;
+      wl = l;
+      wh = h;
+      final int size = (int)(h-l+1);
+      pmf = new double[size];
+      final int im = (int)(mode-l);
+      pmf[im] = 1.0;
+      for(int i=im; i<size-1; i++) pmf[i+1] = pmf[i]*dist.pRatio(l+i);
+      for(int i=im; i>0; i--) pmf[i-1] = pmf[i]/dist.pRatio(l+i-1);
+      double s = 0.0;
+      for(int i=0; i<size; i++) s += pmf[i];
+      for(int i=0; i<size; i++) pmf[i] /= s;
+      cum = new double[size];
+      ucum = new double[size];
+      s = 0.0;
+      for(int i=0; i<size; i++) cum[i] = (s += pmf[i]);
+      s = 0.0;
+      for(int i=size-1; i>=0; i--) ucum[i] = (s += pmf[i]);
+      sorted = pmf.clone();
+      Arrays.sort(sorted);
+      sortedCum = new double[size];
+      s = 0.0;
+      for(int i=0; i<size; i++) sortedCum[i] = (s += sorted[i]);
+    }
+
+    double pValue(final long a, final Alternative alt) {
+      switch (alt) {
+        case LESS:
+          if (a<wl) return dist.P(dist.min(), a, Interval.Type.Closed);
+          return (a>=wh)? 1.0 : min(1.0, cum[(int)(a-wl)]);
+        case GREATER:
+          if (a>wh) return dist.P(a, dist.max(), Interval.Type.Closed);
+          return (a<=wl)? 1.0 : min(1.0, ucum[(int)(a-wl)]);
+        default:
+          if (a<wl || a>wh) return outsideTwoSided(a);
+          final double t = pmf[(int)(a-wl)]*REL_ERR;
+          // number of window atoms with pmf <= t
+          int lo = 0, hi = sorted.length;
+          while (lo<hi) {
+            final int mid = (lo+hi)>>>1;
+            if (sorted[mid]<=t) lo = mid+1; else hi = mid;
+          }
+          return (lo==0)? 0.0 : min(1.0, sortedCum[lo-1]);
+      }
+    }
+
+    /** two-sided p-value for an observation outside the window:
+     * its own tail, plus the tail on the other side beyond the first
+     * atom whose pmf is at most that of a */
+    private double outsideTwoSided(final long a) {
+      final double la = dist.lnP(a) + log(REL_ERR);
+      final boolean low = (a<wl);
+      final double own = low? dist.lnP(dist.min(), a, Interval.Type.Closed)
+          : dist.lnP(a, dist.max(), Interval.Type.Closed);
+      // binary search on the other side, where the pmf is monotone
+      long x = low? wh+1 : (long)dist.min();
+      long y = low? (long)dist.max() : wl-1;
+      if (x>y) return exp(own);
+      if (low) {
+        if (dist.lnP(y)>la) return exp(own);
+        while (x<y) { final long mid = (x+y)>>>1; if (dist.lnP(mid)<=la) y = mid; else x = mid+1; }
+        return min(1.0, exp(MathFunctions.logsum(own, dist.lnP(x, dist.max(), Interval.Type.Closed))));
+      } else {
+        if (dist.lnP(x)>la) return exp(own);
+        while (x<y) { final long mid = (x+y+1)>>>1; if (dist.lnP(mid)<=la) x = mid; else y = mid-1; }
+        return min(1.0, exp(MathFunctions.logsum(own, dist.lnP(dist.min(), x, Interval.Type.Closed))));
+      }
+    }
+  }
+
+}
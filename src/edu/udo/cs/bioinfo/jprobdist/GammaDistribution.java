@@ -0,0 +1,250 @@
+/*
+ * GammaDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import static java.lang.Math.*;
+
+/**
+ * This class implements the Gamma distribution with shape k&gt;0 and scale theta&gt;0,
+ * with density f(x) = x^(k-1) exp(-x/theta) / (Gamma(k) theta^k) for x&gt;=0.
+ * The cdf is the regularized incomplete gamma function P(k, x/theta).
+ *
+ * The quantile function starts from the Wilson-Hilferty approximation
+ * (or a small-shape approximation) and takes Halley steps driven by the
+ * closed-form density, so it needs only a few cdf evaluations.
+ * Random numbers are generated by the method of Marsaglia and Tsang.
+ *
+ * @author Sven Rahmann
+ */
+public class GammaDistribution extends ContinuousDistribution
+    implements UnimodalDistribution {
+
+  /** the shape parameter */
+  public final double shape;
+  /** the scale parameter */
+  public final double scale;
+  /** lngamma(shape) */
+  private final double gln;
+
+  /** create a new Gamma distribution with the given shape and scale */
+  public GammaDistribution(final double shape, final double scale) {
+    if (!(shape>0) || Double.isInfinite(shape))
+      throw new IllegalArgumentException("Gamma requires finite shape>0");
+    if (!(scale>0) || Double.isInfinite(scale))
+      throw new IllegalArgumentException("Gamma requires finite scale>0");
+    this.shape = shape;
+    this.scale = scale;
+    this.gln = MathFunctions.lngamma(shape);
+  }
+
+  // =============================================================
+  // density, cdf, ucdf
+
+  public double lnf(final double x) {
+    if (!(x>=0)) return (Double.isNaN(x))? x : Double.NEGATIVE_INFINITY;
+    if (x==0) {
+      if (shape<1) return Double.POSITIVE_INFINITY;
+      return (shape==1)? -log(scale) : Double.NEGATIVE_INFINITY;
+    }
+    final double y = x/scale;
+    return (shape-1)*log(y) - y - gln - log(scale);
+  }
+
+  public double cdf(final double x) {
+    return cdf(x, accuracy());
+  }
+
+  @Override
+  public double cdf(final double x, final AccuracyPolicy acc) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 0.0;
+    if (x==Double.POSITIVE_INFINITY) return 1.0;
+    return MathFunctions.gammaP(shape, x/scale, acc);
+  }
+
+  public double lncdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return Double.NEGATIVE_INFINITY;
+    if (x==Double.POSITIVE_INFINITY) return 0.0;
+    return MathFunctions.lngammaP(shape, x/scale);
+  }
+
+  public double ucdf(final double x) {
+    return ucdf(x, accuracy());
+  }
+
+  @Override
+  public double ucdf(final double x, final AccuracyPolicy acc) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 1.0;
+    if (x==Double.POSITIVE_INFINITY) return 0.0;
+    return MathFunctions.gammaQ(shape, x/scale, acc);
+  }
+
+  public double lnucdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 0.0;
+    if (x==Double.POSITIVE_INFINITY) return Double.NEGATIVE_INFINITY;
+    return MathFunctions.lngammaQ(shape, x/scale);
+  }
+
+  // =============================================================
+  // quantiles by Halley's method
+
+  /** maximal number of Halley or bisection steps */
+  private static final int QF_ITMAX = 200;
+  /** below this tail probability, the residual is taken in log space */
+  private static final double QF_LOG_TAIL = 1E-8;
+
+  public double qf(final double p) {
+    return qf(p, accuracy());
+  }
+
+  // Halley steps are safeguarded by a bracket [lo,hi] that shrinks with the
+  // sign of each residual; a step that leaves it (or is not finite) is replaced
+  // by bisection, geometric when the bracket spans orders of magnitude.
+  // Far in a tail, where the tail probability may underflow, Newton steps
+  // on the log of the tail probability are taken instead.
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    if (p==0.0) return 0.0;
+    if (p==1.0) return Double.POSITIVE_INFINITY;
+    final double a = shape, a1 = shape-1;
+    final boolean upper = (p>0.5);
+    final double target = upper? 1.0-p : p;
+    final boolean logres = (target<QF_LOG_TAIL);
+    final double lntarget = log(target);
+    // initial guess for the standard Gamma(a,1) quantile,
+    // with the power laws for small x evaluated in log space
+    double x;
+    if (a>1) {
+      final double z = MathFunctions.normalQuantile(p);
+      x = a*pow(1.0 - 1.0/(9*a) + z/(3*sqrt(a)), 3);
+      // P(a,x) ~ x^a/Gamma(a+1) for small x
+      if (!(x>1E-3)) x = exp((lntarget + gln + log(a))/a);
+    } else {
+      final double t = 1.0 - a*(0.253+a*0.12);
+      if (p<t) x = exp((lntarget-log(t))/a);
+      else x = upper? 1.0 - log(target/(1.0-t)) : 1.0 - log1p(-(p-t)/(1.0-t));
+    }
+    final double tol = Math.max(4*MathFunctions.DBL_EPS, acc.tol);
+    double lo = 0.0, hi = Double.POSITIVE_INFINITY;
+    for(int j=0; j<QF_ITMAX; j++) {
+      if (x<=0.0) return 0.0;   // the quantile is below the smallest double
+      // residual cdf(x)-p (or its log), computed in the tail that p lies in,
+      // and the Newton step err/f(x) (or err*tail(x)/f(x)), with f(x) in
+      // log space, so that it neither overflows nor underflows for shapes
+      // much smaller than 1
+      final double err, u;
+      if (logres) {
+        final double lntail = upper? MathFunctions.lngammaQ(a, x) : MathFunctions.lngammaP(a, x);
+        err = upper? lntarget - lntail : lntail - lntarget;
+        u = err*exp(lntail + x + gln - a1*log(x));
+      } else {
+        err = upper? target - MathFunctions.gammaQ(a, x, acc)
+                   : MathFunctions.gammaP(a, x, acc) - target;
+        u = err*exp(x + gln - a1*log(x));
+      }
+      if (err==0.0) break;
+      if (err>0) hi = x; else lo = x;
+      // Halley: divide the Newton step by 1 - (u/2) f'(x)/f(x)
+      double xn = logres? x - u : x - u/(1.0 - 0.5*Math.min(1.0, (u/x)*a1 - u));
+      if (abs(xn-x)<=tol*x) { x = xn; break; }
+      if (!(xn>lo && xn<hi)) {
+        if (hi==Double.POSITIVE_INFINITY) xn = 4*lo;
+        else if (lo==0.0) xn = Math.max(Math.min(hi*1E-3, hi*hi), Double.MIN_VALUE);
+        else xn = (hi>4*lo)? sqrt(lo*hi) : 0.5*(lo+hi);
+        if (!(xn>lo && xn<hi)) break;   // the bracket has collapsed
+      }
+      x = xn;
+    }
+    return x*scale;
+  }
+
+  // the safeguarded Halley iteration needs no bracket from the previous quantile
+  @Override
+  void qfAscending(final double[] p, final int m, final double[] q) {
+    qfEach(p, m, q);
+  }
+
+  /** a random number (Marsaglia and Tsang, 2000) */
+  public double random() {
+    return Samplers.gamma(shape)*scale;
+  }
+
+  // =============================================================
+  // moments
+
+  public double E() {
+    return shape*scale;
+  }
+
+  public double Var() {
+    return shape*scale*scale;
+  }
+
+  public double skewness() {
+    return 2.0/sqrt(shape);
+  }
+
+  public double kurtosisExcess() {
+    return 6.0/shape;
+  }
+
+  /** E[X^m] = scale^m Gamma(shape+m)/Gamma(shape), for m&gt;-shape */
+  public double moment(final double m) {
+    if (m<=-shape) return Double.POSITIVE_INFINITY;
+    if (m==0) return 1.0;
+    return exp(m*log(scale) + MathFunctions.lngamma(shape+m) - gln);
+  }
+
+  public double cmoment(final double c) {
+    return cmomentFromMoments(c);
+  }
+
+  // =============================================================
+  // support and mode
+
+  public final double min() {
+    return 0.0;
+  }
+
+  public final double max() {
+    return Double.POSITIVE_INFINITY;
+  }
+
+  public final Interval support() {
+    return Interval.TheNonnegativeReals;
+  }
+
+  /** the mode (shape-1)*scale for shape&gt;=1, and 0 otherwise */
+  public final double mode() {
+    return (shape>=1)? (shape-1)*scale : 0.0;
+  }
+
+  public final Interval modeInterval() {
+    return new Interval(mode());
+  }
+
+  // =============================================================
+  // equality of shape and scale
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o==null || o.getClass()!=getClass()) return false;
+    final GammaDistribution g = (GammaDistribution)o;
+    return Double.compare(shape, g.shape)==0 && Double.compare(scale, g.scale)==0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Double.hashCode(shape)*31 + Double.hashCode(scale);
+  }
+}
@@ -0,0 +1,470 @@
+/*
+ * GoodnessOfFit.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import static java.lang.Math.*;
+
+/**
+ * This class implements goodness-of-fit tests of a sample against a
+ * fully specified univariate distribution, for samples of any size:
+ * Pearson's chi-square test (discrete models),
+ * the Kolmogorov-Smirnov test, and the Anderson-Darling test
+ * (models with a continuous cdf).
+ *
+ * For discrete models, the sample is first condensed into a Histogram of its
+ * distinct values and their counts (by sorting an array, or by counting
+ * an IntStream, possibly in parallel), and the cdf is evaluated once per
+ * distinct value by the batch upper cdf DiscreteDistribution.ucdf(double[],double[]).
+ * For continuous models, a copy of the sample is sorted by Arrays.parallelSort,
+ * and the statistics are accumulated in parallel chunks on the common ForkJoinPool.
+ *
+ * P-values: chi-square from the chi-square distribution with
+ * (cells - 1 - estimated parameters) degrees of freedom;
+ * Kolmogorov-Smirnov exact for continuous models and n &lt;= EXACT_KS_MAX
+ * (Marsaglia, Tsang and Wang, 2003), otherwise from the asymptotic
+ * Kolmogorov distribution with Stephens' correction (for discrete models,
+ * these p-values are conservative);
+ * Anderson-Darling from Marsaglia and Marsaglia (2004), including their
+ * correction for finite n.
+ *
+ * @author Sven Rahmann
+ */
+public final class GoodnessOfFit {
+
+  private GoodnessOfFit() { }
+
+  /** the result of a test */
+  public static final class Result {
+    /** the test statistic */
+    public final double statistic;
+    /** its p-value */
+    public final double pValue;
+    /** the degrees of freedom of a chi-square test, 0 for the other tests */
+    public final int df;
+
+    Result(final double statistic, final double pValue, final int df) {
+      this.statistic = statistic;
+      this.pValue = pValue;
+      this.df = df;
+    }
+
+    public String toString() {
+      return String.format("statistic=%g, p=%g%s", statistic, pValue, (df>0)? ", df="+df : "");
+    }
+  }
+
+  /** the minimal expected count of a chi-square cell; smaller cells are pooled */
+  public static final double MIN_EXPECTED = 5.0;
+
+  /** up to this sample size, the Kolmogorov-Smirnov p-value is exact */
+  public static final int EXACT_KS_MAX = 1000;
+
+  /** the chi-square cells cover the atoms between these quantiles; the tails are pooled */
+  private static final double CELL_TAIL = 1E-12;
+
+  /** below this sample size, sorting and accumulation are sequential */
+  private static final int PARALLEL_MIN = 1<<16;
+
+
+  // =================================================================
+  // histograms
+
+  /** a sample condensed to its distinct values, in increasing order, and their counts */
+  public static final class Histogram {
+    /** the distinct values */
+    public final double[] values;
+    /** counts[i] is the number of occurrences of values[i] */
+    public final long[] counts;
+    /** the sample size */
+    public final long n;
+
+    Histogram(final double[] values, final long[] counts) {
+      this.values = values;
+      this.counts = counts;
+      long s = 0;
+      for(long c: counts) s += c;
+      this.n = s;
+    }
+
+    /** the histogram of the values in x (which is not modified) */
+    public static Histogram of(final double[] x) {
+      final double[] s = sortedCopy(x);
+      int m = 0;
+      final long[] c = new long[s.length];
+      for(int i=0; i<s.length; i++) {
+        if (m>0 && s[i]==s[m-1]) { c[m-1]++; continue; }
+        s[m] = s[i];
+        c[m++] = 1;
+      }
+      return new Histogram(Arrays.copyOf(s, m), Arrays.copyOf(c, m));
+    }
+
+    /** the histogram of the values of an integer stream, which may be parallel;
+     * the stream is consumed by counting, without storing the sample */
+    public static Histogram of(final IntStream x) {
+      final IntCounter c = x.collect(
+          new Supplier<IntCounter>() {
+            public IntCounter get() { return new IntCounter(); }
+          },
+          new ObjIntConsumer<IntCounter>() {
+            public void accept(final IntCounter t, final int v) { t.add(v, 1); }
+          },
+          new BiConsumer<IntCounter,IntCounter>() {
+            public void accept(final IntCounter t, final IntCounter u) { t.addAll(u); }
+          });
+      return c.histogram();
+    }
+  }
+
+  /** counts of int values by open addressing; a count of 0 marks an empty slot */
+  private static final class IntCounter {
+    private int[] keys = new int[64];
+    private long[] counts = new long[64];
+    private int size = 0;
+
+    void add(final int key, final long count) {
+      final int mask = keys.length-1;
+      int i = (key*0x9E3779B9)>>>7 & mask;
+      while (counts[i]!=0 && keys[i]!=key) i = (i+1) & mask;
+      if (counts[i]==0) {
+        keys[i] = key;
+        if (++size > keys.length/2) { counts[i] = count; grow(); return; }
+      }
+      counts[i] += count;
+    }
+
+    void addAll(final IntCounter o) {
+      for(int i=0; i<o.keys.length; i++) if (o.counts[i]!=0) add(o.keys[i], o.counts[i]);
+    }
+
+    private void grow() {
+      final int[] k = keys;
+      final long[] c = counts;
+      keys = new int[2*k.length];
+      counts = new long[2*k.length];
+      size = 0;
+      for(int i=0; i<k.length; i++) if (c[i]!=0) add(k[i], c[i]);
+    }
+
+    Histogram histogram() {
+      final int[] k = new int[size];
+      int m = 0;
+      for(int i=0; i<keys.length; i++) if (counts[i]!=0) k[m++] = keys[i];
+      Arrays.sort(k);
+      final double[] v = new double[m];
+      final long[] c = new long[m];
+      final int mask = keys.length-1;
+      for(int j=0; j<m; j++) {
+        int i = (k[j]*0x9E3779B9)>>>7 & mask;
+        while (keys[i]!=k[j] || counts[i]==0) i = (i+1) & mask;
+        v[j] = k[j];
+        c[j] = counts[i];
+      }
+      return new Histogram(v, c);
+    }
+  }
+
+  private static double[] sortedCopy(final double[] x) {
+    final double[] s = new double[x.length];
+    for(int i=0; i<x.length; i++) {
+      if (Double.isNaN(x[i])) throw new IllegalArgumentException("sample contains NaN");
+      s[i] = x[i]+0.0;   // map -0.0 to 0.0
+    }
+    if (s.length>=PARALLEL_MIN) Arrays.parallelSort(s); else Arrays.sort(s);
+    return s;
+  }
+
+
+  // =================================================================
+  // chi-square
+
+  /** Pearson's chi-square test of the sample x against d */
+  public static Result chiSquare(final DiscreteDistribution d, final double[] x) {
+    return chiSquare(d, Histogram.of(x), 0);
+  }
+
+  /** Pearson's chi-square test of a histogram against d.
+   * The cells are the atoms of d between its CELL_TAIL quantiles, with the
+   * tails pooled into the outer cells, and neighboring cells pooled
+   * from left to right until each has an expected count of at least MIN_EXPECTED.
+   * If a value of the sample is not an atom of d, the statistic is infinite.
+   *@param d  the model
+   *@param h  the histogram of the sample
+   *@param estimated  the number of parameters of d estimated from the sample
+   *@return the statistic, its p-value and the degrees of freedom
+   */
+  public static Result chiSquare(final DiscreteDistribution d, final Histogram h, final int estimated) {
+    if (h.n==0) throw new IllegalArgumentException("empty sample");
+    for(double v: h.values) if (!d.isAtom(v)) return new Result(Double.POSITIVE_INFINITY, 0.0, 0);
+    // the atoms of the cells and the probabilities P(X >= a_j)
+    final double lo = Math.min(d.qf(CELL_TAIL), h.values[0]);
+    final double hi = Math.max(d.qf(1.0-CELL_TAIL), h.values[h.values.length-1]);
+    int k = 0;
+    double[] a = new double[64];
+    for(Iterator<Double> it = d.iterator(new Interval(lo, hi)); it.hasNext(); ) {
+      if (k==a.length) a = Arrays.copyOf(a, 2*k);
+      a[k++] = it.next();
+    }
+    a = Arrays.copyOf(a, k);
+    final double[] u = new double[k];
+    d.ucdf(a, u);
+    // observed counts per atom (all values are atoms in [lo,hi])
+    final long[] obs = new long[k];
+    for(int i=0, j=0; i<h.values.length; i++) {
+      while (a[j]<h.values[i]) j++;
+      obs[j] += h.counts[i];
+    }
+    // pool from left to right
+    double stat = 0.0, e = 0.0;
+    long o = 0;
+    int cells = 0;
+    double lastE = 0.0;
+    long lastO = 0;
+    for(int j=0; j<k; j++) {
+      final double pj = ((j==0)? 1.0 : u[j]) - ((j<k-1)? u[j+1] : 0.0);
+      e += h.n*Math.max(pj, 0.0);
+      o += obs[j];
+      if (e>=MIN_EXPECTED || j==k-1) {
+        if (e<MIN_EXPECTED && cells>0) {
+          // merge the remainder into the last complete cell
+          stat -= (lastO-lastE)*(lastO-lastE)/lastE;
+          e += lastE;
+          o += lastO;
+          cells--;
+        }
+        stat += (o-e)*(o-e)/e;
+        cells++;
+        lastE = e; lastO = o;
+        e = 0.0; o = 0;
+      }
+    }
+    final int df = cells-1-estimated;
+    if (df<1) throw new IllegalArgumentException("too few cells for the chi-square test: "+cells);
+    return new Result(stat, new ChiSquareDistribution(df).ucdf(stat), df);
+  }
+
+
+  // =================================================================
+  // Kolmogorov-Smirnov
+
+  /** the Kolmogorov-Smirnov test of the sample x against d */
+  public static Result ks(final UVDistribution d, final double[] x) {
+    if (d instanceof DiscreteDistribution) return ks((DiscreteDistribution)d, Histogram.of(x));
+    final double[] s = sortedCopy(x);
+    final double[] r = sweep(d, s, false);
+    final double dn = Math.max(r[0], r[1]);
+    return new Result(dn, ksPValue(s.length, dn, true), 0);
+  }
+
+  /** the Kolmogorov-Smirnov test of a histogram against a discrete d.
+   * The empirical cdf is constant between the distinct values, so the supremum
+   * is attained at them or just before them, and the cdf of d is needed
+   * only at the distinct values.
+   */
+  public static Result ks(final DiscreteDistribution d, final Histogram h) {
+    if (h.n==0) throw new IllegalArgumentException("empty sample");
+    final int m = h.values.length;
+    final double[] u = new double[m];
+    d.ucdf(h.values, u);   // P(X >= v) = 1 - F(v-)
+    double dn = 0.0;
+    long c = 0;
+    for(int i=0; i<m; i++) {
+      final double fminus = 1.0-u[i], f = fminus + d.P(h.values[i]);
+      dn = Math.max(dn, abs(fminus - (double)c/h.n));   // just before v
+      c += h.counts[i];
+      dn = Math.max(dn, abs((double)c/h.n - f));         // at v
+    }
+    return new Result(dn, ksPValue(h.n, dn, false), 0);
+  }
+
+  /** the p-value P(D_n &gt;= d) of the Kolmogorov-Smirnov statistic.
+   *@param n  the sample size
+   *@param d  the observed statistic
+   *@param exact  use the exact distribution if n &lt;= EXACT_KS_MAX
+   */
+  public static double ksPValue(final long n, final double d, final boolean exact) {
+    if (!(d>0)) return 1.0;
+    if (d>=1) return 0.0;
+    final double s = d*d*n;
+    if (exact && n<=EXACT_KS_MAX && !(s>7.24 || (s>3.76 && n>99)))
+      return Math.min(1.0, Math.max(0.0, 1.0-kolmogorovCdf((int)n, d)));
+    // Stephens (1970): the asymptotic distribution at (sqrt(n)+0.12+0.11/sqrt(n)) d
+    final double rn = sqrt((double)n);
+    final double t = (rn + 0.12 + 0.11/rn)*d;
+    if (t<1.18) {
+      // P(K <= t) = sqrt(2 pi)/t sum exp(-(2j-1)^2 pi^2 / (8 t^2))
+      final double w = -PI*PI/(8*t*t);
+      double sum = 0.0;
+      for(int j=1; j<=5; j++) sum += exp((2*j-1)*(2*j-1)*w);
+      return Math.min(1.0, Math.max(0.0, 1.0 - sqrt(2*PI)/t*sum));
+    }
+    // P(K > t) = 2 sum (-1)^(j-1) exp(-2 j^2 t^2)
+    double sum = 0.0;
+    for(int j=1; j<=10; j++) sum += ((j&1)==1? 2 : -2)*exp(-2.0*j*j*t*t);
+    return Math.min(1.0, Math.max(0.0, sum));
+  }
+
+  /** P(D_n &lt; d) by the matrix method of Marsaglia, Tsang and Wang (2003) */
+  private static double kolmogorovCdf(final int n, final double d) {
+    final int k = (int)(n*d)+1, m = 2*k-1;
+    final double h = k-n*d;
+    final double[] H = new double[m*m];
+    for(int i=0; i<m; i++) for(int j=0; j<m; j++) H[i*m+j] = (i-j+1<0)? 0.0 : 1.0;
+    for(int i=0; i<m; i++) {
+      H[i*m] -= pow(h, i+1);
+      H[(m-1)*m+i] -= pow(h, m-i);
+    }
+    H[(m-1)*m] += (2*h-1>0)? pow(2*h-1, m) : 0.0;
+    for(int i=0; i<m; i++) for(int j=0; j<m; j++)
+      if (i-j+1>0) for(int g=1; g<=i-j+1; g++) H[i*m+j] /= g;
+    final int[] eQ = new int[1];
+    final double[] Q = matrixPower(H, 0, eQ, m, n);
+    double s = Q[(k-1)*m+k-1];
+    int e = eQ[0];
+    for(int i=1; i<=n; i++) {
+      s = s*i/n;
+      if (s<1E-140) { s *= 1E140; e -= 140; }
+    }
+    return s*pow(10.0, e);
+  }
+
+  /** A^n for an m x m matrix A (with decimal exponent eA), scaled; the exponent is returned in eV[0] */
+  private static double[] matrixPower(final double[] A, final int eA, final int[] eV, final int m, final int n) {
+    if (n==1) {
+      eV[0] = eA;
+      return A.clone();
+    }
+    final double[] V = matrixPower(A, eA, eV, m, n/2);
+    final double[] B = multiply(V, V, m);
+    int eB = 2*eV[0];
+    final double[] R;
+    if (n%2==0) R = B;
+    else { R = multiply(A, B, m); eB += eA; }
+    if (R[(m/2)*m+(m/2)]>1E140) {
+      for(int i=0; i<m*m; i++) R[i] *= 1E-140;
+      eB += 140;
+    }
+    eV[0] = eB;
+    return R;
+  }
+
+  private static double[] multiply(final double[] A, final double[] B, final int m) {
+    final double[] C = new double[m*m];
+    for(int i=0; i<m; i++)
+      for(int l=0; l<m; l++) {
+        final double a = A[i*m+l];
+        if (a==0.0) continue;
+        for(int j=0; j<m; j++) C[i*m+j] += a*B[l*m+j];
+      }
+    return C;
+  }
+
+
+  // =================================================================
+  // Anderson-Darling
+
+  /** the Anderson-Darling test of the sample x against a model with a continuous cdf.
+   * A^2 = -n - (1/n) sum_i [(2i-1) ln F(x_(i)) + (2n-2i+1) ln(1-F(x_(i)))],
+   * with the logarithms of the tails taken from lncdf and lnucdf.
+   */
+  public static Result andersonDarling(final UVDistribution d, final double[] x) {
+    if (d instanceof DiscreteDistribution)
+      throw new IllegalArgumentException("the Anderson-Darling test requires a continuous model");
+    if (x.length==0) throw new IllegalArgumentException("empty sample");
+    final double[] s = sortedCopy(x);
+    final int n = s.length;
+    final double a2 = -n - sweep(d, s, true)[2]/n;
+    return new Result(a2, adPValue(n, a2), 0);
+  }
+
+  /** the p-value of the Anderson-Darling statistic a2 for sample size n
+   * (Marsaglia and Marsaglia, 2004) */
+  public static double adPValue(final long n, final double a2) {
+    if (!(a2>0)) return 1.0;
+    final double x = adInf(a2);
+    return Math.min(1.0, Math.max(0.0, 1.0 - (x + adErrFix(n, x))));
+  }
+
+  /** the limiting cdf of A^2 */
+  private static double adInf(final double z) {
+    if (z<2.0)
+      return exp(-1.2337141/z)/sqrt(z)*(2.00012+(.247105-(.0649821-(.0347962-(.011672-.00168691*z)*z)*z)*z)*z);
+    return exp(-exp(1.0776-(2.30695-(.43424-(.082433-(.008056-.0003146*z)*z)*z)*z)*z));
+  }
+
+  /** the correction of the limiting cdf value x for sample size n */
+  private static double adErrFix(final long n, final double x) {
+    if (x>0.8)
+      return (-130.2137+(745.2337-(1705.091-(1950.646-(1116.360-255.7844*x)*x)*x)*x)*x)/n;
+    final double c = 0.01265 + 0.1757/n;
+    if (x<c) {
+      double t = x/c;
+      t = sqrt(t)*(1.0-t)*(49*t-102);
+      return t*(0.0037/((double)n*n) + 0.00078/n + 0.00006)/n;
+    }
+    double t = (x-c)/(0.8-c);
+    t = -0.00022633+(6.54034-(14.6538-(14.458-(8.259-1.91864*t)*t)*t)*t)*t;
+    return t*(0.04213+0.01365/n)/n;
+  }
+
+
+  // =================================================================
+  // parallel accumulation over a sorted sample
+
+  /** over the sorted sample s, returns {D+, D-, AD sum} where
+   * D+ = max(i/n - F(x_i)), D- = max(F(x_i) - (i-1)/n), and the AD sum is
+   * sum_i (2i-1) ln F(x_i) + (2n-2i+1) ln(1-F(x_i)) (only if ad is true) */
+  private static double[] sweep(final UVDistribution d, final double[] s, final boolean ad) {
+    final Sweep task = new Sweep(d, s, ad, 0, s.length);
+    return (s.length<PARALLEL_MIN)? task.compute() : ForkJoinPool.commonPool().invoke(task);
+  }
+
+  private static final class Sweep extends RecursiveTask<double[]> {
+    private static final long serialVersionUID = 1L;
+    private final UVDistribution d;
+    private final double[] s;
+    private final boolean ad;
+    private final int lo, hi;
+
+    Sweep(final UVDistribution d, final double[] s, final boolean ad, final int lo, final int hi) {
+      this.d = d; this.s = s; this.ad = ad; this.lo = lo; this.hi = hi;
+    }
+
+    protected double[] compute() {
+      if (hi-lo > PARALLEL_MIN) {
+        final int mid = (lo+hi)>>>1;
+        final Sweep left = new Sweep(d, s, ad, lo, mid);
+        left.fork();
+        final double[] b = new Sweep(d, s, ad, mid, hi).compute();
+        final double[] a = left.join();
+        return new double[] {Math.max(a[0], b[0]), Math.max(a[1], b[1]), a[2]+b[2]};
+      }
+      final double n = s.length;
+      double dplus = 0.0, dminus = 0.0, sum = 0.0;
+      for(int i=lo; i<hi; i++) {
+        if (ad) {
+          sum += (2.0*i+1)*d.lncdf(s[i]) + (2.0*(n-i)-1)*d.lnucdf(s[i]);
+        } else {
+          final double f = d.cdf(s[i]);
+          dplus = Math.max(dplus, (i+1)/n - f);
+          dminus = Math.max(dminus, f - i/n);
+        }
+      }
+      return new double[] {dplus, dminus, sum};
+    }
+  }
+
+}
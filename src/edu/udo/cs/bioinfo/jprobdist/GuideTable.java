@@ -0,0 +1,157 @@
+/*
+ * GuideTable.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Iterator;
+
+/**
+ * This class implements the guide table method (Chen and Asau, 1974)
+ * for the quantile function of a discrete distribution and for sampling
+ * by inversion.
+ *
+ * A guide table holds the atoms x[0] &lt; ... &lt; x[n-1] of a window of the
+ * distribution together with their cdf values c[i] = cdf(x[i]),
+ * and an index over m equally wide buckets of the probability range
+ * (base, c[n-1]], where base = P(X &lt; x[0]).
+ * The entry for bucket j is the first atom whose cdf lies in bucket j
+ * or a later one. The quantile of p is then found by starting at the
+ * entry of p's bucket and stepping forward; with m = n buckets, the
+ * expected number of steps is below 2, independently of n.
+ * Probabilities outside the tabulated window are passed on to the
+ * quantile function of the distribution itself.
+ *
+ * Guide tables are immutable and may be shared by any number of threads.
+ * A DiscreteDistribution creates its table lazily, see
+ * DiscreteDistribution.guideTable().
+ *
+ * @author Sven Rahmann
+ */
+public final class GuideTable {
+
+  /** default probability mass left outside the window in each tail */
+  public static final double DEFAULT_TAIL = 1E-10;
+
+  /** maximal number of atoms tabulated by of() */
+  public static final int MAX_ATOMS = 1<<24;
+
+  /** the distribution (used for probabilities outside the window) */
+  private final DiscreteDistribution dist;
+  /** the tabulated atoms */
+  private final double[] atoms;
+  /** the cdf at the tabulated atoms */
+  private final double[] cum;
+  /** the tabulated index range */
+  private final int lo, hi;
+  /** cdf just below the first tabulated atom, and at the last one */
+  private final double base, top;
+  /** the guide index: guide[j] is the first atom whose cum falls into bucket j or later */
+  private final int[] guide;
+  /** number of buckets per unit of probability */
+  private final double scale;
+
+
+  /** creates a guide table over atoms[lo..hi] with the given cdf values.
+   * The arrays are not copied (they are shared, e.g., with a
+   * TabulatedFiniteDistribution) and must not be modified later.
+   */
+  GuideTable(final DiscreteDistribution dist, final double[] atoms, final double[] cum,
+      final int lo, final int hi, final double base) {
+    this.dist = dist;
+    this.atoms = atoms;
+    this.cum = cum;
+    this.lo = lo;
+    this.hi = hi;
+    this.base = base;
+    this.top = cum[hi];
+    final int m = hi-lo+1;
+    this.guide = new int[m];
+    this.scale = (top>base)? m/(top-base) : 0.0;
+    // the buckets of the atoms are computed exactly as in index(), so that
+    // rounding can never put an atom's guide entry past the atom itself
+    int j = 0;
+    for(int i=lo; i<=hi && j<m; i++) {
+      final int k = (int)((cum[i]-base)*scale);
+      while (j<=k && j<m) guide[j++] = i;
+    }
+    while (j<m) guide[j++] = hi;
+  }
+
+  /** creates a guide table for a discrete distribution.
+   * The atoms between qf(tail) and qf(1-tail) are enumerated once;
+   * probabilities outside this window are handled by dist.qf.
+   *@param dist  the distribution
+   *@param tail  the probability mass to leave outside the window in each tail
+   *  (use 0 to tabulate a finite distribution completely)
+   *@return the guide table
+   */
+  public static GuideTable of(final DiscreteDistribution dist, final double tail) {
+    if (!(tail>=0.0 && tail<0.5)) throw new IllegalArgumentException("tail must be in [0,0.5)");
+    final double a = (tail==0.0)? dist.min() : dist.qf(tail);
+    final double b = (tail==0.0)? dist.max() : dist.qf(1.0-tail);
+    if (Double.isInfinite(a) || Double.isInfinite(b))
+      throw new IllegalArgumentException("cannot tabulate an infinite window; use tail>0");
+    // count and collect the atoms in [a,b]
+    double[] x = new double[64];
+    int n = 0;
+    for(Iterator<Double> it = dist.iterator(new Interval(a,b)); it.hasNext(); ) {
+      if (n==x.length) {
+        if (n>=MAX_ATOMS) throw new IllegalArgumentException("too many atoms to tabulate");
+        x = java.util.Arrays.copyOf(x, 2*n);
+      }
+      x[n++] = it.next();
+    }
+    if (n==0) throw new IllegalArgumentException("no atoms to tabulate");
+    x = java.util.Arrays.copyOf(x, n);
+    final double[] c = new double[n];
+    final double base = dist.cdf(x[0]) - dist.P(x[0]);
+    // running sums from both ends, so that neither tail picks up the
+    // accumulated rounding error of the pmf values from the other side
+    double s = base;
+    for(int i=0; i<n; i++) c[i] = (s += dist.P(x[i]));
+    double t = dist.cdf(x[n-1]);
+    for(int i=n-1; i>=0 && c[i]>0.5; i--) {
+      c[i] = t;
+      t -= dist.P(x[i]);
+    }
+    return new GuideTable(dist, x, c, 0, n-1, (base>0.0)? base : 0.0);
+  }
+
+  /** the number of tabulated atoms */
+  public int size() {
+    return hi-lo+1;
+  }
+
+  /** quantile function: the smallest atom x with cdf(x) &gt;= p.
+   * Inside the tabulated window, this touches on average fewer than
+   * two cdf entries.
+   *@param p  a probability in [0,1]
+   *@return the p-quantile
+   */
+  public double qf(final double p) {
+    final int i = index(p);
+    return (i<0)? dist.qf(p) : atoms[i];
+  }
+
+  /** index of the p-quantile in the tabulated atoms,
+   * or -1 if p is outside the tabulated window */
+  int index(final double p) {
+    if (!(p>base && p<=top)) return -1;
+    int j = (int)((p-base)*scale);
+    if (j>=guide.length) j = guide.length-1;
+    int i = guide[j];
+    while (cum[i]<p) i++;
+    return i;
+  }
+
+  /** a random number from the distribution, by inversion through the guide table */
+  public double random() {
+    final double p = Math.random();
+    return (p==0.0)? dist.min() : qf(p);
+  }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * HypergeometricDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+import java.util.Iterator;
+import static java.lang.Math.*;
+import static edu.udo.cs.bioinfo.jprobdist.MathFunctions.*;
+
+/**
+ * This class implements the Hypergeometric distribution, i.e.,
+ * the distribution of the number of successes in n draws without
+ * replacement from a population of size N that contains K successes.
+ * Its support consists of the integers from max(0,n+K-N) to min(n,K).
+ *
+ * The pmf is computed from log-factorials; interval probabilities
+ * are summed outward from the mode with the pmf ratio recurrence.
+ * Random numbers are generated by the ratio-of-uniforms method HRUA
+ * (Stadlober, 1989), or by inversion for very few draws.
+ *
+ * @author Sven Rahmann
+ */
+public class HypergeometricDistribution extends FiniteDistribution
+    implements UnimodalDistribution {
+
+  /** the population size */
+  public final long N;
+  /** the number of successes in the population */
+  public final long K;
+  /** the number of draws */
+  public final long n;
+  /** the expectation of this distribution */
+  public final double E;
+  /** the smallest and largest atom */
+  private final long lo, hi;
+  /** ln of the normalizing constant (N choose n) */
+  private final double lnZ;
+
+  /**
+   * Generates a new Hypergeometric Distribution with parameters N, K, n.
+   * @param N  the population size (has to be &gt;= 0)
+   * @param K  the number of successes in the population (0 &lt;= K &lt;= N)
+   * @param n  the number of draws (0 &lt;= n &lt;= N)
+   */
+  public HypergeometricDistribution(final long N, final long K, final long n) {
+    if (N<0) throw new IllegalArgumentException("N must be nonnegative");
+    if (K<0 || K>N) throw new IllegalArgumentException("K must be in [0,N]");
+    if (n<0 || n>N) throw new IllegalArgumentException("n must be in [0,N]");
+    this.N = N;
+    this.K = K;
+    this.n = n;
+    this.E = (N==0)? 0.0 : (double)n*K/N;
+    this.lo = Math.max(0, n+K-N);
+    this.hi = Math.min(n, K);
+    this.lnZ = lnbincoeff(N, n);
+  }
+
+
+  public double lnP(final double x) {
+    if (!isAtom(x)) return Double.NEGATIVE_INFINITY;
+    if (lo==hi) return 0.0;
+    return lnbincoeff(K, x) + lnbincoeff(N-K, n-x) - lnZ;
+  }
+
+
+  @Override
+  public double lnP(final Interval ab) {
+    return lnP(ab.a, ab.b, ab.type);
+  }
+
+  @Override
+  public double P(final Interval ab) {
+    return exp(lnP(ab.a, ab.b, ab.type));
+  }
+
+  @Override
+  public double P(final double a, final double b, final Interval.Type t) {
+    return exp(lnP(a, b, t));
+  }
+
+  // sum the atoms in the interval outward from the one closest to the mode
+  @Override
+  public double lnP(final double a, final double b, final Interval.Type t) {
+    final double first = Interval.firstEpsPoint(a, t, 1.0);
+    final double last  = Interval.lastEpsPoint(b, t, 1.0);
+    final double f = (first<=lo)? lo : first;
+    final double l = (last>=hi)? hi : last;
+    if (!(l>=f)) return Double.NEGATIVE_INFINITY;   // also catches NaN
+    if (f==lo && l==hi) return 0.0;
+    return lnPUnimodalRun(f, l, mode());
+  }
+
+  @Override
+  public double qf(final double p) {
+    return qf(p, accuracy());
+  }
+
+  // Cornish-Fisher starting point, then a discrete search (no allocation)
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    if (p==0.0) return Double.NEGATIVE_INFINITY;
+    if (p==1.0 || lo==hi) return hi;
+    final double s = sqrt(Var());
+    final double z = MathFunctions.normalQuantile(p);
+    return qfLatticeSearch(p, E + z*s + skewness()*s*(z*z-1)/6.0, acc);
+  }
+
+  final double pRatio(final double k) {
+    return ((K-k)*(n-k)) / ((k+1)*(N-K-n+k+1));
+  }
+
+
+  @Override
+  public double E() {
+    return E;
+  }
+
+  @Override
+  public double Var() {
+    if (N<=1) return 0.0;
+    return E*(N-K)/N*(N-n)/(N-1);
+  }
+
+  @Override
+  public double skewness() {
+    final double v = Var();
+    if (v==0.0) return Double.NaN;
+    return (N-2.0*K)*(N-2.0*n)/(N-2.0) * sqrt(N-1.0) / sqrt((double)n*K*(N-K)*(N-n));
+  }
+
+  @Override
+  public double kurtosisExcess() {
+    final double v = Var();
+    if (v==0.0) return Double.NaN;
+    final double NN = N, KK = K, nn = n;
+    final double num = (NN-1)*NN*NN*(NN*(NN+1) - 6*KK*(NN-KK) - 6*nn*(NN-nn))
+        + 6*nn*KK*(NN-KK)*(NN-nn)*(5*NN-6);
+    return num / (nn*KK*(NN-KK)*(NN-nn)*(NN-2)*(NN-3));
+  }
+
+
+  public final double min() {
+    return lo;
+  }
+
+  public final double max() {
+    return hi;
+  }
+
+  public final double mode() {
+    final double m = floor((n+1.0)*(K+1.0)/(N+2.0));
+    return (m>hi)? hi : ((m<lo)? lo : m);
+  }
+
+  public final Interval modeInterval() {
+    final double m = mode();
+    // (n+1)(K+1)/(N+2) integral: both m-1 and m are modes
+    final double r = (n+1.0)*(K+1.0)/(N+2.0);
+    if (r==m && m-1>=lo) return new Interval(m-1, m, Interval.Type.Closed);
+    return new Interval(m, m, Interval.Type.Closed);
+  }
+
+
+  @Override
+  public boolean isAtom(final double x) {
+    return (x>=lo && x<=hi && x==MathFunctions.xround(x));
+  }
+
+  public final double closestAtom(final double x) {
+    if (x<=lo) return lo;
+    if (x>=hi) return hi;
+    return xround(x);
+  }
+
+  public Iterator<Double> iterator() {
+    return new LatticeIterator(hi-lo, lo, 1.0);
+  }
+
+  public Iterator<Double> iterator(Interval ab) {
+    final Interval fl = ab.getContainedEpsInterval(1.0);
+    final long first = (fl.a<=lo)? lo : (long)ceil(fl.a);
+    final long last  = (fl.b>=hi)? hi : (long)floor(fl.b);
+    return new LatticeIterator(last-first, first, 1.0);
+  }
+
+
+  // =================================================================
+  // random numbers
+
+  /** below this number of (effective) draws, sample by inversion */
+  private static final long HRUA_MIN = 16;
+
+  private static final double D1 = 1.7155277699214135;  // 2 sqrt(2/e)
+  private static final double D2 = 0.8989161620588988;  // 3 - 2 sqrt(3/e)
+
+  /** a random number by the ratio-of-uniforms method HRUA
+   * (Stadlober, 1989; with the corrections of numpy's implementation).
+   * The method works on the equivalent distribution with
+   * min(K,N-K) successes and min(n,N-n) draws, and maps back.
+   */
+  @Override
+  public double random() {
+    final long good = K, bad = N-K;
+    final long mingb = Math.min(good, bad), maxgb = Math.max(good, bad);
+    final long m = Math.min(n, N-n);
+    if (m<HRUA_MIN || mingb<HRUA_MIN) return qf(Math.random());
+    final double d4 = (double)mingb/N;
+    final double d5 = 1.0-d4;
+    final double d6 = m*d4 + 0.5;
+    final double d7 = sqrt((double)(N-m)*n*d4*d5/(N-1) + 0.5);
+    final double d8 = D1*d7 + D2;
+    final long d9 = (long)floor((double)(m+1)*(mingb+1)/(N+2));
+    final double d10 = lnfactorial(d9) + lnfactorial(mingb-d9) + lnfactorial(m-d9)
+        + lnfactorial(maxgb-m+d9);
+    final double d11 = Math.min(Math.min(m, mingb)+1.0, floor(d6+16*d7));
+    long z;
+    while (true) {
+      final double x = Math.random();
+      final double y = Math.random();
+      final double w = d6 + d8*(y-0.5)/x;
+      if (w<0.0 || w>=d11) continue;                  // fast rejection
+      z = (long)floor(w);
+      final double t = d10 - (lnfactorial(z) + lnfactorial(mingb-z) + lnfactorial(m-z)
+          + lnfactorial(maxgb-m+z));
+      if (x*(4.0-x)-3.0 <= t) break;                 // fast acceptance
+      if (x*(x-t) >= 1.0) continue;                   // fast rejection
+      if (2.0*log(x) <= t) break;                     // exact acceptance
+    }
+    if (good>bad) z = m-z;
+    if (m<n) z = good-z;
+    return z;
+  }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Instrumentation.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+
+/**
+ * This class contains optional instrumentation of the numerical kernels
+ * (root finding, incomplete gamma series and continued fraction,
+ * incomplete beta continued fraction,
+ * enumeration of finite and discrete distributions).
+ *
+ * Instrumentation is switched on by the system property
+ * <code>jprobdist.instrumentation=true</code> at JVM start.
+ * All call sites are guarded by <code>if (Instrumentation.ENABLED)</code>;
+ * since ENABLED is a static final field, the JIT compiler removes the
+ * guarded code completely when instrumentation is off.
+ *
+ * When it is on, each kernel counts its calls and iterations,
+ * keeps a histogram of iteration counts in power-of-two buckets,
+ * and counts non-convergence events. The counters are exposed as one
+ * MXBean per kernel (<code>edu.udo.cs.bioinfo.jprobdist:type=Kernel,name=...</code>).
+ * In addition, each non-convergence is emitted as a JFR event,
+ * and the counters are emitted periodically as JFR events
+ * while a flight recording is running.
+ *
+ * @author Sven Rahmann
+ */
+public final class Instrumentation {
+
+  /** true iff instrumentation is switched on (system property jprobdist.instrumentation) */
+  public static final boolean ENABLED = Boolean.getBoolean("jprobdist.instrumentation");
+
+  /** the instrumented numerical kernels */
+  public static enum Kernel {
+    /** MathFunctions.findRootBisection; iterations are bisection steps */
+    ROOT_BISECTION,
+    /** MathFunctions.gammaSeries; iterations are series terms */
+    GAMMA_SERIES,
+    /** MathFunctions.gammaCF; iterations are continued fraction steps */
+    GAMMA_CF,
+    /** MathFunctions.lnBetaCFI; iterations are continued fraction steps */
+    BETA_CF,
+    /** enumeration of the atoms of a FiniteDistribution; iterations are atoms */
+    FINITE_ENUMERATION,
+    /** DiscreteDistribution.E(h); iterations are atoms */
+    DISCRETE_EXPECTATION,
+    /** the moment engine of DiscreteDistribution; iterations are atoms */
+    DISCRETE_MOMENTS,
+  }
+
+  /** number of histogram buckets: bucket b counts iteration numbers in [2^(b-1), 2^b) */
+  public static final int BUCKETS = 33;
+
+  private static final KernelStatistics[] STATS = new KernelStatistics[Kernel.values().length];
+
+  static {
+    for (Kernel k : Kernel.values()) STATS[k.ordinal()] = new KernelStatistics(k);
+    if (ENABLED) {
+      register();
+      FlightRecorder.addPeriodicEvent(KernelStatisticsEvent.class, new Runnable() {
+        public void run() {
+          for (KernelStatistics s : STATS) {
+            final KernelStatisticsEvent e = new KernelStatisticsEvent();
+            e.kernel = s.kernel.name();
+            e.calls = s.getCalls();
+            e.iterations = s.getIterations();
+            e.nonConvergences = s.getNonConvergences();
+            e.commit();
+          }
+        }
+      });
+    }
+  }
+
+  private Instrumentation() { }
+
+  private static void register() {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (KernelStatistics s : STATS) {
+      try {
+        final ObjectName name = new ObjectName(
+            "edu.udo.cs.bioinfo.jprobdist:type=Kernel,name="+s.kernel.name());
+        if (!server.isRegistered(name)) server.registerMBean(s, name);
+      } catch (JMException e) {
+        // instrumentation must never break a computation; skip this bean
+      }
+    }
+  }
+
+
+  // =================================================================
+  // recording (call only when ENABLED)
+
+  /** records one call of kernel k that took the given number of iterations */
+  static void record(final Kernel k, final long iterations) {
+    STATS[k.ordinal()].record(iterations);
+  }
+
+  /** records that kernel k did not converge within the given number of iterations
+   * for the parameters a and x (whose meaning depends on the kernel) */
+  static void nonConvergence(final Kernel k, final long iterations, final double a, final double x) {
+    STATS[k.ordinal()].nonConverged.increment();
+    final NonConvergenceEvent e = new NonConvergenceEvent();
+    if (e.isEnabled()) {
+      e.kernel = k.name();
+      e.iterations = iterations;
+      e.a = a;
+      e.x = x;
+      e.commit();
+    }
+  }
+
+  /** returns the statistics of kernel k */
+  public static KernelStatisticsMXBean statistics(final Kernel k) {
+    return STATS[k.ordinal()];
+  }
+
+
+  // =================================================================
+  // statistics and their management interface
+
+  /** management interface of the statistics of one kernel */
+  public static interface KernelStatisticsMXBean {
+    /** number of calls */
+    public long getCalls();
+    /** total number of iterations over all calls */
+    public long getIterations();
+    /** average number of iterations per call */
+    public double getMeanIterations();
+    /** number of calls that did not converge */
+    public long getNonConvergences();
+    /** histogram of iteration counts: entry b counts calls with
+     * 2^(b-1) &lt;= iterations &lt; 2^b (entry 0: zero iterations) */
+    public long[] getIterationHistogram();
+    /** resets all counters to zero */
+    public void reset();
+  }
+
+  private static final class KernelStatistics implements KernelStatisticsMXBean {
+    final Kernel kernel;
+    final LongAdder calls = new LongAdder();
+    final LongAdder iterations = new LongAdder();
+    final LongAdder nonConverged = new LongAdder();
+    final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    KernelStatistics(final Kernel kernel) {
+      this.kernel = kernel;
+    }
+
+    void record(final long it) {
+      calls.increment();
+      iterations.add(it);
+      final int b = 64-Long.numberOfLeadingZeros(it);
+      histogram.incrementAndGet((b<BUCKETS)? b : BUCKETS-1);
+    }
+
+    public long getCalls() {
+      return calls.sum();
+    }
+
+    public long getIterations() {
+      return iterations.sum();
+    }
+
+    public double getMeanIterations() {
+      final long c = calls.sum();
+      return (c==0)? 0.0 : (double)iterations.sum()/c;
+    }
+
+    public long getNonConvergences() {
+      return nonConverged.sum();
+    }
+
+    public long[] getIterationHistogram() {
+      final long[] h = new long[BUCKETS];
+      for(int b=0; b<BUCKETS; b++) h[b] = histogram.get(b);
+      return h;
+    }
+
+    public void reset() {
+      calls.reset();
+      iterations.reset();
+      nonConverged.reset();
+      for(int b=0; b<BUCKETS; b++) histogram.set(b, 0L);
+    }
+  }
+
+
+  // =================================================================
+  // JFR events
+
+  /** JFR event: a numerical kernel did not converge */
+  @Name("edu.udo.cs.bioinfo.jprobdist.NonConvergence")
+  @Label("Kernel Non-Convergence")
+  @Category("jprobdist")
+  @Description("A numerical kernel reached its iteration limit without converging")
+  public static final class NonConvergenceEvent extends Event {
+    @Label("Kernel") String kernel;
+    @Label("Iterations") long iterations;
+    @Label("Parameter a") double a;
+    @Label("Argument x") double x;
+  }
+
+  /** JFR event: periodic snapshot of the counters of one kernel */
+  @Name("edu.udo.cs.bioinfo.jprobdist.KernelStatistics")
+  @Label("Kernel Statistics")
+  @Category("jprobdist")
+  @Period("1 s")
+  public static final class KernelStatisticsEvent extends Event {
+    @Label("Kernel") String kernel;
+    @Label("Calls") long calls;
+    @Label("Iterations") long iterations;
+    @Label("Non-Convergences") long nonConvergences;
+  }
+
+}
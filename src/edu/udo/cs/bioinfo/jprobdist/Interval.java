@@ -72,24 +72,37 @@ public class Interval {
    */
   public Interval getContainedEpsInterval(final double eps) {
     if (eps==0) return this;
-    double f = eps*ceil(this.a/eps);
-    double l = eps*floor(this.b/eps);
-    switch(this.type) {
-      case Open:
-        if (f==this.a) f+=eps;
-      case ClosedOpen:
-        if (l==this.b) f-=eps;
-      case Closed:
-        break;
-      case OpenClosed:
-        if (f==this.a) f+=eps;
-        break;
-      default:
-        f = Double.NaN;
-        l = Double.NaN;
-        break;
-    }
-    return new Interval(f,l, (this.type!=type.NaN? Type.Closed: Type.NaN));
+    final double f = firstEpsPoint(this.a, this.type, eps);
+    final double l = lastEpsPoint(this.b, this.type, eps);
+    return new Interval(f,l, (this.type!=Type.NaN? Type.Closed: Type.NaN));
+  }
+  
+  /** returns the smallest multiple of eps that lies in an interval
+   * with left boundary a and type t (without creating the interval).
+   *@param a  left boundary
+   *@param t  interval type
+   *@param eps  the granularity (e.g., 1.0 for integer intervals), eps&gt;0
+   *@return the smallest contained multiple of eps, or NaN for a NaN interval
+   */
+  public static double firstEpsPoint(final double a, final Type t, final double eps) {
+    if (t==Type.NaN || Double.isNaN(a)) return Double.NaN;
+    double f = eps*ceil(a/eps);
+    if (f==a && (t==Type.Open || t==Type.OpenClosed)) f+=eps;
+    return f;
+  }
+  
+  /** returns the largest multiple of eps that lies in an interval
+   * with right boundary b and type t (without creating the interval).
+   *@param b  right boundary
+   *@param t  interval type
+   *@param eps  the granularity (e.g., 1.0 for integer intervals), eps&gt;0
+   *@return the largest contained multiple of eps, or NaN for a NaN interval
+   */
+  public static double lastEpsPoint(final double b, final Type t, final double eps) {
+    if (t==Type.NaN || Double.isNaN(b)) return Double.NaN;
+    double l = eps*floor(b/eps);
+    if (l==b && (t==Type.Open || t==Type.ClosedOpen)) l-=eps;
+    return l;
   }
 
   
@@ -0,0 +1,70 @@
+/*
+ * JointSampler.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+/**
+ * This class draws joint samples from several independent univariate
+ * distributions, e.g., for Monte Carlo estimates of the probability that
+ * a function of several random variables exceeds a threshold.
+ * Sample i consists of the values x[0][i], ..., x[d-1][i], where x[j]
+ * is drawn from the j-th distribution; the coordinates are stored by
+ * distribution, so each of them is computed by one call to the batch qf.
+ *
+ * With SamplingMode.STRATIFIED, each coordinate is stratified separately
+ * and the strata are combined by independent random permutations
+ * (Latin hypercube sampling; McKay, Beckman and Conover, 1979).
+ * With SamplingMode.SOBOL, the uniform numbers are the points of a
+ * randomly shifted d-dimensional Sobol sequence (d &lt;= 16).
+ *
+ * @author Sven Rahmann
+ */
+public final class JointSampler {
+
+  private JointSampler() { }
+
+  /** draws n joint samples from the given independent distributions.
+   *@param d  the distributions
+   *@param n  the number of samples
+   *@param mode  IID, STRATIFIED (Latin hypercube) or SOBOL
+   *@return x with x[j][i] the j-th coordinate of the i-th sample
+   */
+  public static double[][] random(final UVDistribution[] d, final int n, final SamplingMode mode) {
+    if (n<0) throw new IllegalArgumentException("n must be nonnegative");
+    final int dim = d.length;
+    final double[][] x = new double[dim][];
+    switch (mode) {
+      case IID:
+        for(int j=0; j<dim; j++) x[j] = d[j].random(n);
+        break;
+      case STRATIFIED:
+        for(int j=0; j<dim; j++) {
+          x[j] = new double[n];
+          Samplers.uniforms(SamplingMode.STRATIFIED, x[j]);
+        }
+        break;
+      case SOBOL:
+        if (dim>SobolSequence.MAX_DIMENSION)
+          throw new IllegalArgumentException("SOBOL supports at most "+SobolSequence.MAX_DIMENSION+" distributions");
+        for(int j=0; j<dim; j++) x[j] = new double[n];
+        if (dim==0) break;
+        final SobolSequence s = new SobolSequence(dim, true);
+        final double[] pt = new double[dim];
+        for(int i=0; i<n; i++) {
+          s.next(pt);
+          for(int j=0; j<dim; j++) x[j][i] = pt[j];
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("unknown sampling mode "+mode);
+    }
+    if (mode!=SamplingMode.IID)
+      for(int j=0; j<dim; j++) d[j].qf(x[j], x[j]);
+    return x;
+  }
+
+}
@@ -6,6 +6,7 @@
  */
 
 package edu.udo.cs.bioinfo.jprobdist;
+import java.nio.DoubleBuffer;
 import static java.lang.Math.*;
 
 /**
@@ -64,11 +65,29 @@ public final class MathFunctions {
   }
   
   
+  /** an optional external table of ln(i!), see setLnfactorialTable */
+  private static volatile DoubleBuffer lnfactorialBuffer = null;
+  
+  /** installs an external table with t.get(i) = ln(i!) for 0 &lt;= i &lt; t.limit(),
+   * which lnfactorial then uses for integer arguments.
+   * The buffer is used directly, without copying; typically it is a
+   * read-only memory-mapped file (see TableIO.mapLnfactorialTable),
+   * so several JVMs can share one page-cached copy.
+   * The buffer must not be modified afterwards.
+   *@param t  the table, or null to remove a previously installed table
+   */
+  public static void setLnfactorialTable(final DoubleBuffer t) {
+    lnfactorialBuffer = (t==null)? null : t.duplicate();
+  }
+  
   /** returns ln(x!), i.e. the logarithm of x factorial, for x &gt; -1 */
   public static final
       double lnfactorial(final double x) {
     if(x<=-1.0) throw new IllegalArgumentException("lnfactorial: Argument "+x+" > -1 required");
-    if(x!=round(x) || x>100) return(lngamma(x+1));
+    if(x!=round(x)) return(lngamma(x+1));
+    final DoubleBuffer t = lnfactorialBuffer;
+    if(t!=null && x<t.limit()) return t.get((int)x);
+    if(x>100) return(lngamma(x+1));
     // x is an integer in {0, 1, ..., 100}
     if(x<=1.0) return 0.0;
     final int xi = (int)x;
@@ -115,8 +134,20 @@ public final class MathFunctions {
   public static final 
       double gammaP(final double a, final double x) {
     if (x<0.0 || a<=0.0) throw new IllegalArgumentException("a>0 and x>=0 required");
-    if (x < a+1.0) return gammaSeries(a,x)[0];
-    else           return 1.0 - gammaCF(a,x)[0];
+    if (x < a+1.0) return gammaSeriesP(a,x,lngamma(a));
+    else           return 1.0 - gammaCFQ(a,x,lngamma(a));
+  }
+
+  /** returns ln P(a,x), the logarithm of the incomplete Gamma function.
+   *  In contrast to log(gammaP(a,x)), this remains finite and accurate
+   *  far beyond the point where gammaP(a,x) underflows,
+   *  since the series is evaluated in log space.
+   */
+  public static final 
+      double lngammaP(final double a, final double x) {
+    if (x<0.0 || a<=0.0) throw new IllegalArgumentException("a>0 and x>=0 required");
+    if (x < a+1.0) return lnGammaSeriesP(a,x,lngamma(a));
+    else           return log1p(-gammaCFQ(a,x,lngamma(a)));
   }
 
   /** returns the incomplete Gamma function Q(a,x).
@@ -125,12 +156,75 @@ public final class MathFunctions {
   public static final 
       double gammaQ(final double a, final double x) {
     if (x<0.0 || a<=0.0) throw new IllegalArgumentException("a>0 and x>=0 required");
-    if (x < a+1.0) return 1.0 - gammaSeries(a,x)[0];
-    else           return gammaCF(a,x)[0];
+    if (x < a+1.0) return 1.0 - gammaSeriesP(a,x,lngamma(a));
+    else           return gammaCFQ(a,x,lngamma(a));
   }
-  
+
+  /** returns ln Q(a,x), the logarithm of the upper incomplete Gamma function.
+   *  In contrast to log(gammaQ(a,x)), this remains finite and accurate
+   *  far beyond the point where gammaQ(a,x) underflows,
+   *  since the continued fraction is evaluated in log space.
+   */
+  public static final 
+      double lngammaQ(final double a, final double x) {
+    if (x<0.0 || a<=0.0) throw new IllegalArgumentException("a>0 and x>=0 required");
+    if (x < a+1.0) return log1p(-gammaSeriesP(a,x,lngamma(a)));
+    else           return lnGammaCFQ(a,x,lngamma(a));
+  }
+
+  /** returns the incomplete Gamma function P(a,x) at the given accuracy;
+   *  see AccuracyPolicy.
+   */
+  public static final
+      double gammaP(final double a, final double x, final AccuracyPolicy acc) {
+    if (x<0.0 || a<=0.0) throw new IllegalArgumentException("a>0 and x>=0 required");
+    if (acc.approximate) {
+      final double w = gammaWilsonHilferty(a, x, false, acc.tol);
+      if (!Double.isNaN(w)) return w;
+    }
+    if (x < a+1.0) return exp(lnGammaSeriesP(a,x,lngamma(a),acc.tol));
+    else           return 1.0 - exp(lnGammaCFQ(a,x,lngamma(a),acc.tol));
+  }
+
+  /** returns the incomplete Gamma function Q(a,x) at the given accuracy;
+   *  see AccuracyPolicy.
+   */
+  public static final
+      double gammaQ(final double a, final double x, final AccuracyPolicy acc) {
+    if (x<0.0 || a<=0.0) throw new IllegalArgumentException("a>0 and x>=0 required");
+    if (acc.approximate) {
+      final double w = gammaWilsonHilferty(a, x, true, acc.tol);
+      if (!Double.isNaN(w)) return w;
+    }
+    if (x < a+1.0) return 1.0 - exp(lnGammaSeriesP(a,x,lngamma(a),acc.tol));
+    else           return exp(lnGammaCFQ(a,x,lngamma(a),acc.tol));
+  }
+
+  /** below this shape, the Wilson-Hilferty approximation is never used */
+  private static final double WH_MIN_SHAPE = 100;
+  /** the absolute error of the Wilson-Hilferty approximation is below WH_ERR/a */
+  private static final double WH_ERR = 6E-3;
+  /** lngamma(0.5) = ln(sqrt(pi)) */
+  private static final double LN_SQRT_PI = 0.572364942924700087071713675677;
+
+  /** the Wilson-Hilferty approximation of P(a,x) (or of Q(a,x), if upper):
+   * (x/a)^(1/3) is approximately normal with mean 1-1/(9a) and variance 1/(9a).
+   * Returns NaN if its error bound exceeds tol times the smaller tail probability.
+   */
+  private static double gammaWilsonHilferty(final double a, final double x,
+      final boolean upper, final double tol) {
+    if (a<WH_MIN_SHAPE) return Double.NaN;
+    final double z = (cbrt(x/a) - 1.0 + 1.0/(9*a)) * 3*sqrt(a);
+    // the smaller normal tail Phi(-|z|) = Q(1/2, z^2/2)/2, to full precision,
+    // which is cheap for shape 1/2
+    final double t = 0.5*z*z;
+    final double tail = 0.5*((t < 1.5)? 1.0 - exp(lnGammaSeriesP(0.5,t,LN_SQRT_PI))
+                                      : exp(lnGammaCFQ(0.5,t,LN_SQRT_PI)));
+    if (WH_ERR/a > tol*tail) return Double.NaN;
+    return (upper==(z>0))? tail : 1.0-tail;
+  }
+
   /** computes the incomplete gamma function gammaP(a,x) via series representation.
-   *  via continued fractions representation.
    * Use this function when x <= a+1.
    *@param a the 'shape parameter'
    *@param x
@@ -139,10 +233,41 @@ public final class MathFunctions {
    */
   public static final
       double[] gammaSeries(final double a, final double x) {
-    final double ITMAX = 200; // max number of iterations
     final double gln = lngamma(a);
+    return new double[] {gammaSeriesP(a,x,gln), gln};
+  }
+
+  /** computes the upper incomplete gamma function gammaQ(a,x) 
+   *  via continued fractions representation.
+   * Use this function when x >= a+1.
+   *@param a the 'shape parameter'
+   *@param x
+   *@return a double array gammaCF with gammaCF[0]==gammaQ(a,x) and
+   * gammaCF[1] = lngamma(a)
+   */
+  public static final
+      double[] gammaCF(final double a, final double x) {
+    final double gln = lngamma(a);
+    return new double[] {gammaCFQ(a,x,gln), gln};
+  }
+  
+  /** series for gammaP(a,x), given gln = lngamma(a); does not allocate */
+  static double gammaSeriesP(final double a, final double x, final double gln) {
+    return exp(lnGammaSeriesP(a,x,gln));
+  }
+
+  /** series for ln gammaP(a,x), given gln = lngamma(a); does not allocate.
+   * Near x=a, the terms decay like exp(-n^2/(2a)), so the iteration limit
+   * grows like sqrt(a). */
+  static double lnGammaSeriesP(final double a, final double x, final double gln) {
+    return lnGammaSeriesP(a, x, gln, DBL_TOL);
+  }
+
+  /** as lnGammaSeriesP(a,x,gln), stopping when the remainder is below tol*sum */
+  static double lnGammaSeriesP(final double a, final double x, final double gln, final double tol) {
+    final double ITMAX = 200 + 16*sqrt(a); // max number of iterations
     if (x<=0.0) {
-      if (x==0.0) return new double[] {0.0, gln};
+      if (x==0.0) return Double.NEGATIVE_INFINITY;
       throw new IllegalArgumentException("x >=0 required");
     }
     // now x>0, a>0; otherwise we would have been kicked out
@@ -153,31 +278,37 @@ public final class MathFunctions {
       ++ap;
       del *= x/ap;
       sum += del;
-      if(abs(del)<abs(sum)*DBL_TOL) {
-        return new double[] {sum*exp(-x+a*log(x)-gln), gln};
+      // the ratios of later terms are below r=x/(ap+1)<1, so the remainder
+      // is below del*r/(1-r); for large a, r is close to 1 near x=a
+      if(abs(del)*x<abs(sum)*tol*(ap+1.0-x)) {
+        if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.GAMMA_SERIES, n);
+        return log(sum) + lnGammaPrefactor(a,x,gln);
       }
     }
+    if (Instrumentation.ENABLED)
+      Instrumentation.nonConvergence(Instrumentation.Kernel.GAMMA_SERIES, (long)ITMAX, a, x);
     throw new RuntimeException("a too large, ITMAX too small");
   }
 
-  /** computes the upper incomplete gamma function gammaQ(a,x) 
-   *  via continued fractions representation.
-   * Use this function when x >= a+1.
-   *@param a the 'shape parameter'
-   *@param x
-   *@return a double array gammaCF with gammaCF[0]==gammaQ(a,x) and
-   * gammaCF[1] = lngamma(a)
-   */
-  public static final
-      double[] gammaCF(final double a, final double x) {
-    final double ITMAX = 200; // max number of iterations
-    final double gln = lngamma(a);
+  /** continued fraction for gammaQ(a,x), given gln = lngamma(a); does not allocate */
+  static double gammaCFQ(final double a, final double x, final double gln) {
+    return exp(lnGammaCFQ(a,x,gln));
+  }
+
+  /** continued fraction for ln gammaQ(a,x), given gln = lngamma(a); does not allocate */
+  static double lnGammaCFQ(final double a, final double x, final double gln) {
+    return lnGammaCFQ(a, x, gln, DBL_TOL);
+  }
+
+  /** as lnGammaCFQ(a,x,gln), stopping at relative accuracy tol */
+  static double lnGammaCFQ(final double a, final double x, final double gln, final double tol) {
+    final double ITMAX = 200 + 16*sqrt(a); // max number of iterations
     double b = x+1.0-a;
     double c = 1.0/DBL_MIN_NORMAL;
     double d = 1.0/b;
     double h = d;
     int i;
-    for(i=0; i<=ITMAX; i++) {
+    for(i=1; i<=ITMAX; i++) {
       final double an = -i*(i-a);
       b += 2.0;
       d = an*d+b;  if (abs(d)<DBL_MIN_NORMAL) d = DBL_MIN_NORMAL;
@@ -185,19 +316,244 @@ public final class MathFunctions {
       d = 1.0/d;
       final double del = d*c;
       h *= del;
-      if (abs(del-1.0)<2*DBL_TOL) break;
+      if (abs(del-1.0)<2*tol) break;
     }
-    if (i>ITMAX) throw new RuntimeException("a too large; ITMAX too small");
-    return new double[] { exp(-x+a*log(x)-gln)*h, gln };
+    if (i>ITMAX) {
+      if (Instrumentation.ENABLED)
+        Instrumentation.nonConvergence(Instrumentation.Kernel.GAMMA_CF, (long)ITMAX, a, x);
+      throw new RuntimeException("a too large; ITMAX too small");
+    }
+    if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.GAMMA_CF, i);
+    return lnGammaPrefactor(a,x,gln) + log(h);
+  }
+
+  /** returns -x + a*ln(x) - lngamma(a), the log-prefactor of the incomplete
+   * gamma functions, given gln = lngamma(a).
+   * For large a, the three terms are huge and nearly cancel near x=a;
+   * then the Stirling form a*(ln(x/a) - (x-a)/a) + ln(a)/2 - ln(sqrt(2 pi))
+   * - lgammacor(a) is used instead, whose first term is small near x=a.
+   */
+  static double lnGammaPrefactor(final double a, final double x, final double gln) {
+    if (a<10) return -x+a*log(x)-gln;
+    final double u = (x-a)/a;
+    final double d = (abs(u)<0.5)? log1p(u)-u : log(x/a)-u;
+    return a*d + 0.5*log(a) - LN_SQRT_2PI - lgammacor(a);
   }
 
   
-  /** returns the logarithm of the beta function at its arguments */
+  /** returns the logarithm of the beta function at its arguments.
+   * For large arguments, the Stirling terms are combined analytically
+   * (as in R's lbeta), so that no large log-gamma values cancel.
+   */
   public static final 
       double lnbeta(final double z, final double w) {
+    final double p = min(z,w), q = max(z,w);
+    if (p>=10) {
+      final double corr = lgammacor(p) + lgammacor(q) - lgammacor(p+q);
+      return -0.5*log(q) + LN_SQRT_2PI + corr + (p-0.5)*log(p/(p+q)) + q*log1p(-p/(p+q));
+    }
+    if (q>=10) {
+      final double corr = lgammacor(q) - lgammacor(p+q);
+      return lngamma(p) + corr + p - p*log(p+q) + (q-0.5)*log1p(-p/(p+q));
+    }
     return (lngamma(z)+lngamma(w)-lngamma(z+w));
   }
-  
+
+  /** ln(sqrt(2 pi)) */
+  private static final double LN_SQRT_2PI = 0.918938533204672741780329736406;
+
+  /** the remainder of Stirling's series, lngamma(x) - ((x-0.5)ln(x) - x + ln(sqrt(2 pi))),
+   * for x &gt;= 10, where the truncated asymptotic series is accurate to 1E-14 */
+  static double lgammacor(final double x) {
+    final double y = 1.0/(x*x);
+    return (1.0/12 - y*(1.0/360 - y*(1.0/1260 - y*(1.0/1680 - y*(1.0/1188 - y*(691.0/360360))))))/x;
+  }
+
+  /** stirlerr(k/2) for k = 0..30, computed to 25 digits (entry 0 is unused) */
+  private static final double[] stirlerrHalves = {
+    0.0,
+    1.5342640972002734529138e-1, 8.1061466795327258219670e-2,
+    5.4814121051917653896139e-2, 4.1340695955409294093822e-2,
+    3.3162873519936287485111e-2, 2.7677925684998339148789e-2,
+    2.3746163656297495971330e-2, 2.0790672103765093111523e-2,
+    1.8488450532673185230779e-2, 1.6644691189821192163195e-2,
+    1.5134973221917378873514e-2, 1.3876128823070747998746e-2,
+    1.2810465242920226924251e-2, 1.1896709945891770095056e-2,
+    1.1104559758206917326631e-2, 1.0411265261972096497479e-2,
+    9.7994161261588032983904e-3, 9.2554621827127329177286e-3,
+    8.7687001341393854629550e-3, 8.3305634333628712564693e-3,
+    7.9341145643140205472496e-3, 7.5736754879518407949720e-3,
+    7.2445543013203831795462e-3, 6.9428401072095298656642e-3,
+    6.6652470327076824423562e-3, 6.4089941880042070684396e-3,
+    6.1717122630394576475346e-3, 5.9513701127588477356244e-3,
+    5.7462165130101156820261e-3, 5.5547335519628013710387e-3
+  };
+
+  /** returns the error of Stirling's approximation to n!,
+   * ln(n!) - ((n+0.5)ln(n) - n + ln(sqrt(2 pi))), for n &gt; 0.
+   * Half-integers up to 15 are looked up in a table, larger n use
+   * the asymptotic series; only other small n fall back to lngamma.
+   * See C. Loader (2000), Fast and accurate computation of binomial probabilities.
+   */
+  public static final
+      double stirlerr(final double n) {
+    if (n>15.0) return lgammacor(n);
+    final double nn = n+n;
+    if (nn==(int)nn) return stirlerrHalves[(int)nn];
+    return lngamma(n+1.0) - (n+0.5)*log(n) + n - LN_SQRT_2PI;
+  }
+
+  /** returns the deviance term x ln(x/np) + np - x, for x &gt;= 0 and np &gt; 0.
+   * Near x=np, where the three terms nearly cancel, a series
+   * in v=(x-np)/(x+np) is summed instead, which needs no logarithm.
+   * See C. Loader (2000), Fast and accurate computation of binomial probabilities.
+   */
+  public static final
+      double bd0(final double x, final double np) {
+    final double d = x-np;
+    if (abs(d) < 0.1*(x+np)) {
+      double v = d/(x+np);
+      double s = d*v;
+      double ej = 2*x*v;
+      v *= v;
+      for(int j=3; ; j+=2) {
+        ej *= v;
+        final double s1 = s + ej/j;
+        if (s1==s) return s1;
+        s = s1;
+      }
+    }
+    return x*log(x/np) - d;
+  }
+
+  /** returns the regularized incomplete beta function I_x(a,b).
+   *  This is the cdf of a Beta(a,b) distribution at x.
+   */
+  public static final
+      double betaI(final double a, final double b, final double x) {
+    return betaI(a, b, x, 1.0-x);
+  }
+
+  /** returns the regularized incomplete beta function I_x(a,b),
+   *  where y=1-x is given separately, so that no accuracy is lost
+   *  when x is close to 1.
+   */
+  public static final
+      double betaI(final double a, final double b, final double x, final double y) {
+    if (a<=0.0 || b<=0.0) throw new IllegalArgumentException("a>0 and b>0 required");
+    if (!(x>=0.0 && y>=0.0)) throw new IllegalArgumentException("x in [0,1] required");
+    if (x==0.0) return 0.0;
+    if (y==0.0) return 1.0;
+    if (x*(a+b+2.0) < a+1.0) return betaCFI(a,b,x,y);
+    else                     return 1.0 - betaCFI(b,a,y,x);
+  }
+
+  /** returns ln I_x(a,b), the logarithm of the regularized incomplete beta
+   *  function, with y=1-x given separately. In contrast to log(betaI(a,b,x,y)),
+   *  this remains finite and accurate far beyond the point where betaI underflows,
+   *  since the continued fraction is evaluated in log space.
+   */
+  public static final
+      double lnbetaI(final double a, final double b, final double x, final double y) {
+    if (a<=0.0 || b<=0.0) throw new IllegalArgumentException("a>0 and b>0 required");
+    if (!(x>=0.0 && y>=0.0)) throw new IllegalArgumentException("x in [0,1] required");
+    if (x==0.0) return Double.NEGATIVE_INFINITY;
+    if (y==0.0) return 0.0;
+    if (x*(a+b+2.0) < a+1.0) return lnBetaCFI(a,b,x,y);
+    else                     return log1p(-betaCFI(b,a,y,x));
+  }
+
+  /** returns ln(1-I_x(a,b)) = ln I_y(b,a), with y=1-x given separately;
+   *  see lnbetaI.
+   */
+  public static final
+      double lnbetaIc(final double a, final double b, final double x, final double y) {
+    return lnbetaI(b, a, y, x);
+  }
+
+  /** returns the complement 1-I_x(a,b) = I_y(b,a) of the regularized
+   *  incomplete beta function, with y=1-x given separately.
+   *  This is the ucdf of a Beta(a,b) distribution at x.
+   */
+  public static final
+      double betaIc(final double a, final double b, final double x, final double y) {
+    return betaI(b, a, y, x);
+  }
+
+  /** returns the regularized incomplete beta function I_x(a,b),
+   *  with y=1-x given separately, at the given accuracy; see AccuracyPolicy.
+   */
+  public static final
+      double betaI(final double a, final double b, final double x, final double y,
+      final AccuracyPolicy acc) {
+    if (a<=0.0 || b<=0.0) throw new IllegalArgumentException("a>0 and b>0 required");
+    if (!(x>=0.0 && y>=0.0)) throw new IllegalArgumentException("x in [0,1] required");
+    if (x==0.0) return 0.0;
+    if (y==0.0) return 1.0;
+    if (x*(a+b+2.0) < a+1.0) return exp(lnBetaCFI(a,b,x,y,acc.tol));
+    else                     return 1.0 - exp(lnBetaCFI(b,a,y,x,acc.tol));
+  }
+
+  /** returns the complement 1-I_x(a,b) = I_y(b,a), with y=1-x given
+   *  separately, at the given accuracy; see AccuracyPolicy.
+   */
+  public static final
+      double betaIc(final double a, final double b, final double x, final double y,
+      final AccuracyPolicy acc) {
+    return betaI(b, a, y, x, acc);
+  }
+
+  /** I_x(a,b) via the continued fraction; see lnBetaCFI */
+  static double betaCFI(final double a, final double b, final double x, final double y) {
+    return exp(lnBetaCFI(a,b,x,y));
+  }
+
+  /** ln I_x(a,b) via the continued fraction (modified Lentz's method).
+   * Converges quickly for x &lt; (a+1)/(a+b+2), taking O(sqrt(max(a,b)))
+   * iterations, so the iteration limit grows with the parameters.
+   * Does not allocate.
+   */
+  static double lnBetaCFI(final double a, final double b, final double x, final double y) {
+    return lnBetaCFI(a, b, x, y, DBL_TOL);
+  }
+
+  /** as lnBetaCFI(a,b,x,y), stopping at relative accuracy tol */
+  static double lnBetaCFI(final double a, final double b, final double x, final double y, final double tol) {
+    final double ITMAX = 200 + 16*sqrt(max(a,b)); // max number of iterations
+    final double qab = a+b, qap = a+1.0, qam = a-1.0;
+    double c = 1.0;
+    double d = 1.0-qab*x/qap;
+    if (abs(d)<DBL_MIN_NORMAL) d = DBL_MIN_NORMAL;
+    d = 1.0/d;
+    double h = d;
+    int m;
+    for(m=1; m<=ITMAX; m++) {
+      final int m2 = 2*m;
+      double aa = m*(b-m)*x/((qam+m2)*(a+m2));
+      d = 1.0+aa*d;  if (abs(d)<DBL_MIN_NORMAL) d = DBL_MIN_NORMAL;
+      c = 1.0+aa/c;  if (abs(c)<DBL_MIN_NORMAL) c = DBL_MIN_NORMAL;
+      d = 1.0/d;
+      h *= d*c;
+      aa = -(a+m)*(qab+m)*x/((a+m2)*(qap+m2));
+      d = 1.0+aa*d;  if (abs(d)<DBL_MIN_NORMAL) d = DBL_MIN_NORMAL;
+      c = 1.0+aa/c;  if (abs(c)<DBL_MIN_NORMAL) c = DBL_MIN_NORMAL;
+      d = 1.0/d;
+      final double del = d*c;
+      h *= del;
+      if (abs(del-1.0)<2*tol) break;
+    }
+    if (m>ITMAX) {
+      if (Instrumentation.ENABLED)
+        Instrumentation.nonConvergence(Instrumentation.Kernel.BETA_CF, (long)ITMAX, a, x);
+      throw new RuntimeException("a or b too large; ITMAX too small");
+    }
+    if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.BETA_CF, m);
+    // take the logarithm of the smaller of x, y directly; the other via log1p
+    final double lnx = (x<=0.5)? log(x) : log1p(-y);
+    final double lny = (y<=0.5)? log(y) : log1p(-x);
+    return a*lnx + b*lny - lnbeta(a,b) + log(h/a);
+  }
+
   /** returns the beta function at its arguments */
   public static final 
       double beta(final double z, final double w) {
@@ -207,6 +563,43 @@ public final class MathFunctions {
   
   
   
+  //================= STANDARD NORMAL QUANTILES ============================
+
+  private static final double[] nqa = { -3.969683028665376e+01,  2.209460984245205e+02,
+    -2.759285104469687e+02,  1.383577518672690e+02, -3.066479806614716e+01,  2.506628277459239e+00 };
+  private static final double[] nqb = { -5.447609879822406e+01,  1.615858368580409e+02,
+    -1.556989798598866e+02,  6.680131188771972e+01, -1.328068155288572e+01 };
+  private static final double[] nqc = { -7.784894002430293e-03, -3.223964580411365e-01,
+    -2.400758277161838e+00, -2.549732539343734e+00,  4.374664141464968e+00,  2.938163982698783e+00 };
+  private static final double[] nqd = {  7.784695709041462e-03,  3.224671290700398e-01,
+     2.445134137142996e+00,  3.754408661907416e+00 };
+
+  /** returns an approximation of the p-quantile of the standard normal distribution,
+   *  with a relative error below 1.2e-9 (rational approximation by P.J. Acklam).
+   *  It is mainly useful as a starting point for quantile searches.
+   *@param p  a probability in [0,1]
+   *@return z such that Phi(z) is approximately p
+   */
+  public static final double normalQuantile(final double p) {
+    if (p<=0.0) return (p==0.0)? Double.NEGATIVE_INFINITY : Double.NaN;
+    if (p>=1.0) return (p==1.0)? Double.POSITIVE_INFINITY : Double.NaN;
+    if (p<0.02425) {
+      final double q = sqrt(-2*log(p));
+      return (((((nqc[0]*q+nqc[1])*q+nqc[2])*q+nqc[3])*q+nqc[4])*q+nqc[5]) /
+          ((((nqd[0]*q+nqd[1])*q+nqd[2])*q+nqd[3])*q+1);
+    }
+    if (p>1-0.02425) {
+      final double q = sqrt(-2*log1p(-p));
+      return -(((((nqc[0]*q+nqc[1])*q+nqc[2])*q+nqc[3])*q+nqc[4])*q+nqc[5]) /
+          ((((nqd[0]*q+nqd[1])*q+nqd[2])*q+nqd[3])*q+1);
+    }
+    final double q = p-0.5;
+    final double r = q*q;
+    return (((((nqa[0]*r+nqa[1])*r+nqa[2])*r+nqa[3])*r+nqa[4])*r+nqa[5])*q /
+        (((((nqb[0]*r+nqb[1])*r+nqb[2])*r+nqb[3])*r+nqb[4])*r+1);
+  }
+  
+  
   //================= Round to Integer, return as double ===================
   
   /** rounds argument x to granularity eps */
@@ -271,6 +664,100 @@ public final class MathFunctions {
   }
       
   
+  //================== CONVOLUTION ===========================================
+
+  /** below this product of lengths, convolve() uses the direct O(n*m) sum */
+  private static final long CONV_DIRECT_LIMIT = 4096;
+
+  /** returns the convolution c of two sequences a and b,
+   *  i.e., c[k] = sum_{i+j=k} a[i]*b[j], of length a.length+b.length-1.
+   *  Short sequences are convolved directly; longer ones by FFT
+   *  in O((n+m) log(n+m)) time. In the latter case, the result has an
+   *  absolute (not relative) error of a few ulps of max|c|,
+   *  so entries far below that magnitude are not accurate.
+   *@param a  first sequence
+   *@param b  second sequence
+   *@return the convolution of a and b
+   */
+  public static final
+      double[] convolve(final double[] a, final double[] b) {
+    if (a.length==0 || b.length==0) return new double[0];
+    final int n = a.length+b.length-1;
+    if ((long)a.length*b.length <= CONV_DIRECT_LIMIT || a.length<=16 || b.length<=16) {
+      final double[] c = new double[n];
+      for(int i=0; i<a.length; i++) {
+        final double ai = a[i];
+        if (ai==0.0) continue;
+        for(int j=0; j<b.length; j++) c[i+j] += ai*b[j];
+      }
+      return c;
+    }
+    int m = 1;
+    while (m<n) m <<= 1;
+    // pack both real sequences into one complex sequence z = a + i*b
+    final double[] re = new double[m];
+    final double[] im = new double[m];
+    System.arraycopy(a, 0, re, 0, a.length);
+    System.arraycopy(b, 0, im, 0, b.length);
+    fft(re, im, false);
+    // unpack A_k, B_k from Z_k and Z_{m-k}, and multiply
+    final double[] cr = new double[m];
+    final double[] ci = new double[m];
+    for(int k=0; k<m; k++) {
+      final int mk = (m-k)&(m-1);
+      final double xr=re[k],  xi=im[k];
+      final double yr=re[mk], yi=im[mk];
+      final double ar = 0.5*(xr+yr), ai = 0.5*(xi-yi);
+      final double br = 0.5*(xi+yi), bi = -0.5*(xr-yr);
+      cr[k] = ar*br - ai*bi;
+      ci[k] = ar*bi + ai*br;
+    }
+    fft(cr, ci, true);
+    final double[] c = new double[n];
+    System.arraycopy(cr, 0, c, 0, n);
+    return c;
+  }
+
+  /** in-place iterative radix-2 FFT of the complex sequence (re,im),
+   *  whose length must be a power of 2.
+   *  The inverse transform includes the factor 1/n.
+   */
+  private static void fft(final double[] re, final double[] im, final boolean inverse) {
+    final int n = re.length;
+    for(int i=1, j=0; i<n; i++) { // bit reversal permutation
+      int bit = n>>1;
+      for(; (j&bit)!=0; bit>>=1) j ^= bit;
+      j ^= bit;
+      if (i<j) {
+        double t = re[i]; re[i] = re[j]; re[j] = t;
+        t = im[i]; im[i] = im[j]; im[j] = t;
+      }
+    }
+    final int h = n>>1;
+    final double[] wr = new double[h];
+    final double[] wi = new double[h];
+    final double s = (inverse? 2.0 : -2.0)*PI/n;
+    for(int k=0; k<h; k++) { wr[k] = cos(s*k); wi[k] = sin(s*k); }
+    for(int len=2; len<=n; len<<=1) {
+      final int half = len>>1;
+      final int step = n/len;
+      for(int i=0; i<n; i+=len) {
+        for(int k=0; k<half; k++) {
+          final int u = i+k, v = u+half;
+          final double cr = wr[k*step], ci = wi[k*step];
+          final double tr = re[v]*cr - im[v]*ci;
+          final double ti = re[v]*ci + im[v]*cr;
+          re[v] = re[u]-tr;  im[v] = im[u]-ti;
+          re[u] += tr;       im[u] += ti;
+        }
+      }
+    }
+    if (inverse) {
+      for(int k=0; k<n; k++) { re[k] /= n; im[k] /= n; }
+    }
+  }
+
+
   //================== FIBONACCI NUMBERS AND STRINGS =========================
   
   /** computes n-th Fibonacci number F(n), where F(0)=F(1)=1,
@@ -369,6 +856,15 @@ public final class MathFunctions {
    * of the interval drops below xacc. Specify xacc=0.0 for maximum precision!
    */
   public static final double findRootBisection(final RealFunction f, double a, double b, final double xacc) {
+    return findRootBisection(f, a, b, xacc, 0.0);
+  }
+  
+  /** find a root of f in the interval [a,b] using bisection, as
+   * findRootBisection(f,a,b,xacc), but also return as soon as the length
+   * of the interval drops below relacc times the absolute value of its midpoint.
+   */
+  public static final double findRootBisection(final RealFunction f, double a, double b,
+      final double xacc, final double relacc) {
     double fa,fb;
     
     fa = f.valueAt(a); if(fa==0.0) return a;
@@ -377,11 +873,17 @@ public final class MathFunctions {
         String.format("f(a), f(b) must have opposite signs: [a,b]=[%f,%f], f(a)=%f, f(b)=%f", a,b,fa,fb));
     
     double x, fx, dx = b-a; 
+    int it = 0;
     do {
+      it++;
       fx = f.valueAt(x=(a+(dx*=0.5)));
-      if(dx<xacc) return x;
+      if(dx<xacc || dx<relacc*abs(x)) {
+        if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.ROOT_BISECTION, it);
+        return x;
+      }
       if (fx<0) {a=x;} else {b=x;}
     } while (!DoubleEqual(a,b));
+    if (Instrumentation.ENABLED) Instrumentation.record(Instrumentation.Kernel.ROOT_BISECTION, it);
     return (a+b)/2.0;
   }
   
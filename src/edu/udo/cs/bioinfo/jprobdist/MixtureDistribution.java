@@ -0,0 +1,476 @@
+/*
+ * MixtureDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import static java.lang.Math.*;
+
+/**
+ * This class implements a finite mixture of univariate distributions,
+ * i.e., the distribution with P = sum_j w[j]*P_j for nonnegative weights w[j]
+ * that sum to 1.
+ *
+ * Log-probabilities and log-densities are computed in a single pass over
+ * the components, using an online version of the logsum trick that
+ * rescales the running sum whenever a larger term appears.
+ * The batch versions lnP(double[],double[]) and lnf(double[],double[])
+ * call the batch kernels of the components and merge their results
+ * in the same way.
+ *
+ * Mixtures of Poisson and Binomial components can be fitted to data
+ * by the EM algorithm, see fitEM.
+ *
+ * @author Sven Rahmann
+ */
+public class MixtureDistribution extends AbstractDistribution {
+
+  /** the number of components */
+  public final int k;
+
+  /** the components */
+  private final UVDistribution[] components;
+  /** the normalized weights */
+  private final double[] w;
+  /** the logarithms of the normalized weights */
+  private final double[] lnw;
+
+  /** true iff all components are discrete */
+  private final boolean discrete;
+
+  // selectors for the component function in mix()
+  private static final int LNF=0, LNP=1, LNCDF=2, LNUCDF=3;
+
+
+  /** create a new mixture distribution.
+   * The weights are normalized to sum 1.
+   *@param weights  the nonnegative weights of the components
+   *@param components  the components
+   */
+  public MixtureDistribution(final double[] weights, final UVDistribution... components) {
+    if (weights.length!=components.length)
+      throw new DimensionMismatchException("need exactly one weight per component");
+    if (components.length==0)
+      throw new IllegalArgumentException("at least one component required");
+    double total = 0.0;
+    for(double x: weights) {
+      if (!(x>=0.0) || Double.isInfinite(x))
+        throw new IllegalArgumentException("weights must be nonnegative and finite");
+      total += x;
+    }
+    if (total<=0.0) throw new IllegalArgumentException("total weight must be positive");
+    this.k = components.length;
+    this.components = components.clone();
+    this.w = new double[k];
+    this.lnw = new double[k];
+    boolean d = true;
+    for(int j=0; j<k; j++) {
+      w[j] = weights[j]/total;
+      lnw[j] = log(w[j]);
+      d &= (components[j] instanceof DiscreteDistribution);
+    }
+    this.discrete = d;
+  }
+
+  /** returns the j-th component */
+  public final UVDistribution component(final int j) {
+    return components[j];
+  }
+
+  /** returns the (normalized) weight of the j-th component */
+  public final double weight(final int j) {
+    return w[j];
+  }
+
+
+  // =================================================================
+  // single-pass log-space mixing
+
+  /** computes ln(sum_j w[j]*g_j(x)) from the ln g_j(x) in a single pass */
+  private double mix(final int what, final double x) {
+    double m = Double.NEGATIVE_INFINITY;
+    double s = 0.0;
+    for(int j=0; j<k; j++) {
+      final UVDistribution c = components[j];
+      final double g;
+      switch(what) {
+        case LNF:   g = c.lnf(x);    break;
+        case LNP:   g = c.lnP(x);    break;
+        case LNCDF: g = c.lncdf(x);  break;
+        default:    g = c.lnucdf(x); break;
+      }
+      final double t = lnw[j]+g;
+      if (t==Double.NEGATIVE_INFINITY) continue;
+      if (t<=m) s += exp(t-m);
+      else { s = s*exp(m-t) + 1.0; m = t; }
+    }
+    return (m==Double.NEGATIVE_INFINITY || m==Double.POSITIVE_INFINITY)? m : m+log(s);
+  }
+
+  /** batch version of mix: merges the component batch results */
+  private void mix(final int what, final double[] x, final double[] out) {
+    final int n = x.length;
+    if (out.length<n) throw new DimensionMismatchException();
+    final double[] g = new double[n];
+    final double[] s = new double[n];
+    java.util.Arrays.fill(out, 0, n, Double.NEGATIVE_INFINITY); // running maximum
+    for(int j=0; j<k; j++) {
+      if (what==LNF) components[j].lnf(x, g); else components[j].lnP(x, g);
+      final double lw = lnw[j];
+      for(int i=0; i<n; i++) {
+        final double t = lw+g[i];
+        if (t==Double.NEGATIVE_INFINITY) continue;
+        final double m = out[i];
+        if (t<=m) s[i] += exp(t-m);
+        else { s[i] = s[i]*exp(m-t) + 1.0; out[i] = t; }
+      }
+    }
+    for(int i=0; i<n; i++) {
+      final double m = out[i];
+      if (m!=Double.NEGATIVE_INFINITY && m!=Double.POSITIVE_INFINITY) out[i] = m+log(s[i]);
+    }
+  }
+
+  public double lnf(final double x) {
+    return mix(LNF, x);
+  }
+
+  public double lnP(final double x) {
+    return mix(LNP, x);
+  }
+
+  public double lncdf(final double x) {
+    return mix(LNCDF, x);
+  }
+
+  public double lnucdf(final double x) {
+    return mix(LNUCDF, x);
+  }
+
+  @Override
+  public void lnf(final double[] x, final double[] out) {
+    mix(LNF, x, out);
+  }
+
+  @Override
+  public void lnP(final double[] x, final double[] out) {
+    mix(LNP, x, out);
+  }
+
+  public double lnP(final Interval ab) {
+    double m = Double.NEGATIVE_INFINITY;
+    double s = 0.0;
+    for(int j=0; j<k; j++) {
+      final double t = lnw[j]+components[j].lnP(ab);
+      if (t==Double.NEGATIVE_INFINITY) continue;
+      if (t<=m) s += exp(t-m);
+      else { s = s*exp(m-t) + 1.0; m = t; }
+    }
+    return (m==Double.NEGATIVE_INFINITY)? m : m+log(s);
+  }
+
+  @Override
+  public double P(final Interval ab) {
+    double p = 0.0;
+    for(int j=0; j<k; j++) p += w[j]*components[j].P(ab);
+    return p;
+  }
+
+  @Override
+  public double cdf(final double x) {
+    double p = 0.0;
+    for(int j=0; j<k; j++) p += w[j]*components[j].cdf(x);
+    return p;
+  }
+
+  @Override
+  public double cdf(final double x, final AccuracyPolicy acc) {
+    double p = 0.0;
+    for(int j=0; j<k; j++) p += w[j]*components[j].cdf(x, acc);
+    return p;
+  }
+
+  @Override
+  public double ucdf(final double x) {
+    double p = 0.0;
+    for(int j=0; j<k; j++) p += w[j]*components[j].ucdf(x);
+    return p;
+  }
+
+  @Override
+  public double ucdf(final double x, final AccuracyPolicy acc) {
+    double p = 0.0;
+    for(int j=0; j<k; j++) p += w[j]*components[j].ucdf(x, acc);
+    return p;
+  }
+
+
+  // =================================================================
+  // atoms, support
+
+  public boolean isAtom(final double x) {
+    for(int j=0; j<k; j++)
+      if (w[j]>0.0 && components[j].isAtom(x)) return true;
+    return false;
+  }
+
+  public double closestAtom(final double x) {
+    double best = Double.NaN;
+    for(int j=0; j<k; j++) {
+      if (w[j]==0.0) continue;
+      final double a = components[j].closestAtom(x);
+      if (Double.isNaN(a)) continue;
+      if (Double.isNaN(best) || abs(a-x)<abs(best-x)) best = a;
+    }
+    return best;
+  }
+
+  public boolean isFinite() {
+    for(int j=0; j<k; j++)
+      if (w[j]>0.0 && !components[j].isFinite()) return false;
+    return true;
+  }
+
+  public double min() {
+    double m = Double.POSITIVE_INFINITY;
+    for(int j=0; j<k; j++) if (w[j]>0.0) m = Math.min(m, components[j].min());
+    return m;
+  }
+
+  public double max() {
+    double m = Double.NEGATIVE_INFINITY;
+    for(int j=0; j<k; j++) if (w[j]>0.0) m = Math.max(m, components[j].max());
+    return m;
+  }
+
+  // the convex hull of the component supports
+  public Interval support() {
+    final double a = min(), b = max();
+    final boolean ca = !Double.isInfinite(a), cb = !Double.isInfinite(b);
+    final Interval.Type t = ca? (cb? Interval.Type.Closed : Interval.Type.ClosedOpen)
+        : (cb? Interval.Type.OpenClosed : Interval.Type.Open);
+    return new Interval(a, b, t);
+  }
+
+
+  // =================================================================
+  // moments
+
+  @Override
+  public double E() {
+    double e = 0.0;
+    for(int j=0; j<k; j++) e += w[j]*components[j].E();
+    return e;
+  }
+
+  @Override
+  public double Var() {
+    // law of total variance
+    final double e = E();
+    double v = 0.0;
+    for(int j=0; j<k; j++) {
+      final double d = components[j].E()-e;
+      v += w[j]*(components[j].Var() + d*d);
+    }
+    return v;
+  }
+
+  public double moment(final double m) {
+    double r = 0.0;
+    for(int j=0; j<k; j++) r += w[j]*components[j].moment(m);
+    return r;
+  }
+
+  /** the c-th central moment, for a nonnegative integer c.
+   * It is computed from the central moments of the components,
+   * expanding (X_j-E)^c = ((X_j-E_j) + (E_j-E))^c binomially.
+   */
+  public double cmoment(final double c) {
+    if (c<0 || c!=floor(c))
+      throw new IllegalArgumentException("cmoment(c): c must be a nonnegative integer, is "+c);
+    final int ci = (int)c;
+    final double e = E();
+    double r = 0.0;
+    for(int j=0; j<k; j++) {
+      final UVDistribution comp = components[j];
+      final double d = comp.E()-e;
+      double s = 0.0;
+      for(int i=0; i<=ci; i++) {
+        final double cm = (i==0)? 1.0 : ((i==1)? 0.0 : ((i==2)? comp.Var() : comp.cmoment(i)));
+        if (cm==0.0) continue;
+        s += MathFunctions.bincoeffR(ci,i)*cm*pow(d,ci-i);
+      }
+      r += w[j]*s;
+    }
+    return r;
+  }
+
+
+  // =================================================================
+  // quantiles and random numbers
+
+  @Override
+  public double qf(final double p) {
+    return qf(p, accuracy());
+  }
+
+  // For purely discrete mixtures, round the numerical quantile to an atom.
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    final double result = super.qf(p, acc);
+    return (!discrete || result==Double.NEGATIVE_INFINITY)? result : closestAtom(result);
+  }
+
+  // the bracketed bisection of the superclass, rounded like qf(p)
+  @Override
+  void qfAscending(final double[] p, final int m, final double[] q) {
+    super.qfAscending(p, m, q);
+    if (discrete)
+      for(int j=0; j<m; j++) if (q[j]!=Double.NEGATIVE_INFINITY) q[j] = closestAtom(q[j]);
+  }
+
+  // draw a component, then draw from that component
+  @Override
+  public double random() {
+    double u = Math.random();
+    for(int j=0; j<k-1; j++) {
+      if (u<w[j]) return components[j].random();
+      u -= w[j];
+    }
+    return components[k-1].random();
+  }
+
+
+  // =================================================================
+  // EM fitting of Poisson and Binomial mixtures
+
+  /** data points per E-step task */
+  private static final int EM_CHUNK = 1<<14;
+
+  /** Fit a mixture of Poisson and/or Binomial components to a data sample
+   * by the EM algorithm, starting from the given mixture.
+   * The Binomial components keep their number of trials n.
+   * The E-step is run in parallel over chunks of the data, each chunk
+   * producing per-component sufficient statistics (sum of responsibilities,
+   * sum of responsibility-weighted data) that are merged afterwards.
+   *@param start  the initial mixture, whose components must be
+   *  PoissonDistribution or BinomialDistribution instances
+   *@param X  the observed counts
+   *@param maxIterations  the maximal number of EM iterations
+   *@param tol  stop when the log-likelihood improves by less than tol*|log-likelihood|
+   *@return the fitted mixture
+   */
+  public static MixtureDistribution fitEM(final MixtureDistribution start, final double[] X,
+      final int maxIterations, final double tol) {
+    for(int j=0; j<start.k; j++) {
+      final UVDistribution c = start.components[j];
+      if (!(c instanceof PoissonDistribution || c instanceof BinomialDistribution))
+        throw new IllegalArgumentException("fitEM supports only Poisson and Binomial components");
+    }
+    if (X.length==0) throw new IllegalArgumentException("fitEM requires a nonempty sample");
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+    MixtureDistribution current = start;
+    double oldll = Double.NEGATIVE_INFINITY;
+    for(int it=0; it<maxIterations; it++) {
+      final EMStatistics st = pool.invoke(new EStep(current, X, 0, X.length));
+      current = current.mStep(st, X.length);
+      if (abs(st.loglik-oldll) <= tol*abs(st.loglik)) break;
+      oldll = st.loglik;
+    }
+    return current;
+  }
+
+  /** the M-step: re-estimate weights and parameters from merged statistics */
+  private MixtureDistribution mStep(final EMStatistics st, final int n) {
+    final double[] nw = new double[k];
+    final UVDistribution[] nc = new UVDistribution[k];
+    for(int j=0; j<k; j++) {
+      final double r = st.sumR[j];
+      nw[j] = r/n;
+      final double mean = (r>0.0)? st.sumRX[j]/r : components[j].E();
+      if (components[j] instanceof PoissonDistribution) {
+        nc[j] = new PoissonDistribution(mean);
+      } else {
+        final long trials = ((BinomialDistribution)components[j]).n;
+        nc[j] = new BinomialDistribution(trials, (trials==0)? 0.0 : Math.min(1.0, mean/trials));
+      }
+    }
+    return new MixtureDistribution(nw, nc);
+  }
+
+  /** per-component sufficient statistics of an E-step, mergeable across chunks */
+  private static final class EMStatistics {
+    final double[] sumR;
+    final double[] sumRX;
+    double loglik;
+
+    EMStatistics(final int k) {
+      sumR = new double[k];
+      sumRX = new double[k];
+    }
+
+    EMStatistics merge(final EMStatistics o) {
+      for(int j=0; j<sumR.length; j++) {
+        sumR[j] += o.sumR[j];
+        sumRX[j] += o.sumRX[j];
+      }
+      loglik += o.loglik;
+      return this;
+    }
+  }
+
+  /** the E-step on X[lo..hi-1], split recursively into chunks */
+  private static final class EStep extends RecursiveTask<EMStatistics> {
+    private static final long serialVersionUID = 1L;
+    private final MixtureDistribution mix;
+    private final double[] X;
+    private final int lo, hi;
+
+    EStep(final MixtureDistribution mix, final double[] X, final int lo, final int hi) {
+      this.mix = mix;
+      this.X = X;
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    protected EMStatistics compute() {
+      if (hi-lo > EM_CHUNK) {
+        final int mid = (lo+hi)>>>1;
+        final EStep left = new EStep(mix, X, lo, mid);
+        left.fork();
+        final EMStatistics right = new EStep(mix, X, mid, hi).compute();
+        return left.join().merge(right);
+      }
+      final int n = hi-lo, k = mix.k;
+      final double[] x = new double[n];
+      System.arraycopy(X, lo, x, 0, n);
+      final double[][] g = new double[k][n];
+      for(int j=0; j<k; j++) mix.components[j].lnP(x, g[j]);
+      final EMStatistics st = new EMStatistics(k);
+      for(int i=0; i<n; i++) {
+        double m = Double.NEGATIVE_INFINITY, s = 0.0;
+        for(int j=0; j<k; j++) {
+          final double t = mix.lnw[j]+g[j][i];
+          if (t==Double.NEGATIVE_INFINITY) continue;
+          if (t<=m) s += exp(t-m);
+          else { s = s*exp(m-t) + 1.0; m = t; }
+        }
+        final double total = (m==Double.NEGATIVE_INFINITY)? m : m+log(s);
+        st.loglik += total;
+        if (total==Double.NEGATIVE_INFINITY) continue;
+        for(int j=0; j<k; j++) {
+          final double r = exp(mix.lnw[j]+g[j][i]-total);
+          st.sumR[j] += r;
+          st.sumRX[j] += r*x[i];
+        }
+      }
+      return st;
+    }
+  }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * NegativeBinomialDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Iterator;
+import static java.lang.Math.*;
+
+/**
+ * This class implements the Negative Binomial distribution
+ * in the mean/dispersion parameterization that is common for
+ * overdispersed count data (e.g., RNA-seq read counts):
+ * the expectation is mu and the variance is mu + alpha*mu^2.
+ * With size r=1/alpha and success probability p=r/(r+mu),
+ * P(x) = Gamma(x+r)/(Gamma(r) x!) p^r (1-p)^x for x=0,1,2,...
+ * Equivalently, X is Poisson with a Gamma(r, mu/r) distributed mean,
+ * which is how random numbers are generated.
+ *
+ * The cdf and ucdf are computed through the regularized incomplete beta
+ * function, cdf(k) = I_p(r, k+1); this stays accurate and fast
+ * for means up to 1E7 and beyond.
+ *
+ * @author Sven Rahmann
+ */
+public class NegativeBinomialDistribution extends DiscreteDistribution
+    implements UnimodalDistribution {
+
+  /** the expectation */
+  public final double mu;
+  /** the dispersion; the variance is mu + alpha*mu^2 */
+  public final double alpha;
+  /** the size parameter 1/alpha */
+  public final double r;
+  /** the success probability r/(r+mu) and its complement mu/(r+mu) */
+  private final double p, q;
+  /** their logarithms */
+  private final double lnp, lnq;
+
+  /** create a new Negative Binomial distribution with the given
+   * expectation mu&gt;=0 and dispersion alpha&gt;0.
+   */
+  public NegativeBinomialDistribution(final double mu, final double alpha) {
+    if (!(mu>=0) || Double.isInfinite(mu))
+      throw new IllegalArgumentException("Negative Binomial requires finite mu>=0");
+    if (!(alpha>0) || Double.isInfinite(alpha))
+      throw new IllegalArgumentException("Negative Binomial requires finite alpha>0");
+    this.mu = mu;
+    this.alpha = alpha;
+    this.r = 1.0/alpha;
+    this.p = r/(r+mu);
+    this.q = mu/(r+mu);
+    this.lnp = -log1p(mu*alpha);
+    this.lnq = (mu==0)? Double.NEGATIVE_INFINITY : -log1p(r/mu);
+  }
+
+  //==============================================================
+  // implement lnP(x) and P, lnP for intervals.
+
+  // Gamma(x+r)/(Gamma(r) x!) = 1/((x+r) B(r,x+1)); lnbeta avoids cancellation
+  public final double lnP(final double x) {
+    if (!isAtom(x)) return Double.NEGATIVE_INFINITY;
+    if (mu==0) return (x==0)? 0.0 : Double.NEGATIVE_INFINITY;
+    if (x==0) return r*lnp;
+    return -log(x+r) - MathFunctions.lnbeta(r, x+1) + r*lnp + x*lnq;
+  }
+
+  public final double P(final Interval ab) {
+    return exp(lnP(ab.a, ab.b, ab.type));
+  }
+
+  public final double lnP(final Interval ab) {
+    return lnP(ab.a, ab.b, ab.type);
+  }
+
+  public final double P(final double a, final double b, final Interval.Type t) {
+    return exp(lnP(a, b, t));
+  }
+
+  // sum the atoms in the interval outward from the one closest to the mode
+  public final double lnP(final double a, final double b, final Interval.Type t) {
+    final double first = Interval.firstEpsPoint(a, t, 1.0);
+    final double last  = Interval.lastEpsPoint(b, t, 1.0);
+    final double f = (first<=0)? 0 : first;
+    if (!(last>=f)) return Double.NEGATIVE_INFINITY;   // also catches NaN
+    if (mu==0) return (f==0)? 0.0 : Double.NEGATIVE_INFINITY;
+    return lnPUnimodalRun(f, last, mode());
+  }
+
+  final double pRatio(final double k) {
+    return (k+r)/(k+1)*q;
+  }
+
+
+  // =============================================================
+  // cdf and ucdf through the regularized incomplete beta function
+
+  public final double cdf(final double x) {
+    return cdf(x, accuracy());
+  }
+
+  @Override
+  public final double cdf(final double x, final AccuracyPolicy acc) {
+    if (Double.isNaN(x)) return x;
+    if (x<0) return 0.0;
+    if (mu==0 || x==Double.POSITIVE_INFINITY) return 1.0;
+    return MathFunctions.betaI(r, floor(x)+1, p, q, acc);
+  }
+
+  public final double lncdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<0) return Double.NEGATIVE_INFINITY;
+    if (mu==0 || x==Double.POSITIVE_INFINITY) return 0.0;
+    return MathFunctions.lnbetaI(r, floor(x)+1, p, q);
+  }
+
+  public final double ucdf(final double x) {
+    return ucdf(x, accuracy());
+  }
+
+  @Override
+  public final double ucdf(final double x, final AccuracyPolicy acc) {
+    // P(X>=x) = P(X>=k) for k=ceil(x), which is 1-I_p(r,k)
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 1.0;
+    if (mu==0 || x==Double.POSITIVE_INFINITY) return 0.0;
+    return MathFunctions.betaIc(r, ceil(x), p, q, acc);
+  }
+
+  public final double lnucdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    if (x<=0) return 0.0;
+    if (mu==0 || x==Double.POSITIVE_INFINITY) return Double.NEGATIVE_INFINITY;
+    return MathFunctions.lnbetaIc(r, ceil(x), p, q);
+  }
+
+  public final double qf(final double pp) {
+    return qf(pp, accuracy());
+  }
+
+  // Cornish-Fisher starting point, then bracketing and a discrete search
+  @Override
+  public final double qf(final double pp, final AccuracyPolicy acc) {
+    if (pp<0 || pp>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(pp));
+    if (pp==0.0) return Double.NEGATIVE_INFINITY;
+    if (pp==1.0 || mu==0) return max();
+    final double s = std();
+    final double z = MathFunctions.normalQuantile(pp);
+    return qfBracketSearch(pp, mu + z*s + skewness()*s*(z*z-1)/6.0, 1.0+0.1*s, acc);
+  }
+
+  /** a random number, generated as a Poisson number with a Gamma distributed mean */
+  public double random() {
+    if (mu==0) return 0.0;
+    return Samplers.poisson(Samplers.gamma(r) * (mu/r));
+  }
+
+
+  // =============================================================
+  // implement special moments.
+
+  public final double E() {
+    return mu;
+  }
+
+  public final double Var() {
+    return mu + alpha*mu*mu;
+  }
+
+  public final double skewness() {
+    return (1+q)/sqrt(r*q);
+  }
+
+  public final double kurtosisExcess() {
+    return 6.0/r + p*p/(r*q);
+  }
+
+  // ============================================================
+  // implement simple stuff
+  public final double max() {
+    return (mu==0)? 0 : Double.POSITIVE_INFINITY;
+  }
+
+  public final double min() {
+    return 0.0;
+  }
+
+  public final Interval support() {
+    return (mu==0)? Interval.TheZeroInterval : Interval.TheNonnegativeReals;
+  }
+
+  public final boolean isFinite() {
+    return (mu==0);
+  }
+
+  public boolean isAtom(final double x) {
+    return (x>=0 && x==MathFunctions.xround(x));
+  }
+
+  public final double closestAtom(final double x) {
+    if (x<=0) return 0;
+    return (MathFunctions.xround(x));
+  }
+
+  // ================================================================
+  // implement mode functions
+  // the mode is floor((r-1)*mu/r) for r>1, else 0.
+  // If (r-1)*mu/r is a positive integer, it is also a mode.
+  // mode() is supposed to return the smallest mode.
+  public final double mode() {
+    if (r<=1 || mu==0) return 0;
+    final double m = (r-1)*q/p;
+    if (MathFunctions.xround(m)==m && m>0) return m-1;
+    return floor(m);
+  }
+
+  public final Interval modeInterval() {
+    final double m = mode();
+    if (r>1 && mu>0 && MathFunctions.xround((r-1)*q/p)==(r-1)*q/p)
+      return new Interval(m, m+1);
+    return new Interval(m);
+  }
+
+
+  // ===================================================================
+  // implement atom iterators: 0, 1, 2, ... ad "infinitum"
+  public Iterator<Double> iterator() {
+    return new DiscreteDistribution.LatticeIterator((mu==0)? 0 : Long.MAX_VALUE, 0.0, 1.0);
+  }
+
+  // iterate over integers in interval ab.
+  public Iterator<Double> iterator(Interval ab) {
+    final Interval fl = ab.getContainedEpsInterval(1.0);
+    final long first = (fl.a<=0)? 0 : (long)fl.a;
+    final long last  = (mu==0)? 0 : (long)fl.b;
+    return new LatticeIterator(last-first, first, 1.0);
+  }
+
+  // =============================================================
+  // equality of mu and alpha; r, p and q are derived from them
+
+  @Override
+  public boolean equals(final Object o) {
+    if (o==null || o.getClass()!=getClass()) return false;
+    final NegativeBinomialDistribution d = (NegativeBinomialDistribution)o;
+    return Double.compare(mu, d.mu)==0 && Double.compare(alpha, d.alpha)==0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Double.hashCode(mu)*31 + Double.hashCode(alpha);
+  }
+}
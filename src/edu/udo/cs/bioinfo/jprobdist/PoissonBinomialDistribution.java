@@ -0,0 +1,110 @@
+/*
+ * PoissonBinomialDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+/**
+ * This class implements the Poisson-Binomial distribution, i.e.,
+ * the distribution of the number of successes in n independent trials,
+ * where trial i has its own success probability p[i].
+ * If all p[i] are equal, this is the Binomial distribution.
+ *
+ * The probability mass function is computed once, at construction time,
+ * as the coefficients of the polynomial prod_i (q[i] + p[i]*z).
+ * The product is formed by divide and conquer: small blocks of factors are
+ * multiplied out directly (O(n^2)), and the partial products are combined
+ * by FFT convolution (see MathFunctions.convolve), for O(n log^2 n) time
+ * in total. Trials with p[i]=0 or p[i]=1 only shift the distribution and
+ * are handled separately.
+ * Note that, as for any FFT method, probabilities far below 1e-15 times
+ * the largest one are not accurate; they are clipped at zero when negative.
+ *
+ * All queries (cdf, ucdf, qf, random) are then answered
+ * from the table in O(1) or O(log n) time.
+ *
+ * @author Sven Rahmann
+ */
+public class PoissonBinomialDistribution extends TabulatedFiniteDistribution {
+
+  /** the number of trials */
+  public final int n;
+
+  /** the success probabilities */
+  private final double[] p;
+
+  /** number of factors that are multiplied out directly */
+  private static final int DIRECT_BLOCK = 64;
+
+  /**
+   * Generates a new Poisson-Binomial distribution.
+   * @param p The success probabilities of the individual trials (each in [0,1])
+   */
+  public PoissonBinomialDistribution(final double... p) {
+    super(latticeAtoms(0.0, p.length+1), pmf(p), true);
+    this.n = p.length;
+    this.p = p.clone();
+  }
+
+  /** returns a copy of the success probabilities of the trials */
+  public final double[] getSuccessProbabilities() {
+    return p.clone();
+  }
+
+  @Override
+  public double E() {
+    double e = 0.0;
+    for(double pi: p) e += pi;
+    return e;
+  }
+
+  @Override
+  public double Var() {
+    double v = 0.0;
+    for(double pi: p) v += pi*(1.0-pi);
+    return v;
+  }
+
+
+  // =================================================================
+  // computation of the probability mass function
+
+  /** computes the pmf on 0..p.length */
+  private static double[] pmf(final double[] p) {
+    final int n = p.length;
+    final double[] q = new double[n];
+    int ones = 0, m = 0;
+    for(int i=0; i<n; i++) {
+      if (!(p[i]>=0.0 && p[i]<=1.0))
+        throw new IllegalArgumentException("all success probabilities must be in [0,1]");
+      if (p[i]==1.0) ones++;
+      else if (p[i]>0.0) q[m++] = p[i];
+    }
+    final double[] core = product(q, 0, m);
+    final double[] result = new double[n+1];
+    for(int k=0; k<core.length; k++) result[ones+k] = (core[k]>0.0)? core[k] : 0.0;
+    return result;
+  }
+
+  /** coefficients of prod_{i=lo}^{hi-1} ((1-p[i]) + p[i]*z) */
+  private static double[] product(final double[] p, final int lo, final int hi) {
+    if (hi-lo<=DIRECT_BLOCK) {
+      final double[] c = new double[hi-lo+1];
+      c[0] = 1.0;
+      for(int i=lo; i<hi; i++) {
+        final double pi = p[i], qi = 1.0-pi;
+        final int deg = i-lo+1;
+        c[deg] = c[deg-1]*pi;
+        for(int k=deg-1; k>0; k--) c[k] = c[k]*qi + c[k-1]*pi;
+        c[0] *= qi;
+      }
+      return c;
+    }
+    final int mid = (lo+hi)>>>1;
+    return MathFunctions.convolve(product(p, lo, mid), product(p, mid, hi));
+  }
+
+}
@@ -43,26 +43,41 @@ public class PoissonDistribution extends DiscreteDistribution
   
   public final double lnP(final double x) {
     if(!isAtom(x)) return Double.NEGATIVE_INFINITY;
-    return(-lambda + x*lnlambda - MathFunctions.lnfactorial(x));
+    if(x==0) return -lambda;
+    if(lambda==0) return Double.NEGATIVE_INFINITY;
+    // Loader's saddle-point form: no large log-factorials cancel
+    return -0.5*log(TWO_PI*x) - MathFunctions.stirlerr(x) - MathFunctions.bd0(x, lambda);
   }
+
+  /** 2 pi */
+  private static final double TWO_PI = 2*PI;
   
   
   public final double P(final Interval ab) {
-    if(ab.isEmpty) return Double.NEGATIVE_INFINITY;
-    if(ab.isPoint) return lnP(ab.a);
-    final double a = ab.a;
-    final double b = ab.b;
-    if(b-a<=10) {
-      double sum=0;
-      for(Iterator<Double> it=iterator(ab); it.hasNext(); sum+=it.next());
-      return sum;
-    }
-    if (a > lambda) return (ucdf(a)-ucdf(b)+P(b));
-    return (cdf(b)-cdf(a)+P(a));
+    return exp(lnP(ab.a, ab.b, ab.type));
   }
   
   public final double lnP(final Interval ab) {
-    return log(P(ab));
+    return lnP(ab.a, ab.b, ab.type);
+  }
+  
+  public final double P(final double a, final double b, final Interval.Type t) {
+    return exp(lnP(a, b, t));
+  }
+  
+  // sum the atoms in the interval outward from the one closest to the mode;
+  // this is accurate in both tails and stops once the rest is negligible.
+  public final double lnP(final double a, final double b, final Interval.Type t) {
+    final double first = Interval.firstEpsPoint(a, t, 1.0);
+    final double last  = Interval.lastEpsPoint(b, t, 1.0);
+    final double f = (first<=0)? 0 : first;
+    if (!(last>=f)) return Double.NEGATIVE_INFINITY;   // also catches NaN
+    if (lambda==0) return (f==0)? 0.0 : Double.NEGATIVE_INFINITY;
+    return lnPUnimodalRun(f, last, Math.floor(lambda));
+  }
+  
+  final double pRatio(final double k) {
+    return lambda/(k+1);
   }
   
   
@@ -70,22 +85,66 @@ public class PoissonDistribution extends DiscreteDistribution
   // reimplement cdf, lncdf, ucdf, lnucdf
   
   public final double cdf(final double x) {
-    if(lambda==0) return (x>=0? 1.0 : 0.0);
-    return MathFunctions.gammaQ(Math.floor(x+1), lambda);
+    return cdf(x, accuracy());
+  }
+  
+  @Override
+  public final double cdf(final double x, final AccuracyPolicy acc) {
+    if(Double.isNaN(x)) return x;
+    if(x<0) return 0.0;
+    if(lambda==0) return 1.0;
+    if(x==Double.POSITIVE_INFINITY) return 1.0;
+    return MathFunctions.gammaQ(Math.floor(x+1), lambda, acc);
   }
   
+  // the continued fraction and series are evaluated in log space,
+  // so deep tails do not underflow to log(0)
   public final double lncdf(final double x) {
-    return(log(cdf(x)));
+    if(Double.isNaN(x)) return x;
+    if(x<0) return Double.NEGATIVE_INFINITY;
+    if(lambda==0 || x==Double.POSITIVE_INFINITY) return 0.0;
+    return MathFunctions.lngammaQ(Math.floor(x+1), lambda);
   }
   
   public final double ucdf(final double x) {
-    if(lambda==0) return (x<=0? 1.0 : 0.0);
-    return MathFunctions.gammaP(Math.ceil(x+1), lambda);
-    //TODO: Check!
+    return ucdf(x, accuracy());
+  }
+  
+  @Override
+  public final double ucdf(final double x, final AccuracyPolicy acc) {
+    // P(X>=x) = P(X>=k) for k=ceil(x), which is the lower incomplete gamma P(k,lambda)
+    if(Double.isNaN(x)) return x;
+    if(x<=0) return 1.0;
+    if(lambda==0) return 0.0;
+    return MathFunctions.gammaP(Math.ceil(x), lambda, acc);
   }
   
   public final double lnucdf(final double x) {
-    return(log(ucdf(x)));
+    if(Double.isNaN(x)) return x;
+    if(x<=0) return 0.0;
+    if(lambda==0 || x==Double.POSITIVE_INFINITY) return Double.NEGATIVE_INFINITY;
+    return MathFunctions.lngammaP(Math.ceil(x), lambda);
+  }
+  
+  
+  public final double qf(final double p) {
+    return qf(p, accuracy());
+  }
+
+  // Cornish-Fisher starting point, then a discrete search (no allocation)
+  @Override
+  public final double qf(final double p, final AccuracyPolicy acc) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    if (p==0.0) return Double.NEGATIVE_INFINITY;
+    if (p==1.0 || lambda==0) return max();
+    final double z = MathFunctions.normalQuantile(p);
+    return qfLatticeSearch(p, lambda + z*sqrt(lambda) + (z*z-1)/6.0, acc);
+  }
+  
+  // multiplication method or transformed rejection (PTRS), O(1) expected time
+  public double random() {
+    return Samplers.poisson(lambda);
   }
   
   
@@ -165,6 +224,18 @@ public class PoissonDistribution extends DiscreteDistribution
     final long last  = (long)fl.b;
     return new LatticeIterator(last-first, first, 1.0);
   }
+
+  // ===================================================================
+  // equality: a Poisson distribution is determined by lambda alone
   
+  @Override
+  public boolean equals(final Object o) {
+    if (o==null || o.getClass()!=getClass()) return false;
+    return Double.compare(lambda, ((PoissonDistribution)o).lambda)==0;
+  }
   
+  @Override
+  public int hashCode() {
+    return Double.hashCode(lambda);
+  }
 }
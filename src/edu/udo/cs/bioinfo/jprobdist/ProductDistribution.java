@@ -0,0 +1,196 @@
+/*
+ * ProductDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import static java.lang.Math.*;
+
+/**
+ * This class implements the joint distribution of d independent univariate
+ * random variables, e.g., one Poisson count per sample.
+ * Densities, probabilities and (upper) cdfs are products over the coordinates,
+ * and their logarithms are sums.
+ *
+ * The batch versions lnf(double[],double[]) and lnP(double[],double[])
+ * evaluate N points, given as an N x d array in row-major order
+ * (point i is x[i*d], ..., x[i*d+d-1]). They work column by column on
+ * chunks of rows, so that each component's batch kernel runs over contiguous
+ * data, and large batches are split into chunks that run in parallel
+ * on the common ForkJoinPool.
+ *
+ * @author Sven Rahmann
+ */
+public class ProductDistribution implements Distribution {
+
+  /** the dimension */
+  public final int d;
+  /** the components */
+  private final UVDistribution[] components;
+
+  /** rows per batch task */
+  private static final int CHUNK = 1<<12;
+
+  /** create the product of the given independent distributions
+   *@param components  the distributions of the coordinates (at least one)
+   */
+  public ProductDistribution(final UVDistribution... components) {
+    if (components.length==0)
+      throw new IllegalArgumentException("at least one component required");
+    this.d = components.length;
+    this.components = components.clone();
+  }
+
+  /** returns the distribution of the j-th coordinate */
+  public final UVDistribution component(final int j) {
+    return components[j];
+  }
+
+
+  // =================================================================
+  // single points
+
+  // selectors for the component function in sum()
+  private static final int LNF=0, LNP=1, LNCDF=2, LNUCDF=3;
+
+  /** sums the component log-values, stopping at -infinity */
+  private double sum(final int what, final double[] x) {
+    if (x.length!=d) throw new DimensionMismatchException();
+    double s = 0.0;
+    for(int j=0; j<d; j++) {
+      final UVDistribution c = components[j];
+      switch(what) {
+        case LNF:   s += c.lnf(x[j]);    break;
+        case LNP:   s += c.lnP(x[j]);    break;
+        case LNCDF: s += c.lncdf(x[j]);  break;
+        default:    s += c.lnucdf(x[j]); break;
+      }
+      if (s==Double.NEGATIVE_INFINITY) break;
+    }
+    return s;
+  }
+
+  public double lnf(final double... x) {
+    return sum(LNF, x);
+  }
+
+  public double f(final double... x) {
+    return exp(sum(LNF, x));
+  }
+
+  public double lnP(final double... x) {
+    return sum(LNP, x);
+  }
+
+  public double P(final double... x) {
+    return exp(sum(LNP, x));
+  }
+
+  public double lncdf(final double... x) {
+    return sum(LNCDF, x);
+  }
+
+  public double cdf(final double... x) {
+    return exp(sum(LNCDF, x));
+  }
+
+  public double lnucdf(final double... x) {
+    return sum(LNUCDF, x);
+  }
+
+  public double ucdf(final double... x) {
+    return exp(sum(LNUCDF, x));
+  }
+
+  public boolean isAtom(final double... x) {
+    if (x.length!=d) throw new DimensionMismatchException();
+    for(int j=0; j<d; j++) if (!components[j].isAtom(x[j])) return false;
+    return true;
+  }
+
+  /** the closest atom for d=1; for d&gt;1, a point cannot be returned
+   * as a single number, and the result is NaN */
+  public double closestAtom(final double... x) {
+    if (x.length!=d) throw new DimensionMismatchException();
+    return (d==1)? components[0].closestAtom(x[0]) : Double.NaN;
+  }
+
+  public boolean isFinite() {
+    for(int j=0; j<d; j++) if (!components[j].isFinite()) return false;
+    return true;
+  }
+
+  /** a random point */
+  public double[] random() {
+    final double[] x = new double[d];
+    for(int j=0; j<d; j++) x[j] = components[j].random();
+    return x;
+  }
+
+
+  // =================================================================
+  // batches of points
+
+  /** log-densities of N points: out[i] = lnf(x[i*d..i*d+d-1]).
+   *@param x  the points, an N x d array in row-major order
+   *@param out  the array that receives the results (length &gt;= N)
+   */
+  public void lnf(final double[] x, final double[] out) {
+    batch(LNF, x, out);
+  }
+
+  /** log-probabilities of N points: out[i] = lnP(x[i*d..i*d+d-1]).
+   *@param x  the points, an N x d array in row-major order
+   *@param out  the array that receives the results (length &gt;= N)
+   */
+  public void lnP(final double[] x, final double[] out) {
+    batch(LNP, x, out);
+  }
+
+  private void batch(final int what, final double[] x, final double[] out) {
+    if (x.length%d!=0) throw new DimensionMismatchException("length of x is not a multiple of d");
+    final int n = x.length/d;
+    if (out.length<n) throw new DimensionMismatchException();
+    final Batch task = new Batch(what, x, out, 0, n);
+    if (n<=CHUNK) task.compute();
+    else ForkJoinPool.commonPool().invoke(task);
+  }
+
+  /** evaluates rows lo..hi-1, split recursively into chunks */
+  private final class Batch extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int what;
+    private final double[] x, out;
+    private final int lo, hi;
+
+    Batch(final int what, final double[] x, final double[] out, final int lo, final int hi) {
+      this.what = what;
+      this.x = x;
+      this.out = out;
+      this.lo = lo;
+      this.hi = hi;
+    }
+
+    protected void compute() {
+      if (hi-lo > CHUNK) {
+        final int mid = (lo+hi)>>>1;
+        invokeAll(new Batch(what, x, out, lo, mid), new Batch(what, x, out, mid, hi));
+        return;
+      }
+      final int n = hi-lo;
+      final double[] col = new double[n], g = new double[n];
+      java.util.Arrays.fill(out, lo, hi, 0.0);
+      for(int j=0; j<d; j++) {
+        for(int i=0, k=lo*d+j; i<n; i++, k+=d) col[i] = x[k];
+        if (what==LNF) components[j].lnf(col, g); else components[j].lnP(col, g);
+        for(int i=0; i<n; i++) out[lo+i] += g[i];
+      }
+    }
+  }
+
+}
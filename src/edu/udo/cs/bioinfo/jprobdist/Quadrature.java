@@ -0,0 +1,314 @@
+/*
+ * Quadrature.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import edu.udo.cs.bioinfo.jprobdist.MathFunctions.RealFunction;
+import static java.lang.Math.*;
+
+/**
+ * This class contains numerical integration routines, mainly to compute
+ * expectations E[h(X)] = integral of h(x) f(x) over the support of a
+ * continuous distribution (see ContinuousDistribution.E(RealFunction)).
+ *
+ * gaussKronrod is a globally adaptive 15-point Gauss-Kronrod rule:
+ * the subintervals with the largest error estimates are bisected until
+ * the total error estimate meets the tolerance. When many subintervals
+ * are refined at once, they are evaluated in parallel on the common
+ * ForkJoinPool. It is the method of choice for smooth integrands.
+ *
+ * tanhSinh is the double exponential rule of Takahasi and Mori (1974),
+ * which is insensitive to integrable singularities at the endpoints
+ * (e.g., the density of a Gamma distribution with shape &lt; 1 at 0).
+ * The step size is halved until two successive levels agree.
+ * Its nodes (as distances to the endpoints, so that they can come
+ * arbitrarily close to them) and weights are tabulated once,
+ * when the class is loaded.
+ *
+ * Infinite ranges are mapped to finite ones by x = c + s*t/(1-t).
+ *
+ * @author Sven Rahmann
+ */
+public final class Quadrature {
+
+  private Quadrature() { }
+
+  /** the default relative tolerance */
+  public static final double DEFAULT_TOL = 1E-10;
+
+
+  // =================================================================
+  // adaptive Gauss-Kronrod
+
+  /** Kronrod nodes (the odd ones are the Gauss nodes); the last one is 0 */
+  private static final double[] XGK = {
+    0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+    0.864864423359769072789712788640926, 0.741531185599394439863864773280788,
+    0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+    0.207784955007898467600689403773245, 0.0 };
+  /** Kronrod weights */
+  private static final double[] WGK = {
+    0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+    0.104790010322250183839876322541518, 0.140653259715525918745189590510238,
+    0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+    0.204432940075298892414161999234649, 0.209482141084727828012999174891714 };
+  /** Gauss weights of the nodes XGK[1], XGK[3], XGK[5], XGK[7] */
+  private static final double[] WG = {
+    0.129484966168869693270611432679082, 0.279705391489276667901467771423780,
+    0.381830050505118944950369775488975, 0.417959183673469387755102040816327 };
+
+  /** maximal number of subintervals */
+  private static final int GK_MAX_SEGMENTS = 2000;
+  /** evaluate refined subintervals in parallel if there are at least this many */
+  private static final int GK_PARALLEL = 32;
+
+  /** a subinterval with its Kronrod estimate and error estimate */
+  private static final class Segment {
+    final double a, b;
+    double value, error;
+    Segment(final double a, final double b) { this.a = a; this.b = b; }
+
+    /** applies the 15-point Kronrod rule and the embedded 7-point Gauss rule */
+    void evaluate(final RealFunction g) {
+      final double c = 0.5*(a+b), h = 0.5*(b-a);
+      final double fc = g.valueAt(c);
+      double k = fc*WGK[7], gs = fc*WG[3];
+      for(int j=0; j<7; j++) {
+        final double dx = h*XGK[j];
+        final double s = g.valueAt(c-dx) + g.valueAt(c+dx);
+        k += WGK[j]*s;
+        if ((j&1)==1) gs += WG[j>>1]*s;
+      }
+      value = k*h;
+      error = abs((k-gs)*h);
+    }
+  }
+
+  /** evaluates a list of segments, in parallel if it is long */
+  private static final class Evaluation extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final List<Segment> s;
+    private final RealFunction g;
+    private final int lo, hi;
+    Evaluation(final List<Segment> s, final RealFunction g, final int lo, final int hi) {
+      this.s = s; this.g = g; this.lo = lo; this.hi = hi;
+    }
+    protected void compute() {
+      if (hi-lo > GK_PARALLEL/2) {
+        final int mid = (lo+hi)>>>1;
+        invokeAll(new Evaluation(s, g, lo, mid), new Evaluation(s, g, mid, hi));
+        return;
+      }
+      for(int i=lo; i<hi; i++) s.get(i).evaluate(g);
+    }
+  }
+
+  /** integral of g over the finite interval [a,b] by adaptive Gauss-Kronrod quadrature.
+   * A non-finite function value makes the result non-finite.
+   *@param g  the integrand
+   *@param a  left boundary (finite)
+   *@param b  right boundary (finite)
+   *@param relTol  the relative tolerance
+   *@param absTol  the absolute tolerance; refinement stops when either is met
+   *@return the integral
+   */
+  public static double gaussKronrod(final RealFunction g, final double a, final double b,
+      final double relTol, final double absTol) {
+    if (Double.isInfinite(a) || Double.isInfinite(b))
+      throw new IllegalArgumentException("gaussKronrod requires a finite interval");
+    if (a==b) return 0.0;
+    final List<Segment> segments = new ArrayList<Segment>();
+    final Segment first = new Segment(a, b);
+    first.evaluate(g);
+    segments.add(first);
+    final List<Segment> fresh = new ArrayList<Segment>();
+    while (true) {
+      double total = 0.0, err = 0.0;
+      for(Segment s: segments) { total += s.value; err += s.error; }
+      final double tol = Math.max(absTol, relTol*abs(total));
+      if (err<=tol || segments.size()>=GK_MAX_SEGMENTS) return total;
+      // bisect every segment whose error exceeds its share of the tolerance
+      final double share = tol/segments.size();
+      fresh.clear();
+      final int n = segments.size();
+      for(int i=0; i<n; i++) {
+        final Segment s = segments.get(i);
+        if (s.error<=share) continue;
+        final double m = 0.5*(s.a+s.b);
+        if (!(m>s.a && m<s.b)) continue;    // cannot bisect any further
+        final Segment r = new Segment(m, s.b);
+        segments.set(i, new Segment(s.a, m));
+        fresh.add(segments.get(i));
+        fresh.add(r);
+      }
+      if (fresh.isEmpty()) return total;
+      if (fresh.size()>=GK_PARALLEL) ForkJoinPool.commonPool().invoke(new Evaluation(fresh, g, 0, fresh.size()));
+      else for(Segment s: fresh) s.evaluate(g);
+      for(int i=1; i<fresh.size(); i+=2) segments.add(fresh.get(i));
+    }
+  }
+
+
+  // =================================================================
+  // tanh-sinh
+
+  /** the largest t in the tanh-sinh tables */
+  private static final double TS_TMAX = 6.0;
+  /** the number of levels; level k has step size 2^-k */
+  private static final int TS_LEVELS = 9;
+  /** for level k, the nodes new at this level: distances 1-|x| to the endpoints of [-1,1] */
+  private static final double[][] TS_C = new double[TS_LEVELS][];
+  /** the corresponding weights */
+  private static final double[][] TS_W = new double[TS_LEVELS][];
+
+  static {
+    for(int k=0; k<TS_LEVELS; k++) {
+      final double h = 1.0/(1<<k);
+      final int n = (int)(TS_TMAX/h);
+      final double[] c = new double[n+1], w = new double[n+1];
+      int m = 0;
+      for(int j=(k==0)? 0 : 1; j<=n; j+=(k==0)? 1 : 2) {
+        final double t = j*h;
+        final double u = 0.5*PI*sinh(t);
+        final double e = exp(-2*u);
+        c[m] = 2*e/(1+e);                               // 1 - tanh(u)
+        w[m] = 0.5*PI*cosh(t) * 4*e/((1+e)*(1+e));      // (pi/2) cosh(t) / cosh(u)^2
+        m++;
+      }
+      TS_C[k] = java.util.Arrays.copyOf(c, m);
+      TS_W[k] = java.util.Arrays.copyOf(w, m);
+    }
+  }
+
+  /** integral of g over the finite interval [a,b] by tanh-sinh quadrature.
+   * The integrand is never evaluated at the endpoints or at the doubles
+   * next to them, so it may have integrable singularities there.
+   * A non-finite function value elsewhere makes the result non-finite.
+   *@param g  the integrand
+   *@param a  left boundary (finite)
+   *@param b  right boundary (finite)
+   *@param relTol  the relative tolerance
+   *@param absTol  the absolute tolerance
+   *@return the integral
+   */
+  public static double tanhSinh(final RealFunction g, final double a, final double b,
+      final double relTol, final double absTol) {
+    if (Double.isInfinite(a) || Double.isInfinite(b))
+      throw new IllegalArgumentException("tanhSinh requires a finite interval");
+    if (a==b) return 0.0;
+    final double r = 0.5*(b-a);
+    // nodes that round to the first or last double of the interval are skipped
+    final double a1 = nextUp(a), b1 = nextDown(b);
+    double sum = 0.0, prev = Double.NaN;
+    for(int k=0; k<TS_LEVELS; k++) {
+      final double[] c = TS_C[k], w = TS_W[k];
+      for(int j=0; j<c.length; j++) {
+        final double d = r*c[j];
+        if (k==0 && j==0) { sum += w[j]*g.valueAt(a+r); continue; }
+        final double x = a+d, y = b-d;
+        double v = 0.0;
+        if (x>a1) v += g.valueAt(x);
+        if (y<b1) v += g.valueAt(y);
+        sum += w[j]*v;
+      }
+      final double est = sum*r/(1<<k);
+      if (k>=3 && abs(est-prev)<=Math.max(absTol, relTol*abs(est))) return est;
+      prev = est;
+    }
+    return prev;
+  }
+
+
+  // =================================================================
+  // infinite ranges and expectations
+
+  /** integral of g over [a,b], where a and/or b may be infinite.
+   * Finite intervals are integrated by gaussKronrod, infinite ones
+   * are mapped to finite ones and integrated by tanhSinh.
+   *@param g  the integrand
+   *@param a  left boundary
+   *@param b  right boundary
+   *@param relTol  the relative tolerance
+   *@return the integral
+   */
+  public static double integrate(final RealFunction g, final double a, final double b, final double relTol) {
+    if (!(a<b)) {
+      if (a==b) return 0.0;
+      if (b<a) return -integrate(g, b, a, relTol);
+      return Double.NaN;
+    }
+    if (Double.isInfinite(a) && Double.isInfinite(b))
+      return tail(g, 0.0, 1.0, -1, relTol, 0.0) + tail(g, 0.0, 1.0, +1, relTol, 0.0);
+    if (Double.isInfinite(b)) return tail(g, a, 1.0, +1, relTol, 0.0);
+    if (Double.isInfinite(a)) return tail(g, b, 1.0, -1, relTol, 0.0);
+    return gaussKronrod(g, a, b, relTol, 0.0);
+  }
+
+  /** integral of g from c to +infinity (dir=+1) or from -infinity to c (dir=-1),
+   * mapped by x = c + dir*s*t/(1-t) to t in [0,1] */
+  private static double tail(final RealFunction g, final double c, final double s, final int dir,
+      final double relTol, final double absTol) {
+    final RealFunction gt = new RealFunction() {
+      public double valueAt(final double t) {
+        final double u = 1.0-t;
+        return g.valueAt(c + dir*s*t/u) * s/(u*u);
+      }
+    };
+    return tanhSinh(gt, 0.0, 1.0, relTol, absTol);
+  }
+
+  /** E[h(X)] for a distribution with density f, as the integral of h(x) f(x)
+   * over the support. The support is split at the quartiles; the inner
+   * pieces are integrated by gaussKronrod, the outer ones (which may be
+   * infinite or have a singular density at the boundary) by tanhSinh.
+   * Where the density is 0 or infinite (at a singular boundary), the
+   * integrand is taken as 0, whatever h is; elsewhere a non-finite h(x)
+   * makes the result non-finite.
+   *@param d  the distribution, which must have a density (lnf)
+   *@param h  the function whose expectation is computed
+   *@param relTol  the relative tolerance
+   *@return E[h(X)]
+   */
+  public static double expectation(final UVDistribution d, final RealFunction h, final double relTol) {
+    final RealFunction g = new RealFunction() {
+      public double valueAt(final double x) {
+        final double fx = exp(d.lnf(x));
+        return (fx==0.0 || fx==Double.POSITIVE_INFINITY)? 0.0 : h.valueAt(x)*fx;
+      }
+    };
+    final double a = d.min(), b = d.max();
+    final double q1 = d.qf(0.25), q2 = d.qf(0.5), q3 = d.qf(0.75);
+    final double s = (q3>q1)? q3-q1 : Math.max(1.0, abs(q2));
+    final double inner = gaussKronrod(g, q1, q2, relTol, 0.0) + gaussKronrod(g, q2, q3, relTol, 0.0);
+    final double absTol = 0.1*relTol*abs(inner);
+    // near a finite endpoint, the distance to it is resolved only up to
+    // ulp(endpoint); so the last eps = sqrt(ulp) is not integrated, and its
+    // mass (which matters for a singular density) is taken from the cdf.
+    double left, right;
+    if (Double.isInfinite(a)) left = tail(g, q1, s, -1, relTol, absTol);
+    else {
+      final double a1 = a + Math.min(sqrt(ulp(a)), 0.25*(q1-a));
+      left = tanhSinh(g, a1, q1, relTol, absTol) + mass(h, a1, d.cdf(a1));
+    }
+    if (Double.isInfinite(b)) right = tail(g, q3, s, +1, relTol, absTol);
+    else {
+      final double b1 = b - Math.min(sqrt(ulp(b)), 0.25*(b-q3));
+      right = tanhSinh(g, q3, b1, relTol, absTol) + mass(h, b1, d.ucdf(b1));
+    }
+    return left + inner + right;
+  }
+
+  /** h(x) times the probability p of the piece next to an endpoint; 0 if p is 0 */
+  private static double mass(final RealFunction h, final double x, final double p) {
+    return (p==0.0)? 0.0 : h.valueAt(x)*p;
+  }
+
+}
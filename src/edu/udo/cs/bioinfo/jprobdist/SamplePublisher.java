@@ -0,0 +1,158 @@
+/*
+ * SamplePublisher.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class publishes random numbers from a univariate distribution
+ * as a stream of chunks (double arrays) to Flow subscribers.
+ * Chunks are generated by UVDistribution.random(int), i.e., with the
+ * distribution's own sampler, only when the subscriber has requested them,
+ * so memory stays bounded by the outstanding demand, however many numbers
+ * are consumed in total.
+ *
+ * Every subscriber receives its own independent stream of at most
+ * total numbers (Long.MAX_VALUE for an unbounded stream), followed by
+ * onComplete. Chunks are generated and delivered by tasks on the given
+ * executor; any executor may be used, e.g., one that starts a new thread
+ * per task. Signals to one subscriber are never concurrent.
+ *
+ * @author Sven Rahmann
+ */
+public class SamplePublisher implements Flow.Publisher<double[]> {
+
+  /** the default number of random numbers per chunk */
+  public static final int DEFAULT_CHUNK = 4096;
+
+  /** the distribution */
+  private final UVDistribution dist;
+  /** the number of random numbers per chunk (the last chunk may be shorter) */
+  private final int chunk;
+  /** the number of random numbers per subscriber */
+  private final long total;
+  /** the executor that generates and delivers the chunks */
+  private final Executor executor;
+
+  /** creates an unbounded publisher with the default chunk size,
+   * running on the common ForkJoinPool.
+   */
+  public SamplePublisher(final UVDistribution dist) {
+    this(dist, DEFAULT_CHUNK, Long.MAX_VALUE, ForkJoinPool.commonPool());
+  }
+
+  /** creates a new publisher.
+   *@param dist  the distribution to sample from
+   *@param chunk  the number of random numbers per chunk (at least 1)
+   *@param total  the number of random numbers per subscriber (Long.MAX_VALUE for unbounded)
+   *@param executor  the executor that generates and delivers the chunks
+   */
+  public SamplePublisher(final UVDistribution dist, final int chunk, final long total,
+      final Executor executor) {
+    if (dist==null || executor==null) throw new NullPointerException();
+    if (chunk<1) throw new IllegalArgumentException("chunk size must be positive");
+    if (total<0) throw new IllegalArgumentException("total must be nonnegative");
+    this.dist = dist;
+    this.chunk = chunk;
+    this.total = total;
+    this.executor = executor;
+  }
+
+  public void subscribe(final Flow.Subscriber<? super double[]> subscriber) {
+    if (subscriber==null) throw new NullPointerException();
+    final ChunkSubscription s = new ChunkSubscription(subscriber);
+    subscriber.onSubscribe(s);
+    if (total==0) s.schedule();   // complete without demand
+  }
+
+
+  /** the subscription of one subscriber; emission is serialized by the wip counter */
+  private final class ChunkSubscription implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super double[]> subscriber;
+    /** requested but not yet delivered chunks */
+    private final AtomicLong demand = new AtomicLong();
+    /** number of pending drain requests; the drain loop runs while it is positive */
+    private final AtomicInteger wip = new AtomicInteger();
+    /** random numbers still to be delivered (only touched in the drain loop) */
+    private long remaining = total;
+    private volatile boolean cancelled = false;
+    /** an invalid request, reported by the drain loop */
+    private volatile Throwable error = null;
+
+    ChunkSubscription(final Flow.Subscriber<? super double[]> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    public void request(final long n) {
+      if (n<=0) error = new IllegalArgumentException("non-positive request: "+n);
+      else {
+        long d, e;
+        do {   // add with saturation at Long.MAX_VALUE
+          d = demand.get();
+          e = d+n;
+          if (e<0) e = Long.MAX_VALUE;
+        } while (!demand.compareAndSet(d, e));
+      }
+      schedule();
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    void schedule() {
+      if (wip.getAndIncrement()!=0) return;
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        cancelled = true;
+        subscriber.onError(e);
+      }
+    }
+
+    // the drain loop
+    public void run() {
+      int missed = 1;
+      do {
+        while (!cancelled) {
+          final Throwable t = error;
+          if (t!=null) {
+            cancelled = true;
+            subscriber.onError(t);
+            break;
+          }
+          if (remaining==0) {
+            cancelled = true;
+            subscriber.onComplete();
+            break;
+          }
+          if (demand.get()==0) break;
+          final int m = (int)Math.min(chunk, remaining);
+          final double[] x;
+          try {
+            x = dist.random(m);
+          } catch (RuntimeException e) {
+            cancelled = true;
+            subscriber.onError(e);
+            break;
+          }
+          remaining -= m;
+          if (demand.get()!=Long.MAX_VALUE) demand.decrementAndGet();
+          subscriber.onNext(x);
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed!=0);
+    }
+  }
+
+}
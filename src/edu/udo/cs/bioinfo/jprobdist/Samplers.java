@@ -0,0 +1,130 @@
+/*
+ * Samplers.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import static java.lang.Math.*;
+
+/**
+ * This class contains static random number generators for standard
+ * distributions that are needed as building blocks by several
+ * distributions (e.g., the Negative Binomial as a Gamma mixture of Poissons).
+ * All of them take O(1) expected time, independently of the parameters,
+ * and use Math.random() as source of uniform random numbers.
+ *
+ * @author Sven Rahmann
+ */
+final class Samplers {
+
+  private Samplers() { }
+
+  /** the largest double below 1 */
+  private static final double ONE_MINUS_EPS = Math.nextDown(1.0);
+
+  /** a uniform random number in the open interval (0,1) */
+  static double openUniform() {
+    double u;
+    do { u = Math.random(); } while (u==0.0);
+    return u;
+  }
+
+  /** fills u with uniform numbers in (0,1) according to the sampling mode;
+   * for STRATIFIED, u[i] lies in stratum pi(i) of a random permutation pi.
+   */
+  static void uniforms(final SamplingMode mode, final double[] u) {
+    final int n = u.length;
+    switch (mode) {
+      case IID:
+        for(int i=0; i<n; i++) u[i] = openUniform();
+        break;
+      case STRATIFIED:
+        for(int i=0; i<n; i++) u[i] = Math.min((i + openUniform())/n, ONE_MINUS_EPS);
+        for(int i=n-1; i>0; i--) {   // Fisher-Yates shuffle
+          final int k = (int)(Math.random()*(i+1));
+          final double t = u[i]; u[i] = u[k]; u[k] = t;
+        }
+        break;
+      case SOBOL:
+        final SobolSequence s = new SobolSequence(1, true);
+        final double[] pt = new double[1];
+        for(int i=0; i<n; i++) { s.next(pt); u[i] = pt[0]; }
+        break;
+      default:
+        throw new IllegalArgumentException("unknown sampling mode "+mode);
+    }
+  }
+
+  /** a standard normal random number (Marsaglia's polar method) */
+  static double normal() {
+    double u, v, s;
+    do {
+      u = 2.0*Math.random()-1.0;
+      v = 2.0*Math.random()-1.0;
+      s = u*u+v*v;
+    } while (s>=1.0 || s==0.0);
+    return u*sqrt(-2.0*log(s)/s);
+  }
+
+  /** a Gamma random number with the given shape and scale 1
+   * (Marsaglia and Tsang, 2000; for shape&lt;1 boosted by U^(1/shape)).
+   */
+  static double gamma(final double shape) {
+    if (shape<1.0) {
+      final double u = Math.random();
+      return gamma(shape+1.0) * pow(u, 1.0/shape);
+    }
+    final double d = shape - 1.0/3.0;
+    final double c = 1.0/sqrt(9.0*d);
+    while (true) {
+      double x, v;
+      do {
+        x = normal();
+        v = 1.0+c*x;
+      } while (v<=0.0);
+      v = v*v*v;
+      final double u = Math.random();
+      final double x2 = x*x;
+      if (u < 1.0-0.0331*x2*x2) return d*v;
+      if (log(u) < 0.5*x2 + d*(1.0-v+log(v))) return d*v;
+    }
+  }
+
+  /** below this mean, Poisson numbers are generated by multiplying uniforms */
+  private static final double PTRS_MIN = 10.0;
+
+  /** a Poisson random number with the given mean: for small means by the
+   * multiplication method, otherwise by the transformed rejection method
+   * PTRS (Hoermann, 1993).
+   */
+  static long poisson(final double lambda) {
+    if (lambda<PTRS_MIN) {
+      if (lambda==0.0) return 0;
+      final double enlam = exp(-lambda);
+      long x = 0;
+      double prod = Math.random();
+      while (prod>enlam) { x++; prod *= Math.random(); }
+      return x;
+    }
+    final double slam = sqrt(lambda);
+    final double loglam = log(lambda);
+    final double b = 0.931 + 2.53*slam;
+    final double a = -0.059 + 0.02483*b;
+    final double invalpha = 1.1239 + 1.1328/(b-3.4);
+    final double vr = 0.9277 - 3.6224/(b-2);
+    while (true) {
+      final double u = Math.random()-0.5;
+      final double v = Math.random();
+      final double us = 0.5-abs(u);
+      final long k = (long)floor((2*a/us + b)*u + lambda + 0.43);
+      if (us>=0.07 && v<=vr) return k;
+      if (k<0 || (us<0.013 && v>us)) continue;
+      if (log(v) + log(invalpha) - log(a/(us*us)+b)
+          <= -lambda + k*loglam - MathFunctions.lnfactorial(k)) return k;
+    }
+  }
+
+}
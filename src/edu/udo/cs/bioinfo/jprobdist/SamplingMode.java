@@ -0,0 +1,33 @@
+/*
+ * SamplingMode.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+/**
+ * Ways of choosing the uniform numbers u[0..n-1] from which a sample
+ * of size n is generated by inversion, x[i] = qf(u[i]).
+ * See UVDistribution.random(int, SamplingMode) and JointSampler.
+ *
+ * With STRATIFIED or SOBOL, the sample points are no longer independent,
+ * but each x[i] still has the distribution in question, so sample means
+ * remain unbiased estimators of expectations. Their variance decreases
+ * faster than 1/n for smooth integrands: like 1/n^2 (stratified) or
+ * nearly 1/n^2 (Sobol, in low dimensions).
+ *
+ * @author Sven Rahmann
+ */
+public enum SamplingMode {
+  /** independent uniform numbers from Math.random() */
+  IID,
+  /** one uniform number in each of the n strata [i/n, (i+1)/n), in random order;
+   * for several distributions sampled jointly, the strata of each coordinate
+   * are permuted independently (Latin hypercube sampling) */
+  STRATIFIED,
+  /** the first n points of a Sobol sequence with a random digital shift;
+   * n should be a power of 2 */
+  SOBOL
+}
@@ -0,0 +1,115 @@
+/*
+ * SobolSequence.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+/**
+ * This class generates the Sobol low-discrepancy sequence in up to
+ * MAX_DIMENSION dimensions, in Gray code order (Antonov and Saleev, 1979),
+ * with the direction numbers of Joe and Kuo (2008).
+ * Each point costs one XOR per coordinate.
+ *
+ * Coordinates are 32-bit binary fractions; each is returned as the
+ * midpoint of its cell of width 2^-32, so all values lie strictly
+ * inside (0,1) and may be passed to a quantile function directly.
+ * Optionally, a random digital shift (an XOR of each coordinate with a
+ * fixed random bit pattern) randomizes the sequence while keeping its
+ * stratification properties; then every point is uniformly distributed
+ * on (0,1)^d, and averages over the points are unbiased.
+ *
+ * A SobolSequence has state and must not be shared between threads.
+ *
+ * @author Sven Rahmann
+ */
+public final class SobolSequence {
+
+  /** the maximal supported dimension */
+  public static final int MAX_DIMENSION = 16;
+
+  /** number of bits per coordinate */
+  private static final int BITS = 32;
+  /** 2^-32 */
+  private static final double SCALE = 1.0/4294967296.0;
+
+  // Joe and Kuo, new-joe-kuo-6.21201, dimensions 2..16:
+  // degree s and coefficients a of the primitive polynomial, initial m_1..m_s
+  private static final int[] S = {1, 2, 3, 3, 4, 4, 5, 5, 5, 5, 5, 5, 6, 6, 6};
+  private static final int[] A = {0, 1, 1, 2, 1, 4, 2, 4, 7, 11, 13, 14, 1, 13, 16};
+  private static final int[][] M = {
+    {1}, {1,3}, {1,3,1}, {1,1,1}, {1,1,3,3}, {1,3,5,13},
+    {1,1,5,5,17}, {1,1,5,5,5}, {1,1,7,11,19}, {1,1,5,1,1}, {1,1,1,3,11}, {1,3,5,5,31},
+    {1,3,3,9,7,49}, {1,1,1,15,21,21}, {1,3,1,13,27,49}
+  };
+
+  /** the dimension */
+  private final int dim;
+  /** direction numbers v[j][i] = m_(i+1) 2^(31-i) of coordinate j */
+  private final int[][] v;
+  /** the current point (as 32-bit binary fractions) */
+  private final int[] x;
+  /** the digital shift of each coordinate (zero if not randomized) */
+  private final int[] shift;
+  /** the number of points generated so far */
+  private long index = 0;
+
+  /** creates the (unshifted) Sobol sequence in the given dimension */
+  public SobolSequence(final int dimension) {
+    this(dimension, false);
+  }
+
+  /** creates the Sobol sequence in the given dimension,
+   * with a random digital shift if randomShift is true.
+   */
+  public SobolSequence(final int dimension, final boolean randomShift) {
+    if (dimension<1 || dimension>MAX_DIMENSION)
+      throw new IllegalArgumentException("dimension must be in 1.."+MAX_DIMENSION);
+    this.dim = dimension;
+    this.v = new int[dimension][BITS];
+    this.x = new int[dimension];
+    this.shift = new int[dimension];
+    for(int i=0; i<BITS; i++) v[0][i] = 1 << (BITS-1-i);
+    for(int j=1; j<dimension; j++) {
+      final int s = S[j-1], a = A[j-1];
+      final int[] m = M[j-1], vj = v[j];
+      for(int i=0; i<s; i++) vj[i] = m[i] << (BITS-1-i);
+      for(int i=s; i<BITS; i++) {
+        int w = vj[i-s] ^ (vj[i-s] >>> s);
+        for(int k=1; k<s; k++)
+          if (((a >>> (s-1-k)) & 1) != 0) w ^= vj[i-k];
+        vj[i] = w;
+      }
+    }
+    if (randomShift)
+      for(int j=0; j<dimension; j++) shift[j] = (int)(long)(Math.random()*4294967296.0);
+  }
+
+  /** the dimension of the points */
+  public int dimension() {
+    return dim;
+  }
+
+  /** the number of points generated so far */
+  public long index() {
+    return index;
+  }
+
+  /** writes the next point into out[0..dimension()-1]
+   *@param out  the array that receives the point (length &gt;= dimension())
+   */
+  public void next(final double[] out) {
+    if (out.length<dim) throw new DimensionMismatchException();
+    if (index>0) {
+      if (index>=(1L<<BITS)) throw new IllegalStateException("Sobol sequence exhausted");
+      final int c = Long.numberOfTrailingZeros(index);
+      for(int j=0; j<dim; j++) x[j] ^= v[j][c];
+    }
+    index++;
+    for(int j=0; j<dim; j++)
+      out[j] = ((x[j]^shift[j]) & 0xFFFFFFFFL) * SCALE + 0.5*SCALE;
+  }
+
+}
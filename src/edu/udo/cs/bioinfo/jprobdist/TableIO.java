@@ -0,0 +1,197 @@
+/*
+ * TableIO.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import static java.lang.Math.*;
+
+/**
+ * This class reads and writes precomputed tables in a compact, versioned
+ * binary format, so that expensive tables are computed once and then
+ * loaded by memory-mapping the file (FileChannel.map).
+ * Several JVMs on one machine then share a single page-cached copy.
+ *
+ * A table file consists of a 32-byte header followed by little-endian
+ * doubles, starting at offset 32:
+ * <pre>
+ *   int  MAGIC ("JPDT")     int  VERSION
+ *   int  kind               int  flags
+ *   long n (number of entries per column)
+ *   long reserved (0)
+ * </pre>
+ * A tabulated finite distribution (kind TABULATED; flag bit 0 set iff the
+ * atoms form an integer lattice) stores the four columns atoms, probabilities,
+ * cdf and upper cdf with n entries each. An lnfactorial table
+ * (kind LNFACTORIAL) stores ln(i!) for i=0..n-1.
+ *
+ * The lnfactorial table is used in place, without copying
+ * (see MathFunctions.setLnfactorialTable). A TabulatedFiniteDistribution
+ * keeps its tables on the heap, so they are copied out of the mapping
+ * in bulk. The normalization is not redone, so the restored distribution
+ * is identical bit for bit; the stored cdf columns and the lattice flag are
+ * checked against the probabilities and atoms, and a file where they
+ * disagree is rejected.
+ *
+ * @author Sven Rahmann
+ */
+public final class TableIO {
+
+  /** the magic number at the start of each table file ("JPDT") */
+  public static final int MAGIC = 0x4A504454;
+  /** the current version of the format */
+  public static final int VERSION = 1;
+  /** kind of a table file holding a TabulatedFiniteDistribution */
+  public static final int TABULATED = 1;
+  /** kind of a table file holding ln(i!) for i=0..n-1 */
+  public static final int LNFACTORIAL = 2;
+
+  /** the size of the header in bytes */
+  private static final int HEADER = 32;
+  /** flag bit: the atoms form an integer lattice */
+  private static final int FLAG_LATTICE = 1;
+
+  private TableIO() { }
+
+
+  // =================================================================
+  // tabulated distributions
+
+  /** writes a tabulated finite distribution to a table file.
+   * Subclasses (e.g., PoissonBinomialDistribution) are written as their tables,
+   * and read back as a plain TabulatedFiniteDistribution.
+   *@param d  the distribution
+   *@param file  the file to (over)write
+   *@throws IOException  if the file cannot be written
+   */
+  public static void write(final TabulatedFiniteDistribution d, final Path file) throws IOException {
+    final int n = d.atoms.length;
+    final ByteBuffer b = header(TABULATED, d.lattice? FLAG_LATTICE : 0, n, 4L*n);
+    final DoubleBuffer db = b.asDoubleBuffer();
+    db.position(HEADER/8);
+    db.put(d.atoms).put(d.prob).put(d.cum).put(d.ucum);
+    writeFully(b, file);
+  }
+
+  /** reads a tabulated finite distribution from a table file.
+   *@param file  the file, as written by write(TabulatedFiniteDistribution, Path)
+   *@return the distribution
+   *@throws IOException  if the file cannot be read or is not a valid table file
+   */
+  public static TabulatedFiniteDistribution readTabulated(final Path file) throws IOException {
+    final MappedByteBuffer b = map(file);
+    final int n = (int)checkHeader(b, TABULATED, 4, file);
+    final DoubleBuffer db = b.asDoubleBuffer();
+    final double[] atoms = new double[n], prob = new double[n], cum = new double[n], ucum = new double[n];
+    db.position(HEADER/8);
+    db.get(atoms).get(prob).get(cum).get(ucum);
+    try {
+      final double total = TabulatedFiniteDistribution.checkedMass(atoms, prob);
+      if (abs(total-1.0)>1E-9) throw new IOException(file+": probabilities are not normalized");
+      final boolean lattice = (b.getInt(12) & FLAG_LATTICE)!=0;
+      if (lattice!=TabulatedFiniteDistribution.isLattice(atoms))
+        throw new IOException(file+": lattice flag does not match the atoms");
+      return new TabulatedFiniteDistribution(atoms, prob, cum, ucum, lattice);
+    } catch (IllegalArgumentException e) {
+      throw new IOException(file+": invalid table: "+e.getMessage());
+    }
+  }
+
+
+  // =================================================================
+  // lnfactorial tables
+
+  /** computes ln(i!) for i=0..n-1 and writes the table to a file.
+   * The logarithms are summed with Kahan's compensated summation,
+   * so each entry is accurate to a few units in the last place.
+   *@param n  the number of entries (at least 1)
+   *@param file  the file to (over)write
+   *@throws IOException  if the file cannot be written
+   */
+  public static void writeLnfactorialTable(final int n, final Path file) throws IOException {
+    if (n<1) throw new IllegalArgumentException("n must be positive");
+    final ByteBuffer b = header(LNFACTORIAL, 0, n, n);
+    final DoubleBuffer db = b.asDoubleBuffer();
+    db.position(HEADER/8);
+    double s = 0.0, c = 0.0;
+    db.put(0.0);
+    for(int i=1; i<n; i++) {
+      final double y = log(i) - c;
+      final double t = s + y;
+      c = (t-s) - y;
+      s = t;
+      db.put(s);
+    }
+    writeFully(b, file);
+  }
+
+  /** maps an lnfactorial table file into memory, without copying.
+   * The result can be passed to MathFunctions.setLnfactorialTable.
+   *@param file  the file, as written by writeLnfactorialTable
+   *@return a read-only buffer with get(i) = ln(i!)
+   *@throws IOException  if the file cannot be read or is not a valid table file
+   */
+  public static DoubleBuffer mapLnfactorialTable(final Path file) throws IOException {
+    final MappedByteBuffer b = map(file);
+    checkHeader(b, LNFACTORIAL, 1, file);
+    b.position(HEADER);
+    return b.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().asReadOnlyBuffer();
+  }
+
+
+  // =================================================================
+  // helpers
+
+  /** allocates a buffer for a table file with the given number of doubles,
+   * and writes the header */
+  private static ByteBuffer header(final int kind, final int flags, final long n, final long doubles) {
+    final long size = HEADER + 8*doubles;
+    if (size>Integer.MAX_VALUE) throw new IllegalArgumentException("table too large");
+    final ByteBuffer b = ByteBuffer.allocate((int)size).order(ByteOrder.LITTLE_ENDIAN);
+    b.putInt(MAGIC).putInt(VERSION).putInt(kind).putInt(flags).putLong(n).putLong(0L);
+    b.clear();
+    return b;
+  }
+
+  private static void writeFully(final ByteBuffer b, final Path file) throws IOException {
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (b.hasRemaining()) ch.write(b);
+    }
+  }
+
+  private static MappedByteBuffer map(final Path file) throws IOException {
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      final MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      b.order(ByteOrder.LITTLE_ENDIAN);
+      return b;
+    }
+  }
+
+  /** checks the header and file size, and returns the number n of entries */
+  private static long checkHeader(final ByteBuffer b, final int kind, final int columns,
+      final Path file) throws IOException {
+    if (b.capacity()<HEADER || b.getInt(0)!=MAGIC)
+      throw new IOException(file+": not a table file");
+    if (b.getInt(4)!=VERSION)
+      throw new IOException(file+": unsupported table version "+b.getInt(4));
+    if (b.getInt(8)!=kind)
+      throw new IOException(file+": table of kind "+b.getInt(8)+", expected "+kind);
+    final long n = b.getLong(16);
+    if (n<1 || n>Integer.MAX_VALUE || HEADER + 8*columns*n != b.capacity())
+      throw new IOException(file+": corrupt table (size mismatch)");
+    return n;
+  }
+
+}
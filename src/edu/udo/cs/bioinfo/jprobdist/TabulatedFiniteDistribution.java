@@ -0,0 +1,447 @@
+/*
+ * TabulatedFiniteDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import static java.lang.Math.*;
+
+/**
+ * This class implements an arbitrary finite distribution that is given
+ * explicitly by a table of atoms and their probabilities,
+ * e.g., an empirical distribution or the result of a convolution.
+ *
+ * The table is held in primitive arrays, together with prefix sums of the
+ * probabilities from both ends. Thus cdf, ucdf and interval probabilities take O(1)
+ * time once the relevant atoms have been located, and qf, isAtom and
+ * closestAtom are answered by binary search.
+ * The moments up to order 4 are computed once, at construction time.
+ *
+ * @author Sven Rahmann
+ */
+public class TabulatedFiniteDistribution extends FiniteDistribution {
+
+  /** the atoms, in strictly increasing order */
+  final double[] atoms;
+  /** the (normalized) probabilities of the atoms */
+  final double[] prob;
+  /** cum[i] = prob[0]+...+prob[i] */
+  final double[] cum;
+  /** ucum[i] = prob[i]+...+prob[n-1] */
+  final double[] ucum;
+  /** true iff atoms[i] = atoms[0]+i for all i */
+  final boolean lattice;
+
+  /** indices of the first and last atom with positive probability */
+  private final int first, last;
+
+  /** the expectation and the central moments of order 2, 3, 4 */
+  private final double E, cm2, cm3, cm4;
+
+
+  /** create a new finite distribution from a table of atoms and probabilities.
+   * The probabilities are normalized to total mass 1.
+   * The arrays are copied.
+   *@param atoms the atoms, which must be finite and strictly increasing
+   *@param probabilities the nonnegative probabilities (or weights) of the atoms
+   */
+  public TabulatedFiniteDistribution(final double[] atoms, final double[] probabilities) {
+    this(atoms.clone(), probabilities.clone(), isLattice(atoms));
+  }
+
+  /** create a new finite distribution on the integer lattice
+   * first, first+1, ..., first+probabilities.length-1.
+   * The probabilities are normalized to total mass 1.
+   * The array is copied.
+   *@param first the smallest atom
+   *@param probabilities the nonnegative probabilities (or weights) of the atoms
+   */
+  public TabulatedFiniteDistribution(final double first, final double[] probabilities) {
+    this(latticeAtoms(first, probabilities.length), probabilities.clone(), true);
+  }
+
+  /** internal constructor that takes ownership of the given arrays */
+  TabulatedFiniteDistribution(final double[] atoms, final double[] prob, final boolean lattice) {
+    this(atoms, normalized(atoms, prob), null, null, lattice);
+  }
+
+  /** internal constructor that takes ownership of the given arrays;
+   * prob must already be checked and normalized (see checkedMass).
+   * cum and ucum are always computed from prob; if they are given,
+   * they must agree with the computed ones bit for bit.
+   * TableIO uses this to verify a saved distribution.
+   */
+  TabulatedFiniteDistribution(final double[] atoms, final double[] prob,
+      final double[] cum, final double[] ucum, final boolean lattice) {
+    final int n = atoms.length;
+    this.atoms = atoms;
+    this.prob = prob;
+    this.lattice = lattice;
+    this.cum = new double[n];
+    this.ucum = new double[n];
+    double s = 0.0;
+    for(int i=0; i<n; i++)    this.cum[i] = (s += prob[i]);
+    s = 0.0;
+    for(int i=n-1; i>=0; i--) this.ucum[i] = (s += prob[i]);
+    this.cum[n-1] = this.ucum[0] = 1.0;
+    if ((cum!=null && !Arrays.equals(cum, this.cum)) || (ucum!=null && !Arrays.equals(ucum, this.ucum)))
+      throw new IllegalArgumentException("cumulative probabilities do not match the probabilities");
+
+    int f=0;   while (prob[f]==0.0) f++;
+    int l=n-1; while (prob[l]==0.0) l--;
+    this.first = f;
+    this.last = l;
+
+    // moments: expectation first, then central moments in a second pass
+    double e = 0.0;
+    for(int i=f; i<=l; i++) e += prob[i]*atoms[i];
+    double m2=0, m3=0, m4=0;
+    for(int i=f; i<=l; i++) {
+      final double d = atoms[i]-e;
+      final double pd2 = prob[i]*d*d;
+      m2 += pd2;
+      m3 += pd2*d;
+      m4 += pd2*d*d;
+    }
+    this.E = e;
+    this.cm2 = m2;
+    this.cm3 = m3;
+    this.cm4 = m4;
+  }
+
+  /** checks atoms and probabilities and returns the total probability mass */
+  static double checkedMass(final double[] atoms, final double[] prob) {
+    final int n = atoms.length;
+    if (n==0) throw new IllegalArgumentException("at least one atom required");
+    if (prob.length!=n)
+      throw new DimensionMismatchException("atoms and probabilities must have the same length");
+    double total = 0.0;
+    for(int i=0; i<n; i++) {
+      if (Double.isNaN(atoms[i]) || Double.isInfinite(atoms[i]))
+        throw new IllegalArgumentException("atoms must be finite");
+      if (i>0 && !(atoms[i]>atoms[i-1]))
+        throw new IllegalArgumentException("atoms must be strictly increasing");
+      if (!(prob[i]>=0.0) || Double.isInfinite(prob[i]))
+        throw new IllegalArgumentException("probabilities must be nonnegative and finite");
+      total += prob[i];
+    }
+    if (total<=0.0) throw new IllegalArgumentException("total probability mass must be positive");
+    return total;
+  }
+
+  /** checks and normalizes prob in place to total mass 1, and returns it */
+  private static double[] normalized(final double[] atoms, final double[] prob) {
+    final double total = checkedMass(atoms, prob);
+    if (total!=1.0) for(int i=0; i<prob.length; i++) prob[i] /= total;
+    return prob;
+  }
+
+  /** true iff the atoms are consecutive integers */
+  static boolean isLattice(final double[] atoms) {
+    for(int i=1; i<atoms.length; i++)
+      if (atoms[i]!=atoms[0]+i) return false;
+    return true;
+  }
+
+  static double[] latticeAtoms(final double first, final int n) {
+    final double[] a = new double[n];
+    for(int i=0; i<n; i++) a[i] = first+i;
+    return a;
+  }
+
+
+  // =================================================================
+  // index arithmetic
+
+  /** number of tabulated atoms (including atoms with probability zero) */
+  public final int size() {
+    return atoms.length;
+  }
+
+  /** returns a copy of the tabulated atoms */
+  public final double[] getAtoms() {
+    return atoms.clone();
+  }
+
+  /** returns a copy of the tabulated probabilities */
+  public final double[] getProbabilities() {
+    return prob.clone();
+  }
+
+  /** index of the last tabulated atom that is &lt;= x, or -1 */
+  final int floorIndex(final double x) {
+    if (lattice) {
+      final double d = floor(x-atoms[0]);
+      if (d<0) return -1;
+      return (d>=atoms.length)? atoms.length-1 : (int)d;
+    }
+    final int i = Arrays.binarySearch(atoms, x);
+    return (i>=0)? i : -i-2;
+  }
+
+  /** index of the first tabulated atom that is &gt;= x, or size() */
+  final int ceilIndex(final double x) {
+    if (lattice) {
+      final double d = ceil(x-atoms[0]);
+      if (d<0) return 0;
+      return (d>=atoms.length)? atoms.length : (int)d;
+    }
+    final int i = Arrays.binarySearch(atoms, x);
+    return (i>=0)? i : -i-1;
+  }
+
+  /** index of atom x, or -1 if x is not tabulated */
+  final int indexOf(final double x) {
+    final int i = floorIndex(x);
+    return (i>=0 && atoms[i]==x)? i : -1;
+  }
+
+  /** total probability of the atoms with indices lo..hi, in O(1) */
+  final double mass(final int lo, final int hi) {
+    if (lo>hi) return 0.0;
+    if (lo==0) return cum[hi];
+    if (hi==atoms.length-1) return ucum[lo];
+    // use the prefix sums from the side with less mass to avoid cancellation
+    final double r = (cum[hi]<=ucum[lo])? cum[hi]-cum[lo-1] : ucum[lo]-ucum[hi+1];
+    return (r>0.0)? r : 0.0;
+  }
+
+
+  // =================================================================
+  // point and interval probabilities, cdf, ucdf
+
+  @Override
+  public double P(final double x) {
+    final int i = indexOf(x);
+    return (i>=0)? prob[i] : 0.0;
+  }
+
+  public double lnP(final double x) {
+    return log(P(x));
+  }
+
+  @Override
+  public double P(final double a, final double b, final Interval.Type t) {
+    if (t==Interval.Type.NaN || Double.isNaN(a) || Double.isNaN(b)) return 0.0;
+    int lo = ceilIndex(a);
+    if (lo<atoms.length && atoms[lo]==a
+        && (t==Interval.Type.Open || t==Interval.Type.OpenClosed)) lo++;
+    int hi = floorIndex(b);
+    if (hi>=0 && atoms[hi]==b
+        && (t==Interval.Type.Open || t==Interval.Type.ClosedOpen)) hi--;
+    return mass(lo, hi);
+  }
+
+  @Override
+  public double lnP(final double a, final double b, final Interval.Type t) {
+    return log(P(a, b, t));
+  }
+
+  @Override
+  public double cdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    final int i = floorIndex(x);
+    return (i>=0)? cum[i] : 0.0;
+  }
+
+  @Override
+  public double lncdf(final double x) {
+    return log(cdf(x));
+  }
+
+  @Override
+  public double ucdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    final int i = ceilIndex(x);
+    return (i<atoms.length)? ucum[i] : 0.0;
+  }
+
+  @Override
+  public double lnucdf(final double x) {
+    return log(ucdf(x));
+  }
+
+
+  // =================================================================
+  // quantiles and random numbers via the guide table over the prefix sums
+
+  @Override
+  GuideTable createGuideTable() {
+    // share the prefix sums; nothing is copied
+    return new GuideTable(this, atoms, cum, first, last, 0.0);
+  }
+
+  /** index of the p-quantile, i.e. the smallest i with cum[i]&gt;=p, for 0&lt;p&lt;=1.
+   * The guide table answers in O(1) expected time; binary search remains
+   * as fallback for p in (cum[last],1), which arises only by rounding. */
+  final int qfIndex(final double p) {
+    if (p>=1.0) return last;
+    final int g = guideTable().index(p);
+    if (g>=0) return g;
+    int lo = first, hi = last;
+    while (lo<hi) {
+      final int mid = (lo+hi)>>>1;
+      if (cum[mid]>=p) hi=mid; else lo=mid+1;
+    }
+    return lo;
+  }
+
+  @Override
+  public double qf(final double p) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    if (p==0.0) return Double.NEGATIVE_INFINITY;
+    return atoms[qfIndex(p)];
+  }
+
+  // the table lookup is exact; there is no precision to trade
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    return qf(p);
+  }
+
+  @Override
+  public double random() {
+    final double p = Math.random();
+    return atoms[(p==0.0)? first : qfIndex(p)];
+  }
+
+
+  // =================================================================
+  // atoms
+
+  @Override
+  public boolean isAtom(final double x) {
+    final int i = indexOf(x);
+    return (i>=0 && prob[i]>0.0);
+  }
+
+  public double closestAtom(final double x) {
+    if (x<=atoms[first]) return atoms[first];
+    if (x>=atoms[last])  return atoms[last];
+    int l = floorIndex(x);
+    while (prob[l]==0.0) l--;
+    int r = l+1;
+    while (prob[r]==0.0) r++;
+    return (x-atoms[l] <= atoms[r]-x)? atoms[l] : atoms[r];
+  }
+
+  public final double min() {
+    return atoms[first];
+  }
+
+  public final double max() {
+    return atoms[last];
+  }
+
+
+  // =================================================================
+  // cached moments
+
+  @Override
+  public double E() {
+    return E;
+  }
+
+  @Override
+  public double Var() {
+    return cm2;
+  }
+
+  @Override
+  public double skewness() {
+    return cm3/pow(cm2,1.5);
+  }
+
+  @Override
+  public double kurtosisExcess() {
+    return cm4/(cm2*cm2) - 3.0;
+  }
+
+  @Override
+  public double moment(final double m) {
+    if (m==1.0) return E;
+    double r = 0.0;
+    for(int i=first; i<=last; i++)
+      if (prob[i]!=0.0) r += prob[i]*pow(atoms[i],m);
+    return r;
+  }
+
+  @Override
+  public double cmoment(final double c) {
+    if (c==1.0) return 0.0;
+    if (c==2.0) return cm2;
+    if (c==3.0) return cm3;
+    if (c==4.0) return cm4;
+    double r = 0.0;
+    for(int i=first; i<=last; i++)
+      if (prob[i]!=0.0) r += prob[i]*pow(atoms[i]-E,c);
+    return r;
+  }
+
+  @Override
+  public double entropy() {
+    double h = 0.0;
+    for(int i=first; i<=last; i++)
+      if (prob[i]!=0.0) h -= prob[i]*log(prob[i]);
+    return h;
+  }
+
+
+  // =================================================================
+  // iterators over the atoms with positive probability
+
+  public Iterator<Double> iterator() {
+    return new AtomIterator(first, last);
+  }
+
+  public Iterator<Double> iterator(final Interval ab) {
+    if (ab.type==Interval.Type.NaN || ab.isEmpty) return new AtomIterator(0,-1);
+    int lo = ceilIndex(ab.a);
+    if (lo<atoms.length && atoms[lo]==ab.a
+        && (ab.type==Interval.Type.Open || ab.type==Interval.Type.OpenClosed)) lo++;
+    int hi = floorIndex(ab.b);
+    if (hi>=0 && atoms[hi]==ab.b
+        && (ab.type==Interval.Type.Open || ab.type==Interval.Type.ClosedOpen)) hi--;
+    return new AtomIterator(lo, hi);
+  }
+
+  /** iterates over the tabulated atoms with indices lo..hi
+   * that have positive probability */
+  private class AtomIterator implements Iterator<Double> {
+    private int i;
+    private final int hi;
+
+    AtomIterator(final int lo, final int hi) {
+      this.hi = hi;
+      this.i = lo;
+      skip();
+    }
+
+    private void skip() {
+      while (i<=hi && prob[i]==0.0) i++;
+    }
+
+    public boolean hasNext() {
+      return (i<=hi);
+    }
+
+    public Double next() {
+      if(!hasNext()) throw new NoSuchElementException(String.valueOf(i));
+      final double x = atoms[i++];
+      skip();
+      return Double.valueOf(x);
+    }
+
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
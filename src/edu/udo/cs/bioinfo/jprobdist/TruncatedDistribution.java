@@ -0,0 +1,291 @@
+/*
+ * TruncatedDistribution.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.Iterator;
+import static java.lang.Math.*;
+
+/**
+ * This class implements the distribution of a random variable X
+ * conditioned on X lying in an interval I, for any univariate distribution
+ * of X, e.g., the zero-truncated Poisson distribution (I = [1,infinity)).
+ * Probabilities, densities and cdfs are those of X, divided by the
+ * normalizer Z = P(X in I), whose logarithm is computed once.
+ *
+ * Quantiles are computed by inversion inside [P(X &lt; I), P(X &lt; I)+Z],
+ * and random numbers by inversion of a uniform number, so every draw is
+ * accepted, however small Z is. If Z is too small for this to be accurate
+ * (Z &lt; 1E-6), quantiles are found from the truncated cdf itself,
+ * by summing over the atoms of a discrete distribution, or by bisection.
+ *
+ * For discrete distributions with infinitely many atoms, the atoms are
+ * assumed to be integers (as for all such distributions in this package).
+ *
+ * @author Sven Rahmann
+ */
+public class TruncatedDistribution extends AbstractDistribution {
+
+  /** the distribution of X */
+  private final UVDistribution base;
+  /** the truncation interval */
+  private final Interval ab;
+  /** left and right boundary belong to the interval */
+  private final boolean leftClosed, rightClosed;
+  /** true iff the base distribution is discrete */
+  private final boolean discrete;
+  /** ln Z = ln P(X in ab) */
+  private final double lnZ;
+  /** Z and P(X &lt; ab) */
+  private final double Z, below;
+  /** the smallest and largest value in the support */
+  private final double lo, hi;
+
+  /** below this normalizer, qf does not invert the base distribution */
+  private static final double MIN_INVERTIBLE = 1E-6;
+
+  /** create the distribution of X given X in ab, where X has distribution base.
+   *@param base  the distribution of X
+   *@param ab  the truncation interval, with P(X in ab) &gt; 0
+   */
+  public TruncatedDistribution(final UVDistribution base, final Interval ab) {
+    if (ab.type==Interval.Type.NaN) throw new IllegalArgumentException("truncation interval is NaN");
+    this.base = base;
+    this.ab = ab;
+    this.leftClosed = (ab.type==Interval.Type.Closed || ab.type==Interval.Type.ClosedOpen);
+    this.rightClosed = (ab.type==Interval.Type.Closed || ab.type==Interval.Type.OpenClosed);
+    this.discrete = (base instanceof DiscreteDistribution);
+    this.lnZ = base.lnP(ab.a, ab.b, ab.type);
+    if (!(lnZ>Double.NEGATIVE_INFINITY))
+      throw new IllegalArgumentException("truncation interval has probability zero");
+    this.Z = exp(lnZ);
+    this.below = (ab.a==Double.NEGATIVE_INFINITY)? 0.0
+        : base.P(Double.NEGATIVE_INFINITY, ab.a, leftClosed? Interval.Type.Open : Interval.Type.OpenClosed);
+    if (discrete) {
+      final DiscreteDistribution d = (DiscreteDistribution)base;
+      final Iterator<Double> it = d.iterator(ab);
+      this.lo = it.hasNext()? it.next() : Math.max(ab.a, base.min());
+      this.hi = lastAtom(d, ab);
+    } else {
+      this.lo = Math.max(ab.a, base.min());
+      this.hi = Math.min(ab.b, base.max());
+    }
+  }
+
+  /** the last atom of d in ab */
+  private static double lastAtom(final DiscreteDistribution d, final Interval ab) {
+    final double m = d.max();
+    if (m<ab.b || (m==ab.b && (ab.type==Interval.Type.Closed || ab.type==Interval.Type.OpenClosed)))
+      return m;
+    final double l = Interval.lastEpsPoint(ab.b, ab.type, 1.0);
+    if (d.isAtom(l) || !d.isFinite()) return l;
+    double last = Double.NaN;
+    for(Iterator<Double> it = d.iterator(ab); it.hasNext(); ) last = it.next();
+    return last;
+  }
+
+  /** returns the distribution of X */
+  public final UVDistribution base() {
+    return base;
+  }
+
+  /** returns the truncation interval */
+  public final Interval interval() {
+    return ab;
+  }
+
+  /** true iff x lies in the truncation interval */
+  private boolean contains(final double x) {
+    return (x>ab.a || (x==ab.a && leftClosed)) && (x<ab.b || (x==ab.b && rightClosed));
+  }
+
+  private static Interval.Type type(final boolean leftClosed, final boolean rightClosed) {
+    return leftClosed? (rightClosed? Interval.Type.Closed : Interval.Type.ClosedOpen)
+        : (rightClosed? Interval.Type.OpenClosed : Interval.Type.Open);
+  }
+
+
+  // =================================================================
+  // densities and probabilities by rescaling
+
+  public double lnf(final double x) {
+    if (Double.isNaN(x)) return x;
+    return contains(x)? base.lnf(x)-lnZ : Double.NEGATIVE_INFINITY;
+  }
+
+  public double lnP(final double x) {
+    if (Double.isNaN(x)) return x;
+    return contains(x)? base.lnP(x)-lnZ : Double.NEGATIVE_INFINITY;
+  }
+
+  // the probability of the intersection of [c,d] (with type t) and ab
+  @Override
+  public double lnP(final double c, final double d, final Interval.Type t) {
+    if (t==Interval.Type.NaN) return Double.NaN;
+    final boolean cc = (t==Interval.Type.Closed || t==Interval.Type.ClosedOpen);
+    final boolean dc = (t==Interval.Type.Closed || t==Interval.Type.OpenClosed);
+    final double l, r;
+    final boolean lc, rc;
+    if (c>ab.a) { l = c; lc = cc; } else if (c<ab.a) { l = ab.a; lc = leftClosed; }
+    else { l = c; lc = cc && leftClosed; }
+    if (d<ab.b) { r = d; rc = dc; } else if (d>ab.b) { r = ab.b; rc = rightClosed; }
+    else { r = d; rc = dc && rightClosed; }
+    if (r<l || (r==l && !(lc && rc))) return Double.NEGATIVE_INFINITY;
+    return base.lnP(l, r, type(lc, rc)) - lnZ;
+  }
+
+  @Override
+  public double P(final double c, final double d, final Interval.Type t) {
+    return exp(lnP(c, d, t));
+  }
+
+  public double lnP(final Interval cd) {
+    return lnP(cd.a, cd.b, cd.type);
+  }
+
+  @Override
+  public double P(final Interval cd) {
+    return exp(lnP(cd.a, cd.b, cd.type));
+  }
+
+  public double lncdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    return lnP(Double.NEGATIVE_INFINITY, x, Interval.Type.OpenClosed);
+  }
+
+  public double lnucdf(final double x) {
+    if (Double.isNaN(x)) return x;
+    return lnP(x, Double.POSITIVE_INFINITY, Interval.Type.ClosedOpen);
+  }
+
+
+  // =================================================================
+  // quantiles and random numbers by inversion
+
+  @Override
+  public double qf(final double p) {
+    return qf(p, accuracy());
+  }
+
+  @Override
+  public double qf(final double p, final AccuracyPolicy acc) {
+    if (p<0 || p>1)
+      throw new IllegalArgumentException("qf(p): p must be in [0,1], is "+Double.toString(p));
+    if (p==0.0) return discrete? Double.NEGATIVE_INFINITY : lo;
+    if (p==1.0) return hi;
+    final double x;
+    if (Z>=MIN_INVERTIBLE) {
+      double y = base.qf(Math.min(below + p*Z, 1.0), acc);
+      if (discrete) {
+        // the rescaling may round across an atom; check the neighbors
+        // (on integer lattices) against the truncated cdf itself
+        if (y>lo && base.isAtom(y-1) && cdf(y-1)>=p) y -= 1;
+        else if (y<hi && base.isAtom(y+1) && cdf(y)<p) y += 1;
+      }
+      x = y;
+    } else if (discrete) {
+      // sum the atoms from the left until the mass reaches p
+      double s = 0.0, last = lo;
+      for(Iterator<Double> it = ((DiscreteDistribution)base).iterator(ab); it.hasNext(); ) {
+        last = it.next();
+        s += exp(base.lnP(last)-lnZ);
+        if (s>=p) break;
+      }
+      x = last;
+    } else {
+      x = qfNumeric(p, 0.0, acc);
+    }
+    return (x<lo)? lo : ((x>hi)? hi : x);
+  }
+
+  // inversion of the base distribution, one quantile at a time
+  @Override
+  void qfAscending(final double[] p, final int m, final double[] q) {
+    qfEach(p, m, q);
+  }
+
+  /** a random number by inversion; every draw lies in the truncation interval */
+  @Override
+  public double random() {
+    double u;
+    do { u = Math.random(); } while (u==0.0);
+    return qf(u);
+  }
+
+
+  // =================================================================
+  // atoms and support
+
+  public boolean isAtom(final double x) {
+    return contains(x) && base.isAtom(x);
+  }
+
+  public double closestAtom(final double x) {
+    if (!discrete) return Double.NaN;
+    if (x<=lo) return lo;
+    if (x>=hi) return hi;
+    final double c = base.closestAtom(x);
+    return (c<lo)? lo : ((c>hi)? hi : c);
+  }
+
+  public boolean isFinite() {
+    return discrete && !Double.isInfinite(lo) && !Double.isInfinite(hi);
+  }
+
+  public double min() {
+    return lo;
+  }
+
+  public double max() {
+    return hi;
+  }
+
+  public Interval support() {
+    if (discrete) return new Interval(lo, hi, Double.isInfinite(hi)? Interval.Type.ClosedOpen : Interval.Type.Closed);
+    return new Interval(lo, hi, type(contains(lo) && !Double.isInfinite(lo), contains(hi) && !Double.isInfinite(hi)));
+  }
+
+
+  // =================================================================
+  // moments (by summation over the atoms for discrete distributions,
+  // by quadrature for continuous ones)
+
+  /** E[(X-c)^k | X in ab] by summation over the atoms or by quadrature, for integer k */
+  private double atomSum(final int k, final double c) {
+    if (!discrete) {
+      return Quadrature.expectation(this, new MathFunctions.RealFunction() {
+        public double valueAt(final double x) { return Math.pow(x-c, k); }
+      }, Quadrature.DEFAULT_TOL);
+    }
+    double s = 0.0, mass = 0.0;
+    for(Iterator<Double> it = ((DiscreteDistribution)base).iterator(ab); it.hasNext(); ) {
+      final double x = it.next();
+      final double p = exp(base.lnP(x)-lnZ);
+      final double t = p*Math.pow(x-c, k);
+      s += t;
+      mass += p;
+      if (mass>=1.0-1E-15 && abs(t)<=1E-17*abs(s)) break;
+    }
+    return s;
+  }
+
+  public double moment(final double m) {
+    if (m<0 || m!=floor(m))
+      throw new IllegalArgumentException("moment(m): m must be a nonnegative integer, is "+m);
+    if (m==0) return 1.0;
+    return atomSum((int)m, 0.0);
+  }
+
+  public double cmoment(final double c) {
+    if (c<0 || c!=floor(c))
+      throw new IllegalArgumentException("cmoment(c): c must be a nonnegative integer, is "+c);
+    if (c==0) return 1.0;
+    if (c==1) return 0.0;
+    return atomSum((int)c, E());
+  }
+
+}
@@ -51,6 +51,39 @@ public interface UVDistribution extends Distribution {
    */
   public double lnP(final Interval ab);  // new for UVDistribution
 
+  /** probability mass in the interval with boundaries a, b and type t.
+   * This is the same as P(new Interval(a,b,t)), but avoids creating the
+   * interval object; implementations should not allocate.
+   *@param a  left boundary
+   *@param b  right boundary
+   *@param t  interval type
+   *@return total probability mass in the interval
+   */
+  public double P(final double a, final double b, final Interval.Type t);
+
+  /** logarithm of the probability mass in the interval with boundaries a, b
+   * and type t; the same as lnP(new Interval(a,b,t)), without creating the interval.
+   *@param a  left boundary
+   *@param b  right boundary
+   *@param t  interval type
+   *@return log of the total probability mass in the interval
+   */
+  public double lnP(final double a, final double b, final Interval.Type t);
+
+  /** logarithmized density at many points:
+   * out[i] = lnf(x[i]) for all i in 0..x.length-1.
+   *@param x  the points
+   *@param out  the array that receives the results (length &gt;= x.length)
+   */
+  public void lnf(final double[] x, final double[] out);
+
+  /** logarithmized probability mass at many points:
+   * out[i] = lnP(x[i]) for all i in 0..x.length-1.
+   *@param x  the points
+   *@param out  the array that receives the results (length &gt;= x.length)
+   */
+  public void lnP(final double[] x, final double[] out);
+
   /** expectation */
   public double E();
   
@@ -111,6 +144,37 @@ public interface UVDistribution extends Distribution {
    *
    */
   public double qf(final double p);
+
+  /** quantile function at many probabilities:
+   * out[i] = qf(p[i]) for all i in 0..p.length-1.
+   *@param p  the probabilities
+   *@param out  the array that receives the results (length &gt;= p.length)
+   */
+  public void qf(final double[] p, final double[] out);
+
+  /** cdf at the given accuracy; see AccuracyPolicy.
+   * Distributions without a cheaper evaluation return cdf(x).
+   */
+  public double cdf(final double x, final AccuracyPolicy acc);
+
+  /** ucdf at the given accuracy; see AccuracyPolicy.
+   * Distributions without a cheaper evaluation return ucdf(x).
+   */
+  public double ucdf(final double x, final AccuracyPolicy acc);
+
+  /** quantile function at the given accuracy; see AccuracyPolicy.
+   * Distributions without a cheaper evaluation return qf(p).
+   */
+  public double qf(final double p, final AccuracyPolicy acc);
+
+  /** the accuracy policy of cdf(x), ucdf(x) and qf(p) */
+  public AccuracyPolicy accuracy();
+
+  /** sets the accuracy policy of cdf(x), ucdf(x) and qf(p) for this instance;
+   * the default is AccuracyPolicy.FULL.
+   *@param acc  the policy
+   */
+  public void setAccuracy(final AccuracyPolicy acc);
   
   /** markers for Box-Whisker plot  */
   public double[] boxPlotStatistics();
@@ -126,6 +190,14 @@ public interface UVDistribution extends Distribution {
   
   /** generate n random numbers from this distribution */
   public double[] random(final int n);
+
+  /** generate n random numbers from this distribution by inversion,
+   * with the uniform numbers chosen according to the given mode.
+   *@param n  the sample size
+   *@param mode  IID, STRATIFIED or SOBOL
+   *@return the sample
+   */
+  public double[] random(final int n, final SamplingMode mode);
     
   
 }
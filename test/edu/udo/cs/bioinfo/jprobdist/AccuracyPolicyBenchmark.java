@@ -0,0 +1,101 @@
+/*
+ * AccuracyPolicyBenchmark.java
+ *
+ * Created on October 18, 2026
+ *
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+/**
+ * Produces the speed and error table in the documentation of AccuracyPolicy.
+ * Not a unit test; run it with
+ * <pre>
+ *   java edu.udo.cs.bioinfo.jprobdist.AccuracyPolicyBenchmark [points] [rounds]
+ * </pre>
+ * For each row and policy, it prints the nanoseconds per call (best of all
+ * rounds, after one warm-up round) and the largest relative deviation from
+ * FULL. The points are the FULL quantiles of probabilities spread evenly over
+ * the central 99.9% of the mass; cdf is evaluated below the median and ucdf
+ * above it, and qf is evaluated at the probabilities themselves.
+ *
+ * @author Sven Rahmann
+ */
+public class AccuracyPolicyBenchmark {
+
+  private AccuracyPolicyBenchmark() {
+  }
+
+  /** the quantity that is timed */
+  private static abstract class Row {
+    final String name;
+    final UVDistribution d;
+    Row(final String name, final UVDistribution d) { this.name = name; this.d = d; }
+    abstract double eval(double u, double x, AccuracyPolicy acc);
+  }
+
+  private static Row tail(final String name, final UVDistribution d) {
+    return new Row(name+".cdf", d) {
+      double eval(final double u, final double x, final AccuracyPolicy acc) {
+        return (u>0.5)? d.ucdf(x, acc) : d.cdf(x, acc);
+      }
+    };
+  }
+
+  private static Row quantile(final String name, final UVDistribution d) {
+    return new Row(name+".qf", d) {
+      double eval(final double u, final double x, final AccuracyPolicy acc) {
+        return d.qf(u, acc);
+      }
+    };
+  }
+
+  private static volatile double sink;
+
+  public static void main(final String[] args) {
+    final int n = (args.length>0)? Integer.parseInt(args[0]) : 2000;
+    final int rounds = (args.length>1)? Integer.parseInt(args[1]) : 5;
+    final Row[] rows = {
+      tail("Gamma(1E6,1)", new GammaDistribution(1E6, 1.0)),
+      tail("Gamma(50,1)", new GammaDistribution(50.0, 1.0)),
+      quantile("Gamma(1E5,1)", new GammaDistribution(1E5, 1.0)),
+      tail("Poisson(1E4)", new PoissonDistribution(1E4)),
+      tail("Poisson(1E6)", new PoissonDistribution(1E6)),
+      tail("Binomial(1E5,0.3)", new BinomialDistribution(100000, 0.3)),
+      quantile("Beta(20,30)", new BetaDistribution(20.0, 30.0)),
+      tail("NegBinomial(5,0.01)", new NegativeBinomialDistribution(5.0, 0.01))
+    };
+    final AccuracyPolicy[] policies = AccuracyPolicy.values();
+    System.out.printf("%-24s", "");
+    for(AccuracyPolicy acc: policies) System.out.printf("%18s", acc);
+    System.out.println();
+    for(Row row: rows) {
+      final double[] u = new double[n], x = new double[n], full = new double[n];
+      for(int i=0; i<n; i++) {
+        u[i] = 0.0005 + 0.999*i/(n-1.0);
+        x[i] = row.d.qf(u[i], AccuracyPolicy.FULL);
+        full[i] = row.eval(u[i], x[i], AccuracyPolicy.FULL);
+      }
+      System.out.printf("%-24s", row.name);
+      for(AccuracyPolicy acc: policies) {
+        double err = 0.0, s = 0.0;
+        long best = Long.MAX_VALUE;
+        for(int r=0; r<=rounds; r++) {
+          final long t0 = System.nanoTime();
+          for(int i=0; i<n; i++) {
+            final double v = row.eval(u[i], x[i], acc);
+            s += v;
+            if (r==0) err = Math.max(err, Math.abs(v/full[i]-1.0));
+          }
+          final long t = System.nanoTime()-t0;
+          if (r>0) best = Math.min(best, t);
+        }
+        sink = s;
+        if (acc==AccuracyPolicy.FULL) System.out.printf("%18d", best/n);
+        else System.out.printf("%10d / %5.0E", best/n, err);
+      }
+      System.out.println();
+    }
+  }
+
+}
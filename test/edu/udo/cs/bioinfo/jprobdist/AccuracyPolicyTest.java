@@ -0,0 +1,98 @@
+/*
+ * AccuracyPolicyTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class AccuracyPolicyTest extends TestCase {
+
+  public AccuracyPolicyTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  /** largest relative deviation of the smaller tail from FULL */
+  private static double deviation(final UVDistribution d, final AccuracyPolicy acc) {
+    double e = 0.0;
+    for(int i=1; i<200; i++) {
+      final double u = 0.001 + 0.998*i/200.0;
+      final double x = d.qf(u);
+      final double r = (u>0.5)? d.ucdf(x, AccuracyPolicy.FULL) : d.cdf(x, AccuracyPolicy.FULL);
+      final double v = (u>0.5)? d.ucdf(x, acc) : d.cdf(x, acc);
+      e = Math.max(e, Math.abs(v/r-1.0));
+    }
+    return e;
+  }
+
+  public void testTolerances() {
+    final UVDistribution[] ds = { new GammaDistribution(1E6, 2.0), new GammaDistribution(3.5, 1.0),
+        new PoissonDistribution(1E5), new BinomialDistribution(100000, 0.3),
+        new BetaDistribution(20, 30), new NegativeBinomialDistribution(5, 0.01) };
+    for(UVDistribution d: ds) {
+      assertEquals(d.cdf(3.0), d.cdf(3.0, AccuracyPolicy.FULL), 0.0);
+      assertTrue(d.toString(), deviation(d, AccuracyPolicy.HIGH) < 3*AccuracyPolicy.HIGH.tol);
+      assertTrue(d.toString(), deviation(d, AccuracyPolicy.FAST) < 3*AccuracyPolicy.FAST.tol);
+    }
+  }
+
+  public void testInstancePolicy() {
+    final GammaDistribution g = new GammaDistribution(1E6, 1.0);
+    assertEquals(AccuracyPolicy.FULL, g.accuracy());
+    final double x = 1E6+1500.0, c = g.cdf(x), q = g.qf(0.3);
+    g.setAccuracy(AccuracyPolicy.FAST);
+    assertEquals(g.cdf(x, AccuracyPolicy.FAST), g.cdf(x), 0.0);
+    assertEquals(c, g.cdf(x), 1E-6*(1.0-c));
+    assertEquals(q, g.qf(0.3), 1E-6*q);
+    assertEquals(q, g.qf(0.3, AccuracyPolicy.FULL), 1E-12*q);
+    // a generic quantile by bisection stops at the policy's tolerance
+    final MixtureDistribution m = new MixtureDistribution(new double[] {0.5, 0.5},
+        new GammaDistribution(2.0, 1.0), new GammaDistribution(9.0, 1.0));
+    final double mq = m.qf(0.7);
+    m.setAccuracy(AccuracyPolicy.HIGH);
+    assertEquals(mq, m.qf(0.7), 1E-9*mq);
+    // a per-call policy applies even if the instance policy is FULL
+    final int[] calls = new int[1];
+    final MixtureDistribution f = new MixtureDistribution(new double[] {0.5, 0.5},
+        new GammaDistribution(2.0, 1.0), new GammaDistribution(9.0, 1.0)) {
+      public double cdf(final double x, final AccuracyPolicy acc) {
+        calls[0]++;
+        return super.cdf(x, acc);
+      }
+    };
+    assertEquals(AccuracyPolicy.FULL, f.accuracy());
+    final double fq = f.qf(0.7);
+    final int fullCalls = calls[0];
+    calls[0] = 0;
+    final double fastq = f.qf(0.7, AccuracyPolicy.FAST);
+    assertEquals(fq, fastq, 2*AccuracyPolicy.FAST.tol*fq);
+    assertTrue(fullCalls+" vs "+calls[0], calls[0] < fullCalls-10);
+    assertEquals(AccuracyPolicy.FULL, f.accuracy());
+    // discrete families take the policy through their lattice search
+    final PoissonDistribution pois = new PoissonDistribution(1E5);
+    final NegativeBinomialDistribution nb = new NegativeBinomialDistribution(5, 0.01);
+    for(double p: new double[] {0.01, 0.3, 0.5, 0.9}) {
+      assertEquals(pois.qf(p), pois.qf(p, AccuracyPolicy.HIGH), 0.0);
+      assertEquals(nb.qf(p), nb.qf(p, AccuracyPolicy.HIGH), 0.0);
+      assertEquals(pois.qf(p), pois.qf(p, AccuracyPolicy.FAST), 1.0);
+    }
+    try {
+      g.setAccuracy(null);
+      fail("null policy accepted");
+    } catch (IllegalArgumentException e) { }
+  }
+
+}
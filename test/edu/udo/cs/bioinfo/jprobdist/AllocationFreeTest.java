@@ -0,0 +1,93 @@
+/*
+ * AllocationFreeTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that the scalar evaluation paths of the Binomial and Poisson
+ * distributions do not allocate. Each operation is first run often enough
+ * to be JIT-compiled; then the bytes allocated by the current thread
+ * during a measured run are read from the JVM's allocation counter
+ * (com.sun.management.ThreadMXBean) and divided by the number of operations.
+ *
+ * @author Sven Rahmann
+ */
+public class AllocationFreeTest extends TestCase {
+
+  private static final int WARMUP = 200000;
+  private static final int RUNS = 100000;
+
+  /** result sink, so that the JIT cannot remove the evaluations */
+  private double sink;
+
+  public AllocationFreeTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  /** an operation on a distribution at argument x */
+  private static interface Op {
+    double apply(UVDistribution d, double x);
+  }
+
+  private static final String[] NAMES = {"f", "lnP", "cdf", "ucdf", "qf", "P(a,b,t)"};
+  private static final Op[] OPS = {
+    new Op() { public double apply(UVDistribution d, double x) { return d.f(x); } },
+    new Op() { public double apply(UVDistribution d, double x) { return d.lnP(x); } },
+    new Op() { public double apply(UVDistribution d, double x) { return d.cdf(x); } },
+    new Op() { public double apply(UVDistribution d, double x) { return d.ucdf(x); } },
+    new Op() { public double apply(UVDistribution d, double x) { return d.qf((x+0.5)/64.0); } },
+    new Op() { public double apply(UVDistribution d, double x) {
+      return d.P(x, x+7, Interval.Type.ClosedOpen); } },
+  };
+
+  /** bytes allocated per call of op on d */
+  private double bytesPerOp(final UVDistribution d, final Op op) {
+    final com.sun.management.ThreadMXBean mx =
+        (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    final long tid = Thread.currentThread().getId();
+    double s = 0.0;
+    for(int i=0; i<WARMUP; i++) s += op.apply(d, i&63);
+    final long before = mx.getThreadAllocatedBytes(tid);
+    for(int i=0; i<RUNS; i++) s += op.apply(d, i&63);
+    final long after = mx.getThreadAllocatedBytes(tid);
+    sink += s;
+    return (double)(after-before)/RUNS;
+  }
+
+  private void checkAllocationFree(final UVDistribution d) {
+    final java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+    if (!(mx instanceof com.sun.management.ThreadMXBean)
+        || !((com.sun.management.ThreadMXBean)mx).isThreadAllocatedMemorySupported()) {
+      System.out.println("allocation counter not supported by this JVM; skipped");
+      return;
+    }
+    for(int j=0; j<OPS.length; j++) {
+      final double b = bytesPerOp(d, OPS[j]);
+      System.out.printf("%s.%s: %.3f bytes/op%n", d.getClass().getSimpleName(), NAMES[j], b);
+      // a few bytes of slack for the measurement itself
+      assertTrue(NAMES[j]+" allocates "+b+" bytes per call", b<0.01);
+    }
+  }
+
+  public void testBinomial() {
+    checkAllocationFree(new BinomialDistribution(60, 0.35));
+  }
+
+  public void testPoisson() {
+    checkAllocationFree(new PoissonDistribution(17.5));
+  }
+
+}
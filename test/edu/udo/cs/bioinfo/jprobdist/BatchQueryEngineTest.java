@@ -0,0 +1,97 @@
+/*
+ * BatchQueryEngineTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import edu.udo.cs.bioinfo.jprobdist.BatchQueryEngine.Operation;
+import edu.udo.cs.bioinfo.jprobdist.BatchQueryEngine.Query;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class BatchQueryEngineTest extends TestCase {
+
+  public BatchQueryEngineTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  private static double direct(final Query q) {
+    final UVDistribution d = q.dist;
+    switch(q.op) {
+      case F:      return d.f(q.x);
+      case LNF:    return d.lnf(q.x);
+      case P:      return d.P(q.x);
+      case LNP:    return d.lnP(q.x);
+      case CDF:    return d.cdf(q.x);
+      case LNCDF:  return d.lncdf(q.x);
+      case UCDF:   return d.ucdf(q.x);
+      case LNUCDF: return d.lnucdf(q.x);
+      default:     return d.qf(q.x);
+    }
+  }
+
+  public void testMixedBatch() {
+    final int n = 50000;
+    final Operation[] ops = Operation.values();
+    final Query[] q = new Query[n];
+    for(int i=0; i<n; i++) {
+      // fresh instances with few distinct parameters: 3+4+2 groups
+      final UVDistribution d;
+      switch(i%3) {
+        case 0:  d = new PoissonDistribution(2.5*(1+(i/3)%3)); break;
+        case 1:  d = new BinomialDistribution(40+10*(i%4), 0.3); break;
+        default: d = new GammaDistribution(2.0+(i%2), 1.5);
+      }
+      final Operation op = ops[(i/7)%ops.length];
+      final double x = (op==Operation.QF)? Math.random() : Math.floor(Math.random()*30);
+      q[i] = new Query(d, op, x);
+    }
+    final double[] out = new double[n];
+    final BatchQueryEngine e = new BatchQueryEngine();
+    final BatchQueryEngine.Metrics m = e.evaluate(q, out);
+    assertEquals(n, m.queries);
+    assertEquals(9, m.groups);
+    assertTrue(m.queriesPerSecond()>0);
+    for(int i=0; i<n; i++) {
+      final double r = direct(q[i]);
+      if (Double.isInfinite(r)) assertEquals(r, out[i], 0.0);
+      else assertEquals(q[i].op+" "+q[i].x, r, out[i], 1E-12*Math.max(1.0, Math.abs(r)));
+    }
+    e.evaluate(new Query[] {q[0]}, new double[1]);
+    assertEquals(n+1, e.metrics().queries);
+  }
+
+  public void testGrouping() {
+    final PoissonDistribution a = new PoissonDistribution(3.0), b = new PoissonDistribution(3.0);
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+    assertFalse(a.equals(new PoissonDistribution(3.5)));
+    assertEquals(new BinomialDistribution(10, 0.25), new BinomialDistribution(10, 0.25));
+    assertFalse(new GammaDistribution(2.0, 2.0).equals(new ChiSquareDistribution(4)));
+    // a different accuracy policy makes a separate group
+    b.setAccuracy(AccuracyPolicy.HIGH);
+    final Query[] q = { new Query(a, Operation.CDF, 2), new Query(b, Operation.CDF, 2),
+        new Query(a, Operation.QF, 0.5) };
+    final double[] out = new double[3];
+    assertEquals(2, new BatchQueryEngine().evaluate(q, out).groups);
+    assertEquals(a.cdf(2), out[0], 0.0);
+    assertEquals(a.qf(0.5), out[2], 0.0);
+    try {
+      new Query(a, Operation.QF, 1.5);
+      fail("invalid probability accepted");
+    } catch (IllegalArgumentException e) { }
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * BetaDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class BetaDistributionTest extends TestCase {
+
+  public BetaDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testPowerLaw() {
+    // Beta(a,1) has cdf x^a
+    final BetaDistribution d = new BetaDistribution(3.5, 1.0);
+    for(int i=1; i<20; i++) {
+      final double p = i/20.0;
+      assertEquals(Math.pow(p, 3.5), d.cdf(p), 1E-12);
+      assertEquals(Math.pow(p, 1/3.5), d.qf(p), 1E-12);
+      assertEquals(3.5*Math.pow(p, 2.5), d.f(p), 1E-12);
+    }
+  }
+
+  public void testQuantilesInvertCdf() {
+    final double[][] params = {{0.1, 0.1}, {0.5, 3.0}, {2.0, 3.0}, {30.0, 1.5}, {1E4, 2E4}};
+    final double[] ps = {1E-10, 1E-4, 0.1, 0.5, 0.9, 1-1E-4, 1-1E-10};
+    for (double[] q : params) {
+      final BetaDistribution d = new BetaDistribution(q[0], q[1]);
+      for (double p : ps) {
+        final double x = d.qf(p);
+        if (x==1.0) continue;   // the quantile is closer to 1 than the double resolution
+        final String msg = "Beta("+q[0]+","+q[1]+"), p "+p;
+        if (p<=0.5) assertEquals(msg, p, d.cdf(x), 1E-9*p);
+        else assertEquals(msg, 1-p, d.ucdf(x), 1E-8*(1-p));
+      }
+    }
+  }
+
+  public void testQuantilesFarTails() {
+    assertEquals(1.06E-14, new BetaDistribution(18.024, 1.1418).cdf(
+        new BetaDistribution(18.024, 1.1418).qf(1.06E-14)), 1E-22);
+    assertEquals(1.31E-14, new BetaDistribution(1.29, 210.6).cdf(
+        new BetaDistribution(1.29, 210.6).qf(1.31E-14)), 1E-22);
+    assertEquals(1.32E-14, new BetaDistribution(1.63, 291.6).cdf(
+        new BetaDistribution(1.63, 291.6).qf(1.32E-14)), 1E-22);
+    final double[] shapes = {0.01, 0.3, 1.0, 1.1418, 3.0, 18.024, 210.6, 5E3};
+    for (double a : shapes) {
+      for (double b : shapes) {
+        final BetaDistribution d = new BetaDistribution(a, b);
+        final String msg = "Beta("+a+","+b+")";
+        final double x = d.qf(1E-14);
+        if (x>=MathFunctions.DBL_MIN_NORMAL) assertEquals(msg, 1E-14, d.cdf(x), 1E-9*1E-14);
+        // near 1, x has an absolute resolution of 1.1E-16, so compare the
+        // ucdf with its values at the neighboring doubles
+        final double p = 1-1E-14, y = d.qf(p);
+        final double lower = d.ucdf(Math.nextUp(y)), upper = d.ucdf(Math.nextDown(y));
+        assertTrue(msg+" "+y, lower*(1-1E-9)<=1-p && 1-p<=upper*(1+1E-9) || y==1.0);
+      }
+    }
+  }
+
+  public void testMoments() {
+    final BetaDistribution d = new BetaDistribution(2.0, 5.0);
+    assertEquals(2.0/7.0, d.E(), 1E-15);
+    assertEquals(d.E(), d.moment(1), 1E-12);
+    assertEquals(d.Var(), d.cmoment(2), 1E-14);
+    assertEquals(d.skewness(), d.cmoment(3)/Math.pow(d.Var(),1.5), 1E-9);
+    assertEquals(d.kurtosisExcess(), d.cmoment(4)/(d.Var()*d.Var())-3.0, 1E-9);
+    try {
+      d.cmoment(2.5);
+      fail("non-integer central moment accepted");
+    } catch (IllegalArgumentException e) { }
+  }
+
+  public void testRandom() {
+    // both of Cheng's algorithms, in both orientations
+    final double[][] params = {{0.4, 0.7}, {0.7, 3.0}, {3.0, 0.7}, {2.0, 5.0}, {8.0, 1.5}};
+    for (double[] q : params) {
+      final BetaDistribution d = new BetaDistribution(q[0], q[1]);
+      final int n = 100000;
+      double s = 0.0, ss = 0.0;
+      for(int i=0; i<n; i++) {
+        final double x = d.random();
+        assertTrue(x>=0 && x<=1);
+        s += x; ss += x*x;
+      }
+      final double mean = s/n, var = ss/n-mean*mean;
+      assertEquals(d.E(), mean, 5*d.std()/Math.sqrt(n));
+      assertEquals(d.Var(), var, 0.05*d.Var());
+    }
+  }
+
+  public void testEquality() {
+    final BetaDistribution d = new BetaDistribution(2.0, 5.0);
+    assertEquals(d, new BetaDistribution(2.0, 5.0));
+    assertEquals(d.hashCode(), new BetaDistribution(2.0, 5.0).hashCode());
+    // the mirrored distribution is a different one
+    assertFalse(d.equals(new BetaDistribution(5.0, 2.0)));
+    assertFalse(d.hashCode()==new BetaDistribution(5.0, 2.0).hashCode());
+    assertFalse(d.equals(new BetaDistribution(2.0, 5.5)));
+    assertFalse(d.equals(null));
+    assertFalse(d.equals(new GammaDistribution(2.0, 5.0)));
+  }
+
+}
@@ -68,6 +68,65 @@ public class BinomialDistributionTest extends TestCase {
     
   }
   
-  
+  public void testLogTails() {
+    // cdf and ucdf agree with the summed probabilities
+    final BinomialDistribution b = new BinomialDistribution(200, 0.15);
+    for(int k=0; k<=200; k+=9) {
+      final double c = b.P(0, k, Interval.Type.Closed);
+      final double u = b.P(k, 200, Interval.Type.Closed);
+      assertEquals(c, b.cdf(k), 1E-9*c);
+      assertEquals(u, b.ucdf(k), 1E-9*u);
+      assertEquals(log(c), b.lncdf(k+0.5), 1E-9);
+      assertEquals(log(u), b.lnucdf(k-0.5), 1E-9);
+    }
+    // extreme tails stay finite in log space
+    final BinomialDistribution e = new BinomialDistribution(2000, 0.01);
+    for(int k=500; k<=2000; k+=250) {
+      assertEquals(0.0, e.ucdf(k), 0.0);
+      final double lu = e.lnucdf(k);
+      assertTrue(lu>Double.NEGATIVE_INFINITY);
+      assertEquals(e.lnP(k, 2000, Interval.Type.Closed), lu, 1E-9*abs(lu));
+    }
+    final BinomialDistribution f = new BinomialDistribution(2000, 1.0, 0.01);
+    final double lc = f.lncdf(100);
+    assertEquals(f.lnP(0, 100, Interval.Type.Closed), lc, 1E-9*abs(lc));
+    assertEquals(Double.NEGATIVE_INFINITY, e.lncdf(-1), 0.0);
+    assertEquals(0.0, e.lncdf(2000), 0.0);
+    assertEquals(Double.NEGATIVE_INFINITY, e.lnucdf(2001), 0.0);
+  }
+
+  public void testLargeN() {
+    // reference values computed to 20 digits
+    assertEquals(-7.04637025154653910002, new BinomialDistribution(1000000, 0.3).lnP(300000), 1E-14);
+    assertEquals(-9.42676333801385977051, new BinomialDistribution(1000000, 0.3).lnP(301000), 1E-14);
+    assertEquals(-11.4361317204542434484, new BinomialDistribution(100000000, 0.5).lnP(49990000), 2E-14);
+    assertEquals(-15.1673993698097935972, new BinomialDistribution(5000, 0.001).lnP(20), 2E-14);
+    final BinomialDistribution b = new BinomialDistribution(30, 0.4);
+    double s = 0.0;
+    for(int x=0; x<=30; x++) s += b.P(x);
+    assertEquals(1.0, s, 1E-15);
+    assertEquals(lnbincoeffExact(30, 7)+7*log(0.4)+23*log(0.6), b.lnP(7), 1E-14);
+  }
+
+  private static double lnbincoeffExact(final int n, final int k) {
+    double c = 1.0;
+    for(int i=1; i<=k; i++) c = c*(n-k+i)/i;
+    return log(c);
+  }
+
+  public void testEquality() {
+    final BinomialDistribution d = new BinomialDistribution(10, 0.3);
+    assertEquals(d, new BinomialDistribution(10, 0.3));
+    assertEquals(d.hashCode(), new BinomialDistribution(10, 0.3).hashCode());
+    assertFalse(d.equals(new BinomialDistribution(11, 0.3)));
+    assertFalse(d.equals(new BinomialDistribution(10, 0.4)));
+    assertFalse(d.equals(null));
+    assertFalse(d.equals(new PoissonDistribution(3.0)));
+    // 1-q rounds to 1 for both, but q tells them apart
+    final BinomialDistribution e = new BinomialDistribution(10, 1.0, 1E-20);
+    assertEquals(e, new BinomialDistribution(10, 1.0, 1E-20));
+    assertEquals(e.hashCode(), new BinomialDistribution(10, 1.0, 1E-20).hashCode());
+    assertFalse(e.equals(new BinomialDistribution(10, 1.0, 2E-20)));
+  }
 
 }
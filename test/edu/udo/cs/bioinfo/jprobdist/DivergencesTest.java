@@ -0,0 +1,109 @@
+/*
+ * DivergencesTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import edu.udo.cs.bioinfo.jprobdist.Divergences.Measure;
+import static java.lang.Math.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class DivergencesTest extends TestCase {
+
+  public DivergencesTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  /** the distribution tabulated on the atoms 0..n, which is enumerated */
+  private static TabulatedFiniteDistribution tabulate(final UVDistribution d, final int n) {
+    final double[] x = new double[n+1], p = new double[n+1];
+    for(int k=0; k<=n; k++) { x[k] = k; p[k] = d.P(k); }
+    return new TabulatedFiniteDistribution(x, p);
+  }
+
+  public void testClosedForms() {
+    final UVDistribution[][] pairs = {
+      { new PoissonDistribution(3.0), new PoissonDistribution(5.5) },
+      { new PoissonDistribution(7.0), new PoissonDistribution(6.2) },
+      { new BinomialDistribution(40, 0.3), new BinomialDistribution(40, 0.35) },
+      { new BinomialDistribution(60, 0.9), new BinomialDistribution(60, 0.5) },
+    };
+    for(UVDistribution[] pq: pairs) {
+      final UVDistribution tp = tabulate(pq[0], 80), tq = tabulate(pq[1], 80);
+      for(Measure m: Measure.values()) {
+        final double c = Divergences.compute(m, pq[0], pq[1]);
+        assertEquals(m.toString(), Divergences.compute(m, tp, tq), c, 1E-10);
+        assertTrue(c>0);
+      }
+    }
+    final PoissonDistribution p = new PoissonDistribution(4.0);
+    assertEquals(0.0, Divergences.kl(p, p), 0.0);
+    assertEquals(0.0, Divergences.totalVariation(p, new PoissonDistribution(4.0)), 0.0);
+    assertEquals(Double.POSITIVE_INFINITY, Divergences.kl(p, new PoissonDistribution(0.0)), 0.0);
+  }
+
+  public void testEnumeration() {
+    final NegativeBinomialDistribution a = new NegativeBinomialDistribution(3.0, 0.5);
+    final NegativeBinomialDistribution b = new NegativeBinomialDistribution(4.0, 0.3);
+    double kl = 0.0, tv = 0.0;
+    for(int k=0; k<2000; k++) {
+      kl += a.P(k)*(a.lnP(k)-b.lnP(k));
+      tv += 0.5*abs(a.P(k)-b.P(k));
+    }
+    assertEquals(kl, Divergences.kl(a, b), 1E-12);
+    assertEquals(tv, Divergences.totalVariation(a, b), 1E-12);
+    assertEquals(a.entropy()+kl, Divergences.crossEntropy(a, b), 1E-12);
+    assertEquals(Divergences.jensenShannon(a, b), Divergences.jensenShannon(b, a), 1E-14);
+    assertEquals(0.0, Divergences.hellinger(a, a), 1E-7);
+    // disjoint supports
+    final TabulatedFiniteDistribution u = new TabulatedFiniteDistribution(new double[] {0.5, 1.5}, new double[] {0.5, 0.5});
+    assertEquals(1.0, Divergences.totalVariation(a, u), 1E-14);
+    assertEquals(log(2.0), Divergences.jensenShannon(a, u), 1E-12);
+    assertEquals(Double.POSITIVE_INFINITY, Divergences.kl(a, u), 0.0);
+    // the support of p extends beyond that of q only in the far tail
+    final PoissonDistribution pois = new PoissonDistribution(10.0);
+    final BinomialDistribution bin = new BinomialDistribution(50, 0.2);
+    assertEquals(Double.POSITIVE_INFINITY, Divergences.kl(pois, bin), 0.0);
+    assertEquals(Double.POSITIVE_INFINITY, Divergences.crossEntropy(pois, bin), 0.0);
+    assertTrue(Divergences.kl(bin, pois)<Double.POSITIVE_INFINITY);
+    final double[] out = new double[1];
+    Divergences.compute(Divergences.Measure.KL, pois, new UVDistribution[] {bin}, out);
+    assertEquals(Double.POSITIVE_INFINITY, out[0], 0.0);
+  }
+
+  public void testDensities() {
+    // KL of Gamma(a1,b1) from Gamma(a2,b2), b the scale
+    final GammaDistribution g = new GammaDistribution(2.0, 1.0), h = new GammaDistribution(3.0, 1.5);
+    final double psi2 = 1.0 - 0.5772156649015329;
+    final double kl = -psi2 + MathFunctions.lngamma(3.0) + 3*log(1.5) + 2*(1.0-1.5)/1.5;
+    assertEquals(kl, Divergences.kl(g, h), 1E-8);
+    assertEquals(0.0, Divergences.totalVariation(g, g), 1E-12);
+    assertEquals(1.0, Divergences.totalVariation(g, new PoissonDistribution(2.0)), 0.0);
+  }
+
+  public void testBulk() {
+    final NegativeBinomialDistribution ref = new NegativeBinomialDistribution(10.0, 0.2);
+    final UVDistribution[] q = new UVDistribution[200];
+    for(int i=0; i<q.length; i++)
+      q[i] = (i%2==0)? new NegativeBinomialDistribution(5.0+0.1*i, 0.2) : new PoissonDistribution(5.0+0.1*i);
+    final double[] out = new double[q.length];
+    for(Measure m: new Measure[] {Measure.KL, Measure.HELLINGER}) {
+      Divergences.compute(m, ref, q, out);
+      for(int i=0; i<q.length; i+=7) assertEquals(Divergences.compute(m, ref, q[i]), out[i], 0.0);
+    }
+  }
+
+}
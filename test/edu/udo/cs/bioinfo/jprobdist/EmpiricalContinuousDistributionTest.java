@@ -0,0 +1,99 @@
+/*
+ * EmpiricalContinuousDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class EmpiricalContinuousDistributionTest extends TestCase {
+
+  public EmpiricalContinuousDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testSmallSample() {
+    final EmpiricalContinuousDistribution d =
+      new EmpiricalContinuousDistribution(new double[] {4, 0, 2, 1});
+    assertEquals(0.0, d.min(), 0.0);
+    assertEquals(4.0, d.max(), 0.0);
+    assertEquals(1.5, d.qf(0.5), 0.0);
+    assertEquals(2.5/3, d.cdf(3.0), 1E-15);
+    assertEquals(0.5/3, d.ucdf(3.0), 1E-15);
+    assertEquals(0.0, d.cdf(-1.0), 0.0);
+    assertEquals(1.0, d.cdf(4.0), 0.0);
+    assertEquals(1.0/6, d.f(3.0), 1E-15);
+    assertEquals(5.0/3, d.E(), 1E-15);
+    assertEquals(11.0/9, d.Var(), 1E-14);
+    assertEquals(d.Var(), d.moment(2)-d.E()*d.E(), 1E-14);
+    final double mu = d.E();
+    final double cm3 = d.moment(3) - 3*mu*d.moment(2) + 2*mu*mu*mu;
+    assertEquals(cm3, d.cmoment(3), 1E-12);
+    // ties: the cdf jumps over tied values
+    final EmpiricalContinuousDistribution t =
+      new EmpiricalContinuousDistribution(new double[] {0, 1, 1, 1, 2});
+    assertEquals(0.75, t.cdf(1.0), 0.0);
+    assertEquals(0.25, t.cdf(Math.nextDown(1.0)), 1E-15);
+    assertEquals(0.25, t.ucdf(1.0), 0.0);
+    assertEquals(1.0, t.qf(0.5), 0.0);
+    // the moments count the jump as a point mass, but P(x) stays 0
+    assertEquals(0.0, t.P(1.0), 0.0);
+    assertEquals(1.0, t.E(), 1E-15);
+    assertEquals(0.5*(1.0/3), t.Var(), 1E-15);
+    // the jump belongs to an interval that ends at 1, not to one that starts there
+    assertEquals(0.75, t.P(0.0, 1.0, Interval.Type.Open), 1E-15);
+    assertEquals(0.25, t.P(1.0, 2.0, Interval.Type.Closed), 1E-15);
+  }
+
+  public void testNonIntegerMoments() {
+    final EmpiricalContinuousDistribution d =
+      new EmpiricalContinuousDistribution(new double[] {4, 0, 2, 1});
+    try {
+      d.moment(2.5);
+      fail("non-integer moment accepted");
+    } catch (IllegalArgumentException e) { }
+    try {
+      d.cmoment(0.5);
+      fail("non-integer central moment accepted");
+    } catch (IllegalArgumentException e) { }
+    try {
+      d.cmoment(-2.0);
+      fail("negative central moment accepted");
+    } catch (IllegalArgumentException e) { }
+  }
+
+  public void testLargeSample() {
+    final int n = 200000;
+    final double[] x = new double[n];
+    for(int i=0; i<n; i++) x[i] = Math.random()+Math.random()+Math.random();
+    final EmpiricalContinuousDistribution d = new EmpiricalContinuousDistribution(x);
+    assertEquals(n, d.size());
+    assertEquals(1.5, d.E(), 0.02);
+    assertEquals(0.25, d.Var(), 0.01);
+    for(double p=0.0; p<=1.0; p+=1.0/64) {
+      final double q = d.qf(p);
+      assertEquals(p, d.cdf(q), 1E-12);
+    }
+    final EmpiricalContinuousDistribution g = EmpiricalContinuousDistribution.withGrid(x, 1000);
+    assertEquals(1001, g.size());
+    assertEquals(d.min(), g.min(), 0.0);
+    assertEquals(d.max(), g.max(), 0.0);
+    for(double t=0.0; t<=3.0; t+=0.01)
+      assertEquals(d.cdf(t), g.cdf(t), 1E-3);
+    assertEquals(d.E(), g.E(), 1E-3);
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * GammaDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class GammaDistributionTest extends TestCase {
+
+  public GammaDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testExponential() {
+    final GammaDistribution d = new GammaDistribution(1.0, 2.5);
+    for(int i=1; i<20; i++) {
+      final double x = 0.7*i;
+      assertEquals(Math.exp(-x/2.5)/2.5, d.f(x), 1E-12);
+      assertEquals(-Math.expm1(-x/2.5), d.cdf(x), 1E-12);
+      assertEquals(Math.exp(-x/2.5), d.ucdf(x), 1E-12);
+      final double p = i/20.0;
+      assertEquals(-2.5*Math.log1p(-p), d.qf(p), 1E-10);
+    }
+  }
+
+  public void testChiSquareQuantiles() {
+    // reference values from R's qchisq
+    assertEquals(3.841458820694124, new ChiSquareDistribution(1).qf(0.95), 1E-8);
+    assertEquals(18.307038053275146, new ChiSquareDistribution(10).qf(0.95), 1E-8);
+    assertEquals(3.940299136119245, new ChiSquareDistribution(10).qf(0.05), 1E-8);
+    assertEquals(5.0, new ChiSquareDistribution(5).E(), 0.0);
+    assertEquals(10.0, new ChiSquareDistribution(5).Var(), 0.0);
+  }
+
+  public void testQuantilesInvertCdf() {
+    final double[] shapes = {0.05, 0.5, 1.0, 3.7, 40.0, 1E4, 1E6};
+    final double[] ps = {1E-12, 1E-6, 0.01, 0.3, 0.5, 0.7, 0.99, 1-1E-6, 1-1E-12};
+    for (double k : shapes) {
+      final GammaDistribution d = new GammaDistribution(k, 1.5);
+      for (double p : ps) {
+        final double x = d.qf(p);
+        if (p<=0.5) assertEquals("shape "+k+", p "+p, p, d.cdf(x), 1E-9*p);
+        else assertEquals("shape "+k+", p "+p, 1-p, d.ucdf(x), 1E-8*(1-p));
+      }
+    }
+  }
+
+  public void testQuantilesSmallShapesAndTails() {
+    // these used to throw from the continued fraction
+    assertTrue(new GammaDistribution(0.0032560417653749083, 1).qf(0.09339770065664954) >= 0);
+    assertTrue(new GammaDistribution(0.0347, 1).qf(7.2E-12) >= 0);
+    final double[] shapes = {1E-3, 0.0032560417653749083, 0.0347, 0.2, 409.18, 1500.0};
+    final double[] ps = {1E-300, 1E-100, 7.2E-12, 1E-3, 0.09339770065664954, 0.6, 1-1E-9, 1-1E-15};
+    for (double k : shapes) {
+      final GammaDistribution d = new GammaDistribution(k, 1.0);
+      for (double p : ps) {
+        final double x = d.qf(p);
+        // subnormal quantiles have too few digits for a round trip
+        if (x<MathFunctions.DBL_MIN_NORMAL) continue;
+        final String msg = "shape "+k+", p "+p;
+        if (p<=0.5) assertEquals(msg, p, d.cdf(x), 1E-9*p);
+        else assertEquals(msg, 1-p, d.ucdf(x), 1E-8*(1-p));
+      }
+    }
+  }
+
+  public void testDensityAndMoments() {
+    final GammaDistribution d = new GammaDistribution(2.5, 0.8);
+    // the cdf is the integral of the density
+    final double x = 1.7, h = 1E-5;
+    assertEquals(d.f(x), (d.cdf(x+h)-d.cdf(x-h))/(2*h), 1E-8);
+    assertEquals(d.moment(1), d.E(), 1E-12);
+    assertEquals(d.Var(), d.cmoment(2), 1E-12);
+    assertEquals(d.skewness(), d.cmoment(3)/Math.pow(d.Var(),1.5), 1E-9);
+    assertEquals(d.kurtosisExcess(), d.cmoment(4)/(d.Var()*d.Var())-3.0, 1E-9);
+    assertEquals(1.2, d.mode(), 1E-12);
+    try {
+      d.cmoment(2.5);
+      fail("non-integer central moment accepted");
+    } catch (IllegalArgumentException e) { }
+    assertEquals(d.cdf(3.0)-d.cdf(1.0), d.P(1.0, 3.0, Interval.Type.Closed), 1E-14);
+  }
+
+  public void testRandom() {
+    final double[] shapes = {0.3, 1.0, 7.5};
+    for (double k : shapes) {
+      final GammaDistribution d = new GammaDistribution(k, 2.0);
+      final int n = 100000;
+      double s = 0.0, ss = 0.0;
+      for(int i=0; i<n; i++) {
+        final double x = d.random();
+        assertTrue(x>=0);
+        s += x; ss += x*x;
+      }
+      final double mean = s/n, var = ss/n-mean*mean;
+      assertEquals(d.E(), mean, 5*d.std()/Math.sqrt(n));
+      assertEquals(d.Var(), var, 0.05*d.Var());
+    }
+  }
+
+  public void testQuantileBatch() {
+    // the mixture has no quantile formula: bisection with shared brackets
+    final MixtureDistribution m = new MixtureDistribution(new double[] {0.3, 0.7},
+        new GammaDistribution(2.0, 1.0), new GammaDistribution(9.0, 0.5));
+    final double[] p = new double[99];
+    for(int i=0; i<p.length; i++) p[i] = (i%2==0)? (i+1)/100.0 : (99-i)/100.0;
+    final double[] q = new double[p.length];
+    m.qf(p, q);
+    for(int i=0; i<p.length; i++) assertEquals(p[i], m.cdf(q[i]), 1E-12);
+    final GammaDistribution g = new GammaDistribution(3.0, 2.0);
+    g.qf(p, q);
+    for(int i=0; i<p.length; i++) assertEquals(g.qf(p[i]), q[i], 0.0);
+    assertEquals(g.qf(0.75)-g.qf(0.25), g.iqr(), 0.0);
+  }
+
+  public void testEquality() {
+    final GammaDistribution g = new GammaDistribution(2.5, 0.8);
+    assertEquals(g, new GammaDistribution(2.5, 0.8));
+    assertEquals(g.hashCode(), new GammaDistribution(2.5, 0.8).hashCode());
+    assertFalse(g.equals(new GammaDistribution(2.5, 0.9)));
+    assertFalse(g.equals(new GammaDistribution(2.6, 0.8)));
+    assertFalse(g.equals(null));
+    assertFalse(new GammaDistribution(1.0, 1.0).equals(new BetaDistribution(1.0, 1.0)));
+  }
+
+}
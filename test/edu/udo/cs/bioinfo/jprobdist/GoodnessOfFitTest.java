@@ -0,0 +1,82 @@
+/*
+ * GoodnessOfFitTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import java.util.stream.IntStream;
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class GoodnessOfFitTest extends TestCase {
+
+  public GoodnessOfFitTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testPValues() {
+    // tabulated critical values
+    assertEquals(0.05, GoodnessOfFit.adPValue(1000, 2.492), 5E-4);
+    assertEquals(0.01, GoodnessOfFit.adPValue(1000, 3.857), 5E-4);
+    assertEquals(0.05, GoodnessOfFit.ksPValue(100, 0.134, true), 1E-3);
+    assertEquals(0.05, GoodnessOfFit.ksPValue(1000000, 1.358/1000, false), 1E-3);
+    assertEquals(1.0, GoodnessOfFit.ksPValue(10, 0.0, true), 0.0);
+    // the exact and asymptotic p-values agree for larger n
+    assertEquals(GoodnessOfFit.ksPValue(1000, 0.03, false), GoodnessOfFit.ksPValue(1000, 0.03, true), 2E-3);
+  }
+
+  public void testContinuous() {
+    // the quantiles at (i+1/2)/n fit perfectly, a shifted model does not
+    final GammaDistribution g = new GammaDistribution(2.0, 1.0);
+    final int n = 5000;
+    final double[] x = new double[n];
+    for(int i=0; i<n; i++) x[(i*7919)%n] = g.qf((i+0.5)/n);
+    final GoodnessOfFit.Result ks = GoodnessOfFit.ks(g, x);
+    assertEquals(0.5/n, ks.statistic, 1E-9);
+    assertEquals(1.0, ks.pValue, 1E-9);
+    assertTrue(GoodnessOfFit.andersonDarling(g, x).pValue>0.99);
+    assertTrue(GoodnessOfFit.ks(new GammaDistribution(2.2, 1.0), x).pValue<1E-6);
+    assertTrue(GoodnessOfFit.andersonDarling(new GammaDistribution(2.2, 1.0), x).pValue<1E-3);
+  }
+
+  public void testDiscrete() {
+    // a sample with (almost) exactly the expected counts
+    final PoissonDistribution p = new PoissonDistribution(6.0);
+    final int n = 100000;
+    final int[] counts = new int[40];
+    int total = 0;
+    for(int k=0; k<40; k++) { counts[k] = (int)Math.round(n*p.P(k)); total += counts[k]; }
+    final double[] x = new double[total];
+    for(int k=0, i=0; k<40; k++) for(int j=0; j<counts[k]; j++) x[i++] = k;
+    final GoodnessOfFit.Histogram h = GoodnessOfFit.Histogram.of(x);
+    assertEquals(total, h.n);
+    final GoodnessOfFit.Result c = GoodnessOfFit.chiSquare(p, h, 0);
+    assertTrue(c.statistic<1.0);
+    assertTrue(c.pValue>0.999);
+    assertTrue(GoodnessOfFit.ks(p, x).pValue>0.999);
+    assertTrue(GoodnessOfFit.chiSquare(new PoissonDistribution(6.1), x).pValue<1E-6);
+    // counting a parallel stream gives the same histogram
+    final int[] y = new int[total];
+    for(int i=0; i<total; i++) y[i] = (int)x[(int)((i*104729L)%total)];
+    final GoodnessOfFit.Histogram s = GoodnessOfFit.Histogram.of(IntStream.of(y).parallel());
+    assertEquals(h.values.length, s.values.length);
+    for(int i=0; i<h.values.length; i++) {
+      assertEquals(h.values[i], s.values[i], 0.0);
+      assertEquals(h.counts[i], s.counts[i]);
+    }
+    assertEquals(Double.POSITIVE_INFINITY, GoodnessOfFit.chiSquare(p, new double[] {1.0, 2.5}).statistic, 0.0);
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * GuideTableTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class GuideTableTest extends TestCase {
+
+  public GuideTableTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  /** checks that the guide table reproduces the quantiles of d on a grid */
+  private void checkQuantiles(final DiscreteDistribution d, final GuideTable g) {
+    final int n = 2000;
+    for(int i=1; i<n; i++) {
+      final double p = (double)i/n;
+      assertEquals("qf("+p+")", d.qf(p), g.qf(p), 0.0);
+    }
+    assertEquals(d.qf(1E-14), g.qf(1E-14), 0.0);
+    assertEquals(d.qf(1.0-1E-14), g.qf(1.0-1E-14), 0.0);
+  }
+
+  public void testBinomial() {
+    final BinomialDistribution d = new BinomialDistribution(40, 0.3);
+    final GuideTable g = d.guideTable();
+    assertEquals(41, g.size());
+    checkQuantiles(d, g);
+  }
+
+  public void testPoisson() {
+    final PoissonDistribution d = new PoissonDistribution(25.5);
+    final GuideTable g = d.guideTable();
+    assertTrue(g.size()>0 && g.size()<200);
+    checkQuantiles(d, g);
+  }
+
+  public void testTabulated() {
+    final double[] atoms = {-2, 0, 0.5, 3, 7};
+    final double[] prob  = {0.1, 0.0, 0.4, 0.2, 0.3};
+    final TabulatedFiniteDistribution d = new TabulatedFiniteDistribution(atoms, prob);
+    assertEquals(-2.0, d.qf(0.05), 0.0);
+    assertEquals(-2.0, d.qf(0.1), 0.0);
+    assertEquals(0.5, d.qf(0.1000001), 0.0);
+    assertEquals(3.0, d.qf(0.7), 0.0);
+    assertEquals(7.0, d.qf(0.71), 0.0);
+    assertEquals(7.0, d.qf(1.0), 0.0);
+    for(int i=0; i<1000; i++) assertTrue(d.random()!=0.0);
+  }
+
+  public void testQuantileOfCdfIsAtom() {
+    // the guide buckets must round exactly as the lookup does
+    final java.util.Random r = new java.util.Random(24);
+    for(int t=0; t<2000; t++) {
+      final double[] w = new double[1+r.nextInt(60)];
+      double s = 0.0;
+      for(int i=0; i<w.length; i++) s += (w[i] = 1+r.nextInt(20));
+      for(int i=0; i<w.length; i++) w[i] /= s;
+      final TabulatedFiniteDistribution d = new TabulatedFiniteDistribution(0.0, w);
+      for(int i=0; i<w.length; i++) assertEquals("table "+t+", atom "+i, i, d.qf(d.cdf(i)), 0.0);
+    }
+  }
+
+  public void testRandom() {
+    final BinomialDistribution d = new BinomialDistribution(10, 0.5);
+    final GuideTable g = d.guideTable();
+    final int n = 100000;
+    double s = 0.0;
+    for(int i=0; i<n; i++) {
+      final double x = g.random();
+      assertTrue(d.isAtom(x));
+      s += x;
+    }
+    assertEquals(5.0, s/n, 0.05);
+  }
+
+  public void testSharedAcrossThreads() throws InterruptedException {
+    final PoissonDistribution d = new PoissonDistribution(100.0);
+    final GuideTable[] seen = new GuideTable[8];
+    final Thread[] threads = new Thread[seen.length];
+    for(int t=0; t<threads.length; t++) {
+      final int tt = t;
+      threads[t] = new Thread() {
+        public void run() { seen[tt] = d.guideTable(); }
+      };
+      threads[t].start();
+    }
+    for (Thread t : threads) t.join();
+    for (GuideTable g : seen) assertSame(seen[0], g);
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * HypergeometricDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class HypergeometricDistributionTest extends TestCase {
+
+  public HypergeometricDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  /** (n choose k) for small arguments, exactly */
+  private static double choose(final int n, final int k) {
+    double r = 1.0;
+    for(int i=1; i<=k; i++) r = r*(n-k+i)/i;
+    return r;
+  }
+
+  public void testPmf() {
+    final HypergeometricDistribution d = new HypergeometricDistribution(20, 7, 12);
+    assertEquals(0.0, d.min(), 0.0);
+    assertEquals(7.0, d.max(), 0.0);
+    double s = 0.0;
+    for(int x=0; x<=7; x++) {
+      final double p = choose(7,x)*choose(13,12-x)/choose(20,12);
+      assertEquals(p, d.P(x), 1E-9);  // lngamma accuracy
+      s += d.P(x);
+    }
+    assertEquals(1.0, s, 1E-9);
+    assertEquals(0.0, d.P(8), 0.0);
+    assertEquals(0.0, d.P(2.5), 0.0);
+    // support with a positive lower end
+    final HypergeometricDistribution e = new HypergeometricDistribution(10, 8, 5);
+    assertEquals(3.0, e.min(), 0.0);
+    assertEquals(choose(8,3)*choose(2,2)/choose(10,5), e.P(3), 1E-9);
+  }
+
+  public void testIntervalsAndQuantiles() {
+    final HypergeometricDistribution d = new HypergeometricDistribution(500, 60, 120);
+    for(int a=0; a<=60; a+=3) {
+      double direct = 0.0;
+      for(int x=a; x<=a+9; x++) direct += d.P(x);
+      assertEquals(direct, d.P(a, a+9, Interval.Type.Closed), 1E-9*direct);
+      double lower = 0.0;
+      for(int x=0; x<=a; x++) lower += d.P(x);
+      assertEquals(lower, d.cdf(a), 1E-9);
+      assertEquals(1.0-lower+d.P(a), d.ucdf(a), 1E-9);
+    }
+    for(int i=1; i<100; i++) {
+      final double p = i/100.0;
+      final double x = d.qf(p);
+      assertTrue(d.cdf(x)>=p);
+      assertTrue(x==d.min() || d.cdf(x-1)<p);
+    }
+  }
+
+  public void testLogUpperTail() {
+    // the generic DiscreteDistribution.lnucdf used to return 0 above the minimum
+    final HypergeometricDistribution d = new HypergeometricDistribution(500, 60, 120);
+    assertEquals(0.0, d.lnucdf(d.min()), 0.0);
+    for(int a=5; a<=40; a+=5) assertEquals(Math.log(d.ucdf(a)), d.lnucdf(a), 1E-9);
+  }
+
+  public void testMoments() {
+    final HypergeometricDistribution d = new HypergeometricDistribution(50, 18, 21);
+    double m1=0, m2=0, m3=0, m4=0;
+    for(int x=0; x<=18; x++) m1 += x*d.P(x);
+    for(int x=0; x<=18; x++) {
+      final double y = x-m1, p = d.P(x);
+      m2 += y*y*p; m3 += y*y*y*p; m4 += y*y*y*y*p;
+    }
+    assertEquals(m1, d.E(), 1E-9);
+    assertEquals(m2, d.Var(), 1E-9);
+    assertEquals(m3/Math.pow(m2,1.5), d.skewness(), 1E-9);
+    assertEquals(m4/(m2*m2)-3.0, d.kurtosisExcess(), 1E-9);
+  }
+
+  public void testRandom() {
+    // large enough for the HRUA sampler, in all four orientations
+    final long[][] params = {{1000,300,200}, {1000,700,200}, {1000,300,800}, {1000,700,800}};
+    for (long[] q : params) {
+      final HypergeometricDistribution d = new HypergeometricDistribution(q[0], q[1], q[2]);
+      final int n = 50000;
+      double s = 0.0, ss = 0.0;
+      for(int i=0; i<n; i++) {
+        final double x = d.random();
+        assertTrue(d.isAtom(x));
+        s += x; ss += x*x;
+      }
+      final double mean = s/n, var = ss/n-mean*mean;
+      assertEquals(d.E(), mean, 5*Math.sqrt(d.Var()/n));
+      assertEquals(d.Var(), var, 0.05*d.Var());
+    }
+  }
+
+  /** direct two-sided p-value by enumeration */
+  private static double twoSided(final HypergeometricDistribution d, final long a) {
+    final double pa = d.P(a)*FisherExactTest.REL_ERR;
+    double s = 0.0;
+    for(double x : d) if (d.P(x)<=pa) s += d.P(x);
+    return s;
+  }
+
+  public void testFisherExactTest() {
+    // the lady tasting tea
+    assertEquals(0.4857142857, FisherExactTest.pValue(3, 1, 1, 3, FisherExactTest.Alternative.TWO_SIDED), 1E-9);
+    assertEquals(0.2428571429, FisherExactTest.pValue(3, 1, 1, 3, FisherExactTest.Alternative.GREATER), 1E-9);
+    assertEquals(0.9857142857, FisherExactTest.pValue(3, 1, 1, 3, FisherExactTest.Alternative.LESS), 1E-9);
+
+    // bulk tests with repeated margins against direct enumeration
+    final int m = 300;
+    final long[] a = new long[m], b = new long[m], c = new long[m], d = new long[m];
+    for(int i=0; i<m; i++) {
+      final int set = 10 + 5*(i%4);        // a few distinct set sizes
+      a[i] = i%(set+1);
+      b[i] = set-a[i];
+      c[i] = 40-a[i];
+      d[i] = 460-b[i];
+    }
+    for (FisherExactTest.Alternative alt : FisherExactTest.Alternative.values()) {
+      final double[] out = new double[m];
+      FisherExactTest.pValues(a, b, c, d, alt, out);
+      for(int i=0; i<m; i++) {
+        final HypergeometricDistribution h = new HypergeometricDistribution(500, a[i]+c[i], a[i]+b[i]);
+        final double expected;
+        if (alt==FisherExactTest.Alternative.LESS) expected = h.cdf(a[i]);
+        else if (alt==FisherExactTest.Alternative.GREATER) expected = h.ucdf(a[i]);
+        else expected = twoSided(h, a[i]);
+        assertEquals(alt+" "+i, expected, out[i], 1E-9*Math.max(expected, 1E-300)+1E-15);
+      }
+    }
+  }
+
+  public void testFisherExactTestExtremeTail() {
+    // far outside the pmf window: answered by the distribution itself
+    final double p = FisherExactTest.pValue(2000, 0, 0, 2000, FisherExactTest.Alternative.GREATER);
+    final double q = FisherExactTest.pValue(2000, 0, 0, 2000, FisherExactTest.Alternative.TWO_SIDED);
+    assertEquals(0.0, p, 0.0);   // underflows: ~ 1E-1203
+    assertEquals(0.0, q, 0.0);
+    // P(505) = 1/(1010 choose 505), about 4E-303: outside the window, but representable
+    final HypergeometricDistribution h = new HypergeometricDistribution(1010, 505, 505);
+    final double p505 = h.P(505);
+    assertTrue(p505>0.0);
+    assertEquals(p505, FisherExactTest.pValue(505, 0, 0, 505, FisherExactTest.Alternative.GREATER), 1E-8*p505);
+    assertEquals(2*p505, FisherExactTest.pValue(505, 0, 0, 505, FisherExactTest.Alternative.TWO_SIDED), 1E-8*p505);
+    assertEquals(2*p505, FisherExactTest.pValue(0, 505, 505, 0, FisherExactTest.Alternative.TWO_SIDED), 1E-8*p505);
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * InstrumentationTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import edu.udo.cs.bioinfo.jprobdist.Instrumentation.Kernel;
+import edu.udo.cs.bioinfo.jprobdist.Instrumentation.KernelStatisticsMXBean;
+
+/**
+ * The recording methods are package-private and work whether or not
+ * instrumentation is switched on; only the call sites in the kernels
+ * are guarded by ENABLED. Run with -Djprobdist.instrumentation=true
+ * to check the call sites as well.
+ *
+ * @author Sven Rahmann
+ */
+public class InstrumentationTest extends TestCase {
+
+  public InstrumentationTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testRecordAndReset() {
+    final KernelStatisticsMXBean s = Instrumentation.statistics(Kernel.ROOT_BISECTION);
+    s.reset();
+    assertEquals(0L, s.getCalls());
+    assertEquals(0.0, s.getMeanIterations(), 0.0);
+    final long[] its = {0, 1, 2, 3, 4, 7, 8, 1000, 1L<<31, 1L<<40};
+    // bucket b holds 2^(b-1) <= iterations < 2^b; the last bucket takes the rest
+    final int[] buckets = {0, 1, 2, 2, 3, 3, 4, 10, 32, 32};
+    long total = 0;
+    for (long it : its) { Instrumentation.record(Kernel.ROOT_BISECTION, it); total += it; }
+    assertEquals(its.length, s.getCalls());
+    assertEquals(total, s.getIterations());
+    assertEquals((double)total/its.length, s.getMeanIterations(), 1E-9);
+    final long[] expected = new long[Instrumentation.BUCKETS];
+    for (int b : buckets) expected[b]++;
+    final long[] h = s.getIterationHistogram();
+    for(int b=0; b<h.length; b++) assertEquals("bucket "+b, expected[b], h[b]);
+    Instrumentation.nonConvergence(Kernel.ROOT_BISECTION, 100, 1.0, 2.0);
+    Instrumentation.nonConvergence(Kernel.ROOT_BISECTION, 100, 1.0, 2.0);
+    assertEquals(2L, s.getNonConvergences());
+    s.reset();
+    assertEquals(0L, s.getCalls());
+    assertEquals(0L, s.getIterations());
+    assertEquals(0L, s.getNonConvergences());
+    for (long c : s.getIterationHistogram()) assertEquals(0L, c);
+  }
+
+  public void testKernelCallSites() {
+    final KernelStatisticsMXBean s = Instrumentation.statistics(Kernel.GAMMA_SERIES);
+    s.reset();
+    MathFunctions.gammaP(3.0, 1.0);
+    MathFunctions.gammaP(30.0, 20.0);
+    if (Instrumentation.ENABLED) {
+      assertEquals(2L, s.getCalls());
+      assertTrue(s.getIterations()>=2);
+    } else {
+      assertEquals(0L, s.getCalls());
+    }
+    final KernelStatisticsMXBean e = Instrumentation.statistics(Kernel.FINITE_ENUMERATION);
+    e.reset();
+    final HypergeometricDistribution d = new HypergeometricDistribution(20, 7, 12);
+    assertEquals(1.0, d.E(new MathFunctions.RealFunction() {
+      public double valueAt(final double x) { return 1.0; }
+    }), 1E-9);
+    assertEquals(Instrumentation.ENABLED? 1L : 0L, e.getCalls());
+    assertEquals(Instrumentation.ENABLED? 8L : 0L, e.getIterations());
+  }
+
+}
@@ -119,6 +119,60 @@ public class MathFunctionsTest extends TestCase {
   }
 
 
+  /**
+   * Test of betaI and betaIc methods, of class edu.udo.cs.bioinfo.jprobdist.MathFunctions.
+   */
+  public void testBetaI() {
+    System.out.println("betaI");
+    
+    // closed forms: I_x(1,b) = 1-(1-x)^b, I_x(a,1) = x^a, I_0.5(a,a) = 0.5
+    assertEquals(1.0-Math.pow(0.7,5.5), MathFunctions.betaI(1.0, 5.5, 0.3), 1E-14);
+    assertEquals(Math.pow(0.3,7.25), MathFunctions.betaI(7.25, 1.0, 0.3), 1E-14);
+    assertEquals(0.5, MathFunctions.betaI(1234.5, 1234.5, 0.5), 1E-12);
+    // binomial tail: P(Bin(n,p)>=k) = I_p(k,n-k+1)
+    final BinomialDistribution bin = new BinomialDistribution(80, 0.3);
+    for(int k=1; k<=80; k+=7) {
+      final double t = bin.P(k, 80, Interval.Type.Closed);
+      assertEquals(t, MathFunctions.betaI(k, 80-k+1, 0.3), 1E-9*t);
+      assertEquals(1.0-t, MathFunctions.betaIc(k, 80-k+1, 0.3, 0.7), 1E-9*t);
+    }
+    // large parameters converge
+    final double m = MathFunctions.betaI(1E7, 1E7, 0.5+1E-4);
+    assertTrue(m>0.5 && m<1.0);
+  }
+
+  /**
+   * Test of lngammaP, lngammaQ, lnbetaI and lnbetaIc methods, of class edu.udo.cs.bioinfo.jprobdist.MathFunctions.
+   */
+  public void testLogTails() {
+    System.out.println("lngammaP, lngammaQ, lnbetaI, lnbetaIc");
+    
+    // agreement with the linear versions where those are representable
+    final double[] a = {0.5, 3.0, 47.5, 1E4};
+    for(double aa: a) for(double f=0.1; f<3; f+=0.35) {
+      final double x = f*aa;
+      final double lp = Math.log(MathFunctions.gammaP(aa,x)), lq = Math.log(MathFunctions.gammaQ(aa,x));
+      if (lp>-700) assertEquals(lp, MathFunctions.lngammaP(aa,x), 1E-9*(1-lp));
+      if (lq>-700) assertEquals(lq, MathFunctions.lngammaQ(aa,x), 1E-9*(1-lq));
+      // beyond underflow, the log versions stay finite
+      assertTrue(MathFunctions.lngammaP(aa,x)>Double.NEGATIVE_INFINITY);
+      assertTrue(MathFunctions.lngammaQ(aa,x)>Double.NEGATIVE_INFINITY);
+    }
+    // closed forms far beyond underflow: Q(1,x) = exp(-x), I_x(a,1) = x^a
+    assertEquals(-5000.0, MathFunctions.lngammaQ(1.0, 5000.0), 1E-9);
+    assertEquals(0.0, MathFunctions.lngammaP(1.0, 5000.0), 0.0);
+    assertEquals(400*Math.log(1E-3), MathFunctions.lnbetaI(400.0, 1.0, 1E-3, 1.0-1E-3), 1E-9);
+    assertEquals(400*Math.log(1E-3), MathFunctions.lnbetaIc(1.0, 400.0, 1.0-1E-3, 1E-3), 1E-9);
+    // small x: P(a,x) = x^a/Gamma(a+1) (1 - a x/(a+1) + ...)
+    final double lp = MathFunctions.lngammaP(50.0, 1E-10);
+    assertEquals(50*Math.log(1E-10) - MathFunctions.lngamma(51.0), lp, 1E-8*Math.abs(lp));
+    assertEquals(Double.NEGATIVE_INFINITY, MathFunctions.lngammaP(2.0, 0.0), 0.0);
+    assertEquals(Double.NEGATIVE_INFINITY, MathFunctions.lnbetaI(2.0, 3.0, 0.0, 1.0), 0.0);
+    // the continued fraction used to start at i=0, taking a spurious step:
+    // Q(2,5) = 6 exp(-5)
+    assertEquals(6*Math.exp(-5.0), MathFunctions.gammaCF(2.0, 5.0)[0], 1E-15);
+  }
+
   /**
    * Test of findRootInterval method, of class edu.udo.cs.bioinfo.jprobdist.MathFunctions.
    */
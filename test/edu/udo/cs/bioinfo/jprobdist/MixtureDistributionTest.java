@@ -0,0 +1,101 @@
+/*
+ * MixtureDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class MixtureDistributionTest extends TestCase {
+
+  public MixtureDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  private static MixtureDistribution discreteMixture() {
+    return new MixtureDistribution(new double[] {2.0, 1.0, 1.0},
+        new PoissonDistribution(3.0), new BinomialDistribution(20, 0.4), new PoissonDistribution(40.0));
+  }
+
+  public void testBatchMatchesScalar() {
+    final MixtureDistribution d = discreteMixture();
+    final double[] x = {7, 0, 3, 3, 120, -1, 2.5, 20, 41, Double.NaN};
+    final double[] out = new double[x.length];
+    d.lnP(x, out);
+    for(int i=0; i<x.length; i++) assertEquals("lnP("+x[i]+")", d.lnP(x[i]), out[i], 1E-13);
+    final MixtureDistribution c = new MixtureDistribution(new double[] {0.25, 0.75},
+        new GammaDistribution(0.5, 2.0), new GammaDistribution(30.0, 1.0));
+    final double[] y = {0.0, 1E-8, 0.3, 29.5, 200.0, -2.0};
+    final double[] lnf = new double[y.length];
+    c.lnf(y, lnf);
+    for(int i=0; i<y.length; i++) assertEquals("lnf("+y[i]+")", c.lnf(y[i]), lnf[i], 1E-13);
+  }
+
+  public void testNormalization() {
+    final MixtureDistribution d = discreteMixture();
+    assertEquals(0.5, d.weight(0), 0.0);
+    double s = 0.0;
+    for(int x=0; x<=200; x++) s += d.P(x);
+    assertEquals(1.0, s, 1E-13);
+    final double[] xs = {-1.0, 0.0, 2.0, 7.5, 12.0, 39.0, 80.0};
+    for(double x: xs) {
+      // ucdf(x) = P(X>=x), so the atom at x is counted twice
+      assertEquals("x="+x, 1.0, d.cdf(x)+d.ucdf(x)-d.P(x), 1E-13);
+      assertEquals(Math.log(d.cdf(x)), d.lncdf(x), 1E-12);
+    }
+    final MixtureDistribution c = new MixtureDistribution(new double[] {0.25, 0.75},
+        new GammaDistribution(0.5, 2.0), new GammaDistribution(30.0, 1.0));
+    for(double x: xs) assertEquals("x="+x, 1.0, c.cdf(x)+c.ucdf(x), 1E-13);
+    assertEquals(0.5*3.0 + 0.25*8.0 + 0.25*40.0, d.E(), 1E-12);
+  }
+
+  public void testFitEM() {
+    // larger than EM_CHUNK = 2^14, so that the E-step forks and merges
+    final int n = 50000;
+    final PoissonDistribution p1 = new PoissonDistribution(3.0), p2 = new PoissonDistribution(15.0);
+    final java.util.Random r = new java.util.Random(28);
+    final double[] X = new double[n];
+    for(int i=0; i<n; i++) X[i] = (r.nextDouble()<0.3)? p1.random() : p2.random();
+    final MixtureDistribution start = new MixtureDistribution(new double[] {0.5, 0.5},
+        new PoissonDistribution(1.0), new PoissonDistribution(20.0));
+    final MixtureDistribution fit = MixtureDistribution.fitEM(start, X, 500, 1E-12);
+    assertEquals(0.3, fit.weight(0), 0.015);
+    assertEquals(3.0, ((PoissonDistribution)fit.component(0)).lambda, 0.1);
+    assertEquals(15.0, ((PoissonDistribution)fit.component(1)).lambda, 0.15);
+    // the sample repeated twice is split into different chunks,
+    // but must give the same sufficient statistics up to rounding
+    final double[] XX = new double[2*n];
+    System.arraycopy(X, 0, XX, 0, n);
+    System.arraycopy(X, 0, XX, n, n);
+    final MixtureDistribution fit2 = MixtureDistribution.fitEM(start, XX, 1, 0.0);
+    final MixtureDistribution fit1 = MixtureDistribution.fitEM(start, X, 1, 0.0);
+    for(int j=0; j<2; j++) {
+      assertEquals(fit1.weight(j), fit2.weight(j), 1E-12);
+      assertEquals(fit1.component(j).E(), fit2.component(j).E(), 1E-10);
+    }
+  }
+
+  public void testDiscreteExpectationTerminates() {
+    // E(h) used to iterate forever over an infinite support
+    final PoissonDistribution d = new PoissonDistribution(12.5);
+    assertEquals(12.5, d.E(MathFunctions.ID), 1E-10);
+    final double e2 = d.E(new MathFunctions.RealFunction() {
+      public double valueAt(final double x) { return x*x; }
+    });
+    assertEquals(12.5 + 12.5*12.5, e2, 1E-9);
+  }
+
+}
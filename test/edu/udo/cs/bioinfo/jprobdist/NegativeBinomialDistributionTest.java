@@ -0,0 +1,133 @@
+/*
+ * NegativeBinomialDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class NegativeBinomialDistributionTest extends TestCase {
+
+  public NegativeBinomialDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testPmfAndCdf() {
+    final double[][] params = {{5, 0.5}, {2.5, 3.0}, {100, 0.1}, {40, 0.001}};
+    for (double[] q : params) {
+      final NegativeBinomialDistribution d = new NegativeBinomialDistribution(q[0], q[1]);
+      final double r = 1.0/q[1], p = r/(r+q[0]);
+      // P(0) = p^r, P(x+1)/P(x) = (x+r)/(x+1)*(1-p)
+      double px = Math.pow(p, r), cdf = 0.0;
+      for(int x=0; x<400; x++) {
+        cdf += px;
+        assertEquals(px, d.P(x), 1E-10*px);
+        assertEquals(cdf, d.cdf(x), 1E-10);
+        assertEquals(1.0-cdf+px, d.ucdf(x), 1E-10);
+        assertEquals(cdf, d.cdf(x+0.5), 1E-10);
+        px *= (x+r)/(x+1)*(1-p);
+      }
+      double direct = 0.0;
+      for(int x=7; x<=19; x++) direct += d.P(x);
+      assertEquals(direct, d.P(7, 19, Interval.Type.Closed), 1E-12);
+    }
+  }
+
+  public void testMoments() {
+    final NegativeBinomialDistribution d = new NegativeBinomialDistribution(12.0, 0.25);
+    double m1=0, m2=0, m3=0, m4=0;
+    for(int x=0; x<2000; x++) m1 += x*d.P(x);
+    for(int x=0; x<2000; x++) {
+      final double y = x-m1, p = d.P(x);
+      m2 += y*y*p; m3 += y*y*y*p; m4 += y*y*y*y*p;
+    }
+    assertEquals(m1, d.E(), 1E-9);
+    assertEquals(m2, d.Var(), 1E-8);
+    assertEquals(m3/Math.pow(m2,1.5), d.skewness(), 1E-8);
+    assertEquals(m4/(m2*m2)-3.0, d.kurtosisExcess(), 1E-8);
+    // (r-1)*mu/r = 9 is an integer, so 8 and 9 are both modes
+    assertEquals(8.0, d.mode(), 0.0);
+    assertEquals(d.P(8), d.P(9), 1E-12);
+    assertTrue(d.P(9)>d.P(10) && d.P(8)>d.P(7));
+  }
+
+  public void testMomentEngine() {
+    final NegativeBinomialDistribution d = new NegativeBinomialDistribution(12.0, 0.25);
+    final double v = d.Var();
+    assertEquals(d.skewness(), d.cmoment(3)/Math.pow(v,1.5), 1E-10);
+    assertEquals(d.kurtosisExcess(), d.cmoment(4)/(v*v)-3.0, 1E-10);
+    assertEquals(v, d.cmoment(2), 1E-10*v);
+    assertEquals(v+144.0, d.moment(2), 1E-10*d.moment(2));
+    double h = 0.0;
+    for(int x=0; x<2000; x++) h -= d.P(x)*d.lnP(x);
+    assertEquals(h, d.entropy(), 1E-12);
+    assertSame(d.moments(), d.moments());
+    // a large mean does not cancel the variance
+    final NegativeBinomialDistribution e = new NegativeBinomialDistribution(1E6, 1E-4);
+    assertEquals(e.Var(), e.cmoment(2), 1E-8*e.Var());
+  }
+
+  public void testLargeMean() {
+    // means up to 1E7: the incomplete beta tails match the summed pmf,
+    // and the quantiles are exact
+    final double[] alphas = {0.05, 1E-4};
+    for (double alpha : alphas) {
+      final NegativeBinomialDistribution d = new NegativeBinomialDistribution(1E7, alpha);
+      final double s = d.std();
+      for(int i=-4; i<=4; i++) {
+        final double k = Math.floor(1E7 + i*s);
+        if (k<1) continue;
+        final double u = d.ucdf(k);
+        assertEquals(d.P(k, Double.POSITIVE_INFINITY, Interval.Type.Closed), u, 1E-9*u);
+        assertEquals(1.0, d.cdf(k)+d.ucdf(k+1), 1E-12);
+      }
+      final double[] ps = {1E-10, 0.001, 0.25, 0.5, 0.75, 0.999, 1.0-1E-10};
+      for (double p : ps) {
+        final double x = d.qf(p);
+        assertTrue(d.cdf(x)>=p);
+        assertTrue(d.cdf(x-1)<p);
+      }
+    }
+  }
+
+  public void testRandom() {
+    final double[][] params = {{3.0, 0.5}, {250.0, 0.2}, {1E6, 0.01}};
+    for (double[] q : params) {
+      final NegativeBinomialDistribution d = new NegativeBinomialDistribution(q[0], q[1]);
+      final int n = 100000;
+      double s = 0.0, ss = 0.0;
+      for(int i=0; i<n; i++) {
+        final double x = d.random();
+        assertTrue(d.isAtom(x));
+        s += x; ss += x*x;
+      }
+      final double mean = s/n, var = ss/n-mean*mean;
+      assertEquals(d.E(), mean, 5*d.std()/Math.sqrt(n));
+      assertEquals(d.Var(), var, 0.05*d.Var());
+    }
+  }
+
+  public void testEquality() {
+    final NegativeBinomialDistribution d = new NegativeBinomialDistribution(5.0, 0.01);
+    assertEquals(d, new NegativeBinomialDistribution(5.0, 0.01));
+    assertEquals(d.hashCode(), new NegativeBinomialDistribution(5.0, 0.01).hashCode());
+    assertFalse(d.equals(new NegativeBinomialDistribution(5.0, 0.02)));
+    assertFalse(d.equals(new NegativeBinomialDistribution(6.0, 0.01)));
+    assertFalse(d.equals(null));
+    assertFalse(d.equals(new PoissonDistribution(5.0)));
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * PoissonBinomialDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import java.util.Random;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class PoissonBinomialDistributionTest extends TestCase {
+
+  public PoissonBinomialDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  /** equal success probabilities give the Binomial distribution */
+  public void testBinomialCase() {
+    final int N = 500;   // large enough for the FFT path
+    final double[] p = new double[N];
+    java.util.Arrays.fill(p, 0.2);
+    final PoissonBinomialDistribution pb = new PoissonBinomialDistribution(p);
+    final BinomialDistribution b = new BinomialDistribution(N, 0.2);
+    for(int k=50; k<=150; k++)
+      assertEquals("P("+k+")", b.P(k), pb.P(k), 1E-9*b.P(k)+1E-15);
+    assertEquals(b.E(), pb.E(), 1E-9);
+    assertEquals(b.Var(), pb.Var(), 1E-9);
+  }
+
+  /** compare the FFT result against the direct O(n^2) recursion */
+  public void testAgainstDirect() {
+    final Random rnd = new Random(42);
+    final int N = 2000;
+    final double[] p = new double[N];
+    for(int i=0; i<N; i++) p[i] = rnd.nextDouble();
+    p[7] = 1.0;
+    p[11] = 0.0;
+    final PoissonBinomialDistribution pb = new PoissonBinomialDistribution(p);
+
+    final double[] c = new double[N+1];
+    c[0] = 1.0;
+    for(int i=0; i<N; i++) {
+      for(int k=i+1; k>0; k--) c[k] = c[k]*(1-p[i]) + c[k-1]*p[i];
+      c[0] *= 1-p[i];
+    }
+    double cum = 0.0;
+    for(int k=0; k<=N; k++) {
+      assertEquals("P("+k+")", c[k], pb.P(k), 1E-14);
+      cum += c[k];
+      assertEquals("cdf("+k+")", cum, pb.cdf(k), 1E-12);
+    }
+    assertEquals(0.0, pb.P(0), 0.0);
+    assertEquals(0.0, pb.P(N), 0.0);
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * PoissonDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import static java.lang.Math.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class PoissonDistributionTest extends TestCase {
+
+  public PoissonDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testLogTails() {
+    final PoissonDistribution d = new PoissonDistribution(10.0);
+    // agreement with the linear versions where those are representable
+    for(int k=0; k<=40; k+=3) {
+      assertEquals(log(d.cdf(k)), d.lncdf(k), 1E-11);
+      assertEquals(log(d.ucdf(k)), d.lnucdf(k), 1E-11);
+    }
+    // extreme upper tails stay finite and agree with the summed probabilities
+    for(int k=1000; k<=8000; k*=2) {
+      assertEquals(0.0, d.ucdf(k), 0.0);
+      final double lu = d.lnucdf(k);
+      assertEquals(d.lnP(k, Double.POSITIVE_INFINITY, Interval.Type.Closed), lu, 1E-9*abs(lu));
+    }
+    // extreme lower tail of a large mean
+    final PoissonDistribution e = new PoissonDistribution(5000.0);
+    final double lc = e.lncdf(2000);
+    assertEquals(0.0, e.cdf(2000), 0.0);
+    assertEquals(e.lnP(0, 2000, Interval.Type.Closed), lc, 1E-9*abs(lc));
+    assertEquals(Double.NEGATIVE_INFINITY, e.lncdf(-0.5), 0.0);
+    assertEquals(0.0, e.lnucdf(0), 0.0);
+    assertEquals(1.0, e.cdf(Double.POSITIVE_INFINITY), 0.0);
+    // below the support, and NaN, under every accuracy policy
+    for(AccuracyPolicy acc: AccuracyPolicy.values()) {
+      assertEquals(0.0, e.cdf(-1.0, acc), 0.0);
+      assertEquals(0.0, e.cdf(Double.NEGATIVE_INFINITY, acc), 0.0);
+      assertTrue(Double.isNaN(e.cdf(Double.NaN, acc)));
+    }
+    assertEquals(0.0, e.cdf(-0.5), 0.0);
+    assertEquals(0.0, new PoissonDistribution(0.0).cdf(-1.0), 0.0);
+  }
+
+  public void testBulkUpperTail() {
+    // duplicates, unsorted, non-atoms, negatives, -0.0, NaN and points beyond the mass
+    final double[] x = {55, 3, 55, 49.5, -2, 0, -0.0, 120.25, Double.NaN, 3, 50, 1E4, 0.5, 49.5};
+    final double[] u = new double[x.length], lu = new double[x.length];
+    final DiscreteDistribution[] ds = { new PoissonDistribution(50.0),
+        new BinomialDistribution(120, 0.4), new HypergeometricDistribution(200, 90, 110) };
+    final double[] tol = {1E-12, 1E-12, 1E-9};  // the Hypergeometric pmf has lngamma accuracy
+    for(int t=0; t<ds.length; t++) {
+      final DiscreteDistribution d = ds[t];
+      d.ucdf(x, u);
+      d.lnucdf(x, lu);
+      for(int i=0; i<x.length; i++) {
+        final String msg = d+".ucdf("+x[i]+")";
+        if (Double.isNaN(x[i])) { assertTrue(msg, Double.isNaN(u[i]) && Double.isNaN(lu[i])); continue; }
+        final double v = d.ucdf(x[i]), lv = d.lnucdf(x[i]);
+        assertEquals(msg, v, u[i], tol[t]*v);
+        if (lv==Double.NEGATIVE_INFINITY) assertEquals(msg, lv, lu[i], 0.0);
+        else assertEquals(msg, lv, lu[i], tol[t]*Math.max(1.0, abs(lv)));
+      }
+    }
+  }
+
+  public void testIntervalAndTailRegressions() {
+    final PoissonDistribution d = new PoissonDistribution(3.0);
+    // P(Interval) used to sum the atoms 2+3+4+5 instead of their probabilities
+    assertEquals(d.P(2)+d.P(3)+d.P(4)+d.P(5), d.P(new Interval(2, 5)), 1E-15);
+    // ucdf(x) = P(X>=x) used ceil(x+1), i.e., P(X>x)
+    assertEquals(1.0-d.cdf(2), d.ucdf(3), 1E-15);
+    assertEquals(d.ucdf(3), d.ucdf(2.5), 0.0);
+    // a ClosedOpen interval [2,5) used to lose its left end instead of its right one
+    final Interval c = new Interval(2, 5, Interval.Type.ClosedOpen).getContainedEpsInterval(1.0);
+    assertEquals(2.0, c.a, 0.0);
+    assertEquals(4.0, c.b, 0.0);
+    assertEquals(d.P(2)+d.P(3)+d.P(4), d.P(2, 5, Interval.Type.ClosedOpen), 1E-15);
+  }
+
+  public void testQuantileBatch() {
+    final double[] p = {0.9, 0.1, 0.5, 0.25, 0.5, 0.0, 1E-12, 0.999999, 0.75, 1.0};
+    final double[] q = new double[p.length];
+    for(double lambda: new double[] {0.3, 3.5, 40.0, 1E5}) {
+      final PoissonDistribution d = new PoissonDistribution(lambda);
+      d.qf(p, q);
+      for(int i=0; i<p.length; i++) assertEquals("qf("+p[i]+")", d.qf(p[i]), q[i], 0.0);
+      final double[] b = d.boxPlotStatistics();
+      assertEquals(d.qf(0.25), b[1], 0.0);
+      assertEquals(d.qf(0.5), b[2], 0.0);
+      assertEquals(d.qf(0.75), b[4], 0.0);
+      assertEquals(b[1]-1.5*d.iqr(), b[0], 0.0);
+    }
+  }
+
+  public void testLargeArguments() {
+    // reference values computed to 20 digits
+    assertEquals(-7.82669389552014312716, new PoissonDistribution(1E6).lnP(1000000), 1E-14);
+    assertEquals(-8.32636039548680146766, new PoissonDistribution(1E6).lnP(999000), 1E-14);
+    assertEquals(-2050.10517306001729026, new PoissonDistribution(50).lnP(1000), 1E-11);
+    assertEquals(-4159.79334890915798816, new PoissonDistribution(5000).lnP(200), 1E-11);
+    assertEquals(-3.5, new PoissonDistribution(3.5).lnP(0), 0.0);
+    assertEquals(log(3.5*3.5/2)-3.5, new PoissonDistribution(3.5).lnP(2), 1E-15);
+    assertEquals(Double.NEGATIVE_INFINITY, new PoissonDistribution(0.0).lnP(2), 0.0);
+  }
+
+  public void testEquality() {
+    final PoissonDistribution d = new PoissonDistribution(3.5);
+    assertEquals(d, new PoissonDistribution(3.5));
+    assertEquals(d.hashCode(), new PoissonDistribution(3.5).hashCode());
+    assertFalse(d.equals(new PoissonDistribution(3.6)));
+    assertFalse(d.equals(null));
+    assertFalse(d.equals(new NegativeBinomialDistribution(3.5, 0.01)));
+    assertEquals(new PoissonDistribution(0.0), new PoissonDistribution(0.0));
+  }
+
+}
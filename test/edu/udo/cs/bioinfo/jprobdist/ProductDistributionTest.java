@@ -0,0 +1,70 @@
+/*
+ * ProductDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class ProductDistributionTest extends TestCase {
+
+  public ProductDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testPoints() {
+    final PoissonDistribution p1 = new PoissonDistribution(2.0), p2 = new PoissonDistribution(7.5);
+    final BinomialDistribution b = new BinomialDistribution(10, 0.25);
+    final ProductDistribution d = new ProductDistribution(p1, p2, b);
+    assertEquals(3, d.d);
+    assertEquals(p1.lnP(1)+p2.lnP(8)+b.lnP(3), d.lnP(1, 8, 3), 1E-14);
+    assertEquals(p1.P(1)*p2.P(8)*b.P(3), d.P(1, 8, 3), 1E-15);
+    assertEquals(p1.cdf(1)*p2.cdf(8)*b.cdf(3), d.cdf(1, 8, 3), 1E-14);
+    assertEquals(p1.ucdf(1)*p2.ucdf(8)*b.ucdf(3), d.ucdf(1, 8, 3), 1E-14);
+    assertEquals(Double.NEGATIVE_INFINITY, d.lnP(1, 8, 11), 0.0);
+    assertTrue(d.isAtom(0, 0, 10));
+    assertFalse(d.isAtom(0, 0.5, 10));
+    assertFalse(d.isFinite());
+    try {
+      d.lnP(1, 2);
+      fail("dimension mismatch not detected");
+    } catch (DimensionMismatchException e) { }
+  }
+
+  public void testBatch() {
+    final int dim = 4, n = 20000;
+    final UVDistribution[] c = new UVDistribution[dim];
+    for(int j=0; j<dim; j++) c[j] = new PoissonDistribution(1.0+3*j);
+    final ProductDistribution d = new ProductDistribution(c);
+    final double[] x = new double[n*dim];
+    for(int i=0; i<n; i++) for(int j=0; j<dim; j++) x[i*dim+j] = c[j].random();
+    final double[] out = new double[n];
+    d.lnP(x, out);
+    final double[] pt = new double[dim];
+    for(int i=0; i<n; i+=37) {
+      System.arraycopy(x, i*dim, pt, 0, dim);
+      assertEquals(d.lnP(pt), out[i], 1E-12*Math.abs(out[i]));
+    }
+    final GammaDistribution g = new GammaDistribution(2.0, 1.0);
+    final ProductDistribution h = new ProductDistribution(g, g);
+    final double[] y = {0.5, 1.5, 2.0, 3.0};
+    final double[] lf = new double[2];
+    h.lnf(y, lf);
+    assertEquals(g.lnf(0.5)+g.lnf(1.5), lf[0], 1E-14);
+    assertEquals(g.lnf(2.0)+g.lnf(3.0), lf[1], 1E-14);
+  }
+
+}
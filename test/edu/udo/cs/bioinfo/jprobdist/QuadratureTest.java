@@ -0,0 +1,96 @@
+/*
+ * QuadratureTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import edu.udo.cs.bioinfo.jprobdist.MathFunctions.RealFunction;
+import static java.lang.Math.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class QuadratureTest extends TestCase {
+
+  public QuadratureTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testIntegrate() {
+    final RealFunction cosine = new RealFunction() {
+      public double valueAt(final double x) { return cos(x); }
+    };
+    assertEquals(sin(10.0), Quadrature.gaussKronrod(cosine, 0, 10, 1E-12, 0), 1E-12);
+    // singular at 0: integral of x^(-1/2) over [0,1] is 2
+    final RealFunction invsqrt = new RealFunction() {
+      public double valueAt(final double x) { return 1.0/sqrt(x); }
+    };
+    assertEquals(2.0, Quadrature.tanhSinh(invsqrt, 0, 1, 1E-12, 0), 1E-9);
+    final RealFunction gauss = new RealFunction() {
+      public double valueAt(final double x) { return exp(-x*x); }
+    };
+    assertEquals(sqrt(PI), Quadrature.integrate(gauss, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1E-12), 1E-10);
+    assertEquals(0.5*sqrt(PI), Quadrature.integrate(gauss, 0, Double.POSITIVE_INFINITY, 1E-12), 1E-10);
+  }
+
+  public void testExpectations() {
+    final GammaDistribution g = new GammaDistribution(3.5, 2.0);
+    final RealFunction[] powers = new RealFunction[5];
+    for(int k=0; k<powers.length; k++) {
+      final int kk = k;
+      powers[k] = new RealFunction() {
+        public double valueAt(final double x) { return pow(x, kk); }
+      };
+    }
+    for(int k=0; k<5; k++) assertEquals(g.moment(k), g.E(powers[k]), 1E-9*g.moment(k));
+    // density singular at both ends
+    final BetaDistribution b = new BetaDistribution(0.5, 0.3);
+    for(int k=0; k<5; k++) assertEquals(b.moment(k), b.E(powers[k]), 1E-8*b.moment(k));
+    final RealFunction log = new RealFunction() {
+      public double valueAt(final double x) { return Math.log(x); }
+    };
+    // E[ln X] = psi(a) - psi(a+b) for Beta(a,b); psi(1)-psi(2) = -1
+    assertEquals(-1.0, new BetaDistribution(1.0, 1.0).E(log), 1E-9);
+  }
+
+  public void testNonFinite() {
+    // a non-finite integrand is not silently dropped
+    final RealFunction pole = new RealFunction() {
+      public double valueAt(final double x) { return (x<1.0)? 1.0 : Double.NaN; }
+    };
+    assertTrue(Double.isNaN(Quadrature.gaussKronrod(pole, 0, 2, 1E-12, 0)));
+    assertTrue(Double.isNaN(Quadrature.tanhSinh(pole, 0, 2, 1E-12, 0)));
+    final GammaDistribution g = new GammaDistribution(3.5, 2.0);
+    assertTrue(Double.isNaN(g.E(pole)));
+    // but singular densities at the boundary still integrate:
+    // E[ln X] = psi(a)-psi(a+b) for Beta(a,b)
+    final RealFunction log = new RealFunction() {
+      public double valueAt(final double x) { return Math.log(x); }
+    };
+    final BetaDistribution b = new BetaDistribution(0.5, 0.3);
+    assertEquals(-0.9985014593152847, b.E(log), 1E-8);
+  }
+
+  public void testTruncatedMoments() {
+    final GammaDistribution g = new GammaDistribution(2.0, 1.0);
+    final TruncatedDistribution t = new TruncatedDistribution(g,
+        new Interval(30, Double.POSITIVE_INFINITY, Interval.Type.ClosedOpen));
+    assertEquals(962.0/31.0, t.E(), 1E-8);
+    // Gamma(2,1) on [0,1]: E = (2 - 5/e) / (1 - 2/e)
+    final TruncatedDistribution u = new TruncatedDistribution(g, new Interval(0, 1));
+    assertEquals((2-5*exp(-1))/(1-2*exp(-1)), u.E(), 1E-9);
+    assertTrue(u.Var()>0 && u.Var()<1.0/12);
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * SamplePublisherTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class SamplePublisherTest extends TestCase {
+
+  private ExecutorService executor;
+
+  public SamplePublisherTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  protected void tearDown() throws Exception {
+    executor.shutdownNow();
+  }
+
+  /** requests one chunk at a time and records what it receives */
+  private static class Collector implements Flow.Subscriber<double[]> {
+    final CountDownLatch done = new CountDownLatch(1);
+    final long stopAfter;
+    Flow.Subscription s;
+    long count = 0, chunks = 0;
+    double sum = 0;
+    int outstanding = 0, maxOutstanding = 0;
+    boolean completed = false;
+    Throwable error = null;
+
+    Collector(final long stopAfter) { this.stopAfter = stopAfter; }
+
+    public void onSubscribe(final Flow.Subscription s) {
+      this.s = s;
+      outstanding = 1;
+      s.request(1);
+    }
+    public void onNext(final double[] x) {
+      maxOutstanding = Math.max(maxOutstanding, outstanding--);
+      chunks++;
+      count += x.length;
+      for(double xi: x) sum += xi;
+      if (chunks==stopAfter) { s.cancel(); done.countDown(); return; }
+      outstanding++;
+      s.request(1);
+    }
+    public void onError(final Throwable t) { error = t; done.countDown(); }
+    public void onComplete() { completed = true; done.countDown(); }
+  }
+
+  public void testBoundedStream() throws InterruptedException {
+    final PoissonDistribution d = new PoissonDistribution(3.0);
+    final SamplePublisher p = new SamplePublisher(d, 1000, 25500, executor);
+    final Collector c = new Collector(-1);
+    p.subscribe(c);
+    assertTrue(c.done.await(10, TimeUnit.SECONDS));
+    assertTrue(c.completed);
+    assertNull(c.error);
+    assertEquals(25500, c.count);
+    assertEquals(26, c.chunks);
+    assertEquals(1, c.maxOutstanding);
+    assertEquals(3.0, c.sum/c.count, 0.1);
+  }
+
+  public void testCancelUnbounded() throws InterruptedException {
+    final SamplePublisher p = new SamplePublisher(new GammaDistribution(2.0, 1.0), 64, Long.MAX_VALUE, executor);
+    final Collector c = new Collector(100);
+    p.subscribe(c);
+    assertTrue(c.done.await(10, TimeUnit.SECONDS));
+    assertFalse(c.completed);
+    assertEquals(6400, c.count);
+  }
+
+  public void testInvalidRequest() throws InterruptedException {
+    final SamplePublisher p = new SamplePublisher(new PoissonDistribution(1.0), 10, 100, executor);
+    final Collector c = new Collector(-1) {
+      public void onSubscribe(final Flow.Subscription s) { s.request(0); }
+    };
+    p.subscribe(c);
+    assertTrue(c.done.await(10, TimeUnit.SECONDS));
+    assertTrue(c.error instanceof IllegalArgumentException);
+  }
+
+}
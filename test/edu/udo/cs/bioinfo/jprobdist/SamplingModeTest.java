@@ -0,0 +1,114 @@
+/*
+ * SamplingModeTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import java.util.Arrays;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class SamplingModeTest extends TestCase {
+
+  public SamplingModeTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testSobolPoints() {
+    final SobolSequence s = new SobolSequence(2);
+    final double[] pt = new double[2];
+    final double h = 0.5/4294967296.0;
+    final double[][] expected = {{0,0}, {0.5,0.5}, {0.75,0.25}, {0.25,0.75}, {0.375,0.375}};
+    for(double[] e: expected) {
+      s.next(pt);
+      assertEquals(e[0]+h, pt[0], 0.0);
+      assertEquals(e[1]+h, pt[1], 0.0);
+    }
+    assertEquals(5, s.index());
+  }
+
+  /** the first 2^m points of any two coordinates form a (0,m,2)-net in base 2 */
+  public void testSobolNet() {
+    final int m = 8, n = 1<<m;
+    final SobolSequence s = new SobolSequence(SobolSequence.MAX_DIMENSION, true);
+    final double[][] x = new double[n][SobolSequence.MAX_DIMENSION];
+    for(int i=0; i<n; i++) s.next(x[i]);
+    for(int j=0; j<SobolSequence.MAX_DIMENSION; j++) {
+      // each coordinate hits every interval [k/n, (k+1)/n) once
+      final boolean[] hit = new boolean[n];
+      for(int i=0; i<n; i++) {
+        final int k = (int)(x[i][j]*n);
+        assertFalse(hit[k]);
+        hit[k] = true;
+      }
+    }
+    for(int a=0; a<=m; a++) {
+      final int[] count = new int[n];
+      for(int i=0; i<n; i++)
+        count[((int)(x[i][0]*(1<<a)) << (m-a)) + (int)(x[i][1]*(1<<(m-a)))]++;
+      for(int c: count) assertEquals(1, c);
+    }
+  }
+
+  public void testStratified() {
+    final GammaDistribution g = new GammaDistribution(3.0, 1.0);
+    final int n = 1000;
+    final double[] x = g.random(n, SamplingMode.STRATIFIED);
+    Arrays.sort(x);
+    for(int i=0; i<n; i++) {
+      final double c = g.cdf(x[i]);
+      assertTrue(c>=(double)i/n - 1E-12 && c<=(double)(i+1)/n + 1E-12);
+    }
+  }
+
+  public void testMeans() {
+    final GammaDistribution g = new GammaDistribution(3.0, 1.0);
+    for(SamplingMode mode: new SamplingMode[] {SamplingMode.STRATIFIED, SamplingMode.SOBOL}) {
+      final double[] x = g.random(4096, mode);
+      double s = 0;
+      for(double xi: x) s += xi;
+      assertEquals(mode.toString(), 3.0, s/x.length, 0.01);
+    }
+    final double[] p = {1E-9, 0.1, 0.5, 0.9, 1.0-1E-9};
+    final double[] q = new double[p.length];
+    g.qf(p, q);
+    for(int i=0; i<p.length; i++) assertEquals(g.qf(p[i]), q[i], 0.0);
+  }
+
+  public void testJoint() {
+    final UVDistribution[] d = {
+      new GammaDistribution(2.0, 1.0), new PoissonDistribution(4.0), new BetaDistribution(2.0, 5.0)};
+    final int n = 512;
+    for(SamplingMode mode: SamplingMode.values()) {
+      final double[][] x = JointSampler.random(d, n, mode);
+      assertEquals(d.length, x.length);
+      for(int j=0; j<d.length; j++) {
+        assertEquals(n, x[j].length);
+        double s = 0;
+        for(double xi: x[j]) s += xi;
+        assertEquals(mode.toString(), d[j].E(), s/n, 0.2*d[j].std());
+      }
+    }
+    // Latin hypercube: each coordinate is stratified
+    final double[][] x = JointSampler.random(d, n, SamplingMode.STRATIFIED);
+    final double[] y = x[2].clone();
+    Arrays.sort(y);
+    for(int i=0; i<n; i++) {
+      final double c = d[2].cdf(y[i]);
+      assertTrue(c>=(double)i/n - 1E-12 && c<=(double)(i+1)/n + 1E-12);
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * TableIOTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class TableIOTest extends TestCase {
+
+  private Path file;
+
+  public TableIOTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+    file = Files.createTempFile("jprobdist", ".tab");
+  }
+
+  protected void tearDown() throws Exception {
+    MathFunctions.setLnfactorialTable(null);
+    Files.deleteIfExists(file);
+  }
+
+  public void testTabulatedRoundTrip() throws IOException {
+    final double[] p = new double[300];
+    for(int i=0; i<p.length; i++) p[i] = 0.01 + 0.98*i/p.length;
+    final PoissonBinomialDistribution d = new PoissonBinomialDistribution(p);
+    TableIO.write(d, file);
+    final TabulatedFiniteDistribution e = TableIO.readTabulated(file);
+    assertEquals(d.size(), e.size());
+    for(int k=0; k<=p.length; k++) {
+      assertEquals(d.P(k), e.P(k), 0.0);
+      assertEquals(d.cdf(k), e.cdf(k), 0.0);
+      assertEquals(d.ucdf(k), e.ucdf(k), 0.0);
+    }
+    assertEquals(d.E(), e.E(), 1E-12*d.E());
+    assertEquals(d.Var(), e.Var(), 1E-9*d.Var());
+    assertEquals(d.qf(0.3), e.qf(0.3), 0.0);
+
+    final TabulatedFiniteDistribution t = new TabulatedFiniteDistribution(
+        new double[] {-1.5, 0.0, 2.25}, new double[] {1, 2, 1});
+    TableIO.write(t, file);
+    final TabulatedFiniteDistribution u = TableIO.readTabulated(file);
+    assertEquals(2.25, u.max(), 0.0);
+    assertEquals(0.5, u.P(0.0), 0.0);
+  }
+
+  public void testLnfactorialTable() throws IOException {
+    final int n = 5000;
+    TableIO.writeLnfactorialTable(n, file);
+    final DoubleBuffer t = TableIO.mapLnfactorialTable(file);
+    assertEquals(n, t.limit());
+    assertEquals(0.0, t.get(0), 0.0);
+    assertEquals(0.0, t.get(1), 0.0);
+    assertEquals(Math.log(120.0), t.get(5), 1E-15);
+    for(int i=2; i<n; i+=97) {
+      final double l = MathFunctions.lngamma(i+1.0);
+      assertEquals(l, t.get(i), 1E-10*l);
+    }
+    MathFunctions.setLnfactorialTable(t);
+    assertEquals(t.get(4321), MathFunctions.lnfactorial(4321), 0.0);
+    assertEquals(MathFunctions.lngamma(n+1.0), MathFunctions.lnfactorial(n), 0.0);
+    assertEquals(MathFunctions.lngamma(4.5), MathFunctions.lnfactorial(3.5), 0.0);
+  }
+
+  public void testInvalidFiles() throws IOException {
+    TableIO.writeLnfactorialTable(10, file);
+    try {
+      TableIO.readTabulated(file);
+      fail("kind mismatch not detected");
+    } catch (IOException e) { }
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    try {
+      TableIO.mapLnfactorialTable(file);
+      fail("invalid header not detected");
+    } catch (IOException e) { }
+  }
+
+  /** rewrites the file with one int or double patched at the given byte offset */
+  private void patch(final int offset, final Number value) throws IOException {
+    final ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    if (value instanceof Integer) b.putInt(offset, value.intValue());
+    else b.putDouble(offset, value.doubleValue());
+    Files.write(file, b.array());
+  }
+
+  public void testInconsistentTables() throws IOException {
+    final TabulatedFiniteDistribution t = new TabulatedFiniteDistribution(
+        new double[] {-1.5, 0.0, 2.25}, new double[] {1, 2, 1});
+    final TabulatedFiniteDistribution l = new TabulatedFiniteDistribution(3.0, new double[] {1, 2, 1});
+    // cum[1] (after 3 atoms, 3 probabilities and cum[0]) does not match the probabilities
+    TableIO.write(t, file);
+    patch(32+8*7, 0.5);
+    try {
+      TableIO.readTabulated(file);
+      fail("inconsistent cdf column not detected");
+    } catch (IOException e) { }
+    // ucum[0]
+    TableIO.write(l, file);
+    patch(32+8*9, 0.75);
+    try {
+      TableIO.readTabulated(file);
+      fail("inconsistent upper cdf column not detected");
+    } catch (IOException e) { }
+    // lattice flag set for atoms that are not a lattice, and cleared for a lattice
+    TableIO.write(t, file);
+    patch(12, 1);
+    try {
+      TableIO.readTabulated(file);
+      fail("wrong lattice flag not detected");
+    } catch (IOException e) { }
+    TableIO.write(l, file);
+    patch(12, 0);
+    try {
+      TableIO.readTabulated(file);
+      fail("missing lattice flag not detected");
+    } catch (IOException e) { }
+    TableIO.write(l, file);
+    assertEquals(0.75, TableIO.readTabulated(file).cdf(4.5), 0.0);
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * TabulatedFiniteDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class TabulatedFiniteDistributionTest extends TestCase {
+
+  public TabulatedFiniteDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  /** a tabulated Binomial must agree with the Binomial itself */
+  public void testAgainstBinomial() {
+    final int N = 30;
+    final BinomialDistribution b = new BinomialDistribution(N, 0.3);
+    final double[] p = new double[N+1];
+    for(int i=0; i<=N; i++) p[i] = b.P(i);
+    final TabulatedFiniteDistribution t = new TabulatedFiniteDistribution(0.0, p);
+
+    for(int i=-1; i<=N+1; i++) {
+      assertEquals("cdf", b.cdf(i), t.cdf(i), 1E-9);
+      assertEquals("cdf", b.cdf(i+0.5), t.cdf(i+0.5), 1E-9);
+      assertEquals("ucdf", 1.0-b.cdf(i-1), t.ucdf(i), 1E-9);
+    }
+    for(double pp=1.0/128; pp<=1; pp+=1.0/128)
+      assertEquals("qf", b.qf(pp), t.qf(pp), 0.0);
+
+    assertEquals(b.E(), t.E(), 1E-9);
+    assertEquals(b.Var(), t.Var(), 1E-9);
+    assertEquals(b.skewness(), t.skewness(), 1E-10);
+    assertEquals(b.kurtosisExcess(), t.kurtosisExcess(), 1E-10);
+    assertEquals(b.P(new Interval(3,9,Interval.Type.OpenClosed)),
+        t.P(new Interval(3,9,Interval.Type.OpenClosed)), 1E-9);
+  }
+
+  /** irregular atoms with zero-probability entries */
+  public void testIrregularAtoms() {
+    final TabulatedFiniteDistribution t = new TabulatedFiniteDistribution(
+        new double[] {-2.5, 0.0, 1.0, 7.0, 8.5},
+        new double[] { 0.0, 2.0, 1.0, 0.0, 1.0});
+    assertEquals(0.0, t.min(), 0.0);
+    assertEquals(8.5, t.max(), 0.0);
+    assertFalse(t.isAtom(-2.5));
+    assertFalse(t.isAtom(7.0));
+    assertTrue(t.isAtom(1.0));
+    assertEquals(0.5,  t.P(0.0), 0.0);
+    assertEquals(0.75, t.cdf(6.0), 1E-15);
+    assertEquals(0.25, t.ucdf(2.0), 1E-15);
+    assertEquals(1.0,  t.qf(0.6), 0.0);
+    assertEquals(8.5,  t.qf(0.76), 0.0);
+    assertEquals(8.5,  t.closestAtom(7.0), 0.0);
+    assertEquals(1.0,  t.closestAtom(4.0), 0.0);
+
+    int count = 0;
+    for (double x : t) { assertTrue(t.isAtom(x)); count++; }
+    assertEquals(3, count);
+  }
+
+  public void testNaN() {
+    final TabulatedFiniteDistribution lattice = new TabulatedFiniteDistribution(3.0, new double[] {1, 2, 1});
+    final TabulatedFiniteDistribution irregular = new TabulatedFiniteDistribution(
+        new double[] {-2.5, 0.0, 1.0}, new double[] {1, 2, 1});
+    for (TabulatedFiniteDistribution t : new TabulatedFiniteDistribution[] {lattice, irregular}) {
+      assertTrue(Double.isNaN(t.cdf(Double.NaN)));
+      assertTrue(Double.isNaN(t.ucdf(Double.NaN)));
+      assertTrue(Double.isNaN(t.lncdf(Double.NaN)));
+      assertTrue(Double.isNaN(t.lnucdf(Double.NaN)));
+      assertEquals(0.0, t.P(Double.NaN), 0.0);
+    }
+  }
+
+}
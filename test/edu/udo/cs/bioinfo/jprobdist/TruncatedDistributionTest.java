@@ -0,0 +1,90 @@
+/*
+ * TruncatedDistributionTest.java
+ * JUnit based test
+ *
+ * Created on October 18, 2026
+ */
+
+package edu.udo.cs.bioinfo.jprobdist;
+
+import junit.framework.*;
+import static java.lang.Math.*;
+
+/**
+ *
+ * @author Sven Rahmann
+ */
+public class TruncatedDistributionTest extends TestCase {
+
+  public TruncatedDistributionTest(String testName) {
+    super(testName);
+  }
+
+  protected void setUp() throws Exception {
+  }
+
+  protected void tearDown() throws Exception {
+  }
+
+  public void testZeroTruncatedPoisson() {
+    final double lambda = 0.5;
+    final PoissonDistribution p = new PoissonDistribution(lambda);
+    final TruncatedDistribution t = new TruncatedDistribution(p,
+        new Interval(0, Double.POSITIVE_INFINITY, Interval.Type.OpenClosed));
+    final double z = -expm1(-lambda);
+    assertEquals(0.0, t.P(0), 0.0);
+    for(int k=1; k<10; k++) assertEquals(p.P(k)/z, t.P(k), 1E-12*t.P(k));
+    assertEquals(1.0, t.min(), 0.0);
+    assertEquals(Double.POSITIVE_INFINITY, t.max(), 0.0);
+    assertEquals(lambda/z, t.E(), 1E-12);
+    assertEquals((lambda+lambda*lambda)/z - t.E()*t.E(), t.Var(), 1E-12);
+    assertEquals(p.P(1)/z, t.cdf(1), 1E-12);
+    assertEquals(1.0, t.qf(0.5), 0.0);
+    for(int i=0; i<1000; i++) assertTrue(t.random()>=1.0);
+  }
+
+  public void testBinomialWindow() {
+    final BinomialDistribution b = new BinomialDistribution(20, 0.3);
+    final TruncatedDistribution t = new TruncatedDistribution(b, new Interval(3, 7));
+    final double z = b.P(3, 7, Interval.Type.Closed);
+    assertEquals(3.0, t.min(), 0.0);
+    assertEquals(7.0, t.max(), 0.0);
+    assertTrue(t.isFinite());
+    double s = 0.0;
+    for(int k=3; k<=7; k++) {
+      s += b.P(k)/z;
+      assertEquals(s, t.cdf(k), 1E-12);
+      assertEquals((double)k, t.qf(t.cdf(k)), 0.0);
+    }
+    assertEquals(1.0, t.cdf(7.5), 1E-15);
+    assertEquals(0.0, t.cdf(2.5), 0.0);
+    assertEquals(b.P(4,5,Interval.Type.Closed)/z, t.P(4, 5, Interval.Type.Closed), 1E-12);
+    assertEquals(b.P(6,7,Interval.Type.Closed)/z, t.P(new Interval(6, 100)), 1E-12);
+  }
+
+  public void testFarTails() {
+    // the retained mass is about 3E-12: rejection would be hopeless
+    final GammaDistribution g = new GammaDistribution(2.0, 1.0);
+    final TruncatedDistribution t = new TruncatedDistribution(g,
+        new Interval(30, Double.POSITIVE_INFINITY, Interval.Type.ClosedOpen));
+    assertEquals(30.0, t.min(), 0.0);
+    assertEquals(exp(g.lnf(30.0)-g.lnucdf(30.0)), t.f(30.0), 1E-9*t.f(30.0));
+    final int n = 2000;
+    double s = 0.0;
+    for(int i=0; i<n; i++) {
+      final double x = t.random();
+      assertTrue(x>=30.0);
+      s += x;
+    }
+    assertEquals(962.0/31.0, s/n, 0.15);
+    final double q = t.qf(0.5);
+    assertEquals(0.5, t.cdf(q), 1E-9);
+
+    final PoissonDistribution p = new PoissonDistribution(2.0);
+    final TruncatedDistribution u = new TruncatedDistribution(p, new Interval(30, 1000));
+    for(int i=0; i<100; i++) assertTrue(u.random()>=30.0);
+    assertEquals(30.0, u.qf(0.5), 0.0);
+    assertEquals(1.0, u.P(30, 1000, Interval.Type.Closed), 1E-12);
+  }
+
+}